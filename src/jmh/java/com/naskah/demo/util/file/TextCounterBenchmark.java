@@ -0,0 +1,59 @@
+package com.naskah.demo.util.file;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Word counting on chapter-sized text: {@link TextCounter} against the regex chain FileUtil.countWords used before.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec} (optionally {@code -Djmh.include=TextCounterBenchmark}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextCounterBenchmark {
+
+    private static final String[] WORDS = {
+            "Bumi", "Manusia", "Minke", "berkata", "kepada", "Annelies", "—", "tetapi", "tahun", "1898,",
+            "anak-anak", "sekolah", "H.B.S.", "...", "Nyai", "Ontosoroh", "café", "„Ya!”", "dan", "pergi."
+    };
+
+    @Param({"2000", "20000"})
+    private int words;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+            builder.append(i % 17 == 16 ? "\n\n" : i % 5 == 4 ? "  " : " ");
+        }
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public int textCounter() {
+        return TextCounter.countWords(text);
+    }
+
+    @Benchmark
+    public int legacyRegex() {
+        if (text == null || text.trim().isEmpty()) {
+            return 0;
+        }
+
+        String cleanText = text.trim().replaceAll("\\s+", " ");
+        String[] tokens = cleanText.split("\\s+");
+
+        return (int) Arrays.stream(tokens).filter(word -> !word.isEmpty() && word.matches(".*[\\p{L}\\p{N}].*")).count();
+    }
+}
@@ -37,6 +37,23 @@ public class BlogPostController {
         return ResponseEntity.ok(response);
     }
 
+    // Get blog posts with cursor (keyset) pagination
+    @GetMapping("/cursor")
+    public ResponseEntity<DataResponse<CursorPageResponse<BlogPostResponse>>> getBlogPostsByCursor(
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Long authorId) {
+        DataResponse<CursorPageResponse<BlogPostResponse>> response = blogPostService.getBlogPostsByCursor(
+                sort, cursor, limit, includeTotal, status, category, tag, search, authorId);
+        return ResponseEntity.ok(response);
+    }
+
     // Get single blog post by slug
     @GetMapping("/{slug}")
     public ResponseEntity<DataResponse<BlogPostDetailResponse>> getBlogPostBySlug(
@@ -171,7 +188,7 @@ public class BlogPostController {
             @RequestParam String query,
             @RequestParam(defaultValue = "1") @Min(1) int page,
             @RequestParam(defaultValue = "10") @Min(1) int limit,
-            @RequestParam(defaultValue = "createdAt", required = false) String sortField,
+            @RequestParam(defaultValue = "relevance", required = false) String sortField,
             @RequestParam(defaultValue = "DESC", required = false) String sortOrder,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String tag) {
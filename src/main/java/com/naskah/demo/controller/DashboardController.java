@@ -2,6 +2,7 @@ package com.naskah.demo.controller;
 
 import com.naskah.demo.model.dto.response.*;
 import com.naskah.demo.service.DashboardService;
+import com.naskah.demo.service.UserDailyStatsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +27,7 @@ import java.util.List;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final UserDailyStatsService userDailyStatsService;
 
     /**
      * ═══════════════════════════════════════════════════════════
@@ -106,6 +108,23 @@ public class DashboardController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Riwayat aktivitas dengan cursor (keyset) pagination; kirim kembali nextCursor untuk halaman berikutnya
+     *
+     * GET /api/dashboard/history/cursor?days=7&limit=20&cursor=...
+     */
+    @GetMapping("/history/cursor")
+    public ResponseEntity<DataResponse<CursorPageResponse<ReadingActivityResponse>>> getReadingHistoryByCursor(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        DataResponse<CursorPageResponse<ReadingActivityResponse>> response =
+                dashboardService.getReadingHistoryByCursor(days, cursor, limit);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * ═══════════════════════════════════════════════════════════
      * STATISTIK MEMBACA - Reading statistics & analytics
@@ -280,4 +299,16 @@ public class DashboardController {
 
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Rebuild the per-day reading rollup from history (admin)
+     *
+     * POST /api/dashboard/stats/backfill
+     */
+    @PostMapping("/stats/backfill")
+    public ResponseEntity<DataResponse<Void>> backfillDailyStats() {
+        DataResponse<Void> response = userDailyStatsService.backfill();
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+}
@@ -44,6 +44,20 @@ public class KiosController {
         return ResponseEntity.ok(kiosService.getProducts(page, limit, sortField, sortOrder, search, category, productType, inStock));
     }
 
+    @GetMapping("/products/cursor")
+    public ResponseEntity<DataResponse<CursorPageResponse<KiosProductResponse>>> getProductsByCursor(
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String productType,
+            @RequestParam(required = false) Boolean inStock) {
+        log.info("Fetching kios products by cursor - sort: {}, limit: {}", sort, limit);
+        return ResponseEntity.ok(kiosService.getProductsByCursor(sort, cursor, limit, includeTotal, search, category, productType, inStock));
+    }
+
     @GetMapping("/products/{slug}")
     public ResponseEntity<DataResponse<KiosProductResponse>> getProductBySlug(@PathVariable String slug) {
         log.info("Fetching product detail: {}", slug);
@@ -0,0 +1,25 @@
+package com.naskah.demo.controller;
+
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.model.dto.response.SearchCacheStatsResponse;
+import com.naskah.demo.service.SearchCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search-cache")
+@RequiredArgsConstructor
+public class SearchCacheController {
+
+    private final SearchCacheService searchCacheService;
+
+    // Hit ratio, size and generation per cache region (admin only)
+    @GetMapping("/stats")
+    public ResponseEntity<DataResponse<List<SearchCacheStatsResponse>>> getStats() {
+        DataResponse<List<SearchCacheStatsResponse>> response = searchCacheService.getStats();
+        return ResponseEntity.ok(response);
+    }
+}
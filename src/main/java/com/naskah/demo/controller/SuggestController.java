@@ -0,0 +1,28 @@
+package com.naskah.demo.controller;
+
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.model.dto.response.SuggestionResponse;
+import com.naskah.demo.service.SuggestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/suggest")
+@RequiredArgsConstructor
+public class SuggestController {
+
+    private final SuggestService suggestService;
+
+    // Typeahead across books, authors, newspaper articles and blog posts (types: book,author,article,post)
+    @GetMapping
+    public ResponseEntity<DataResponse<List<SuggestionResponse>>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit,
+            @RequestParam(required = false) String types) {
+        DataResponse<List<SuggestionResponse>> response = suggestService.suggest(q, limit, types);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -4,6 +4,7 @@ import com.naskah.demo.exception.custom.DataNotFoundException;
 import com.naskah.demo.model.dto.request.*;
 import com.naskah.demo.model.dto.response.*;
 import com.naskah.demo.service.book.BookChapterService;
+import com.naskah.demo.service.book.SearchHistoryService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookChapterController {
     private final BookChapterService chapterService;
+    private final SearchHistoryService searchHistoryService;
 
     @GetMapping("/**")
     public ResponseEntity<DataResponse<ChapterReadingResponse>> readChapterByPath(@PathVariable String slug, HttpServletRequest request) {
@@ -184,6 +186,16 @@ public class BookChapterController {
         return ResponseEntity.ok(response);
     }
 
+    // Admin: most searched queries in this book, or the ones that found nothing (zeroResults=true)
+    @GetMapping("/search/analytics")
+    public ResponseEntity<DataResponse<List<SearchQueryStatResponse>>> getSearchAnalytics(
+            @PathVariable String slug,
+            @RequestParam(defaultValue = "false") boolean zeroResults,
+            @RequestParam(defaultValue = "20") int limit) {
+        DataResponse<List<SearchQueryStatResponse>> response = searchHistoryService.getQueryAnalytics(slug, zeroResults, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/search/history")
     public ResponseEntity<DataResponse<List<SearchHistoryResponse>>> getSearchHistory(@PathVariable String slug, @RequestParam(defaultValue = "10") int limit) {
         DataResponse<List<SearchHistoryResponse>> response = chapterService.getSearchHistory(slug, limit);
@@ -5,7 +5,10 @@ import com.naskah.demo.model.dto.request.*;
 import com.naskah.demo.model.dto.response.*;
 import com.naskah.demo.model.entity.Book;
 import com.naskah.demo.service.book.BookChapterService;
+import com.naskah.demo.service.book.BookDuplicateService;
+import com.naskah.demo.service.book.BookImportService;
 import com.naskah.demo.service.book.BookService;
+import com.naskah.demo.service.book.CatalogSearchService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
@@ -26,6 +29,9 @@ import java.util.List;
 public class BookController {
     private final BookService bookService;
     private final BookChapterService chapterService;
+    private final BookImportService bookImportService;
+    private final BookDuplicateService bookDuplicateService;
+    private final CatalogSearchService catalogSearchService;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<DataResponse<BookResponse>> createBook(@Valid @ModelAttribute BookRequest request) {
@@ -34,6 +40,49 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/bulk-import")
+    public ResponseEntity<DataResponse<BulkImportResponse>> startBulkImport(@Valid @RequestBody BulkImportRequest request) {
+        DataResponse<BulkImportResponse> response = bookImportService.startBulkImport(request);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/bulk-import/{jobId}")
+    public ResponseEntity<DataResponse<BulkImportResponse>> getBulkImportStatus(@PathVariable String jobId) {
+        DataResponse<BulkImportResponse> response = bookImportService.getBulkImportStatus(jobId);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/duplicates")
+    public ResponseEntity<DatatableResponse<DuplicateBookResponse>> getSuspectedDuplicates(@RequestParam(defaultValue = "1") @Min(1) int page,
+                                                                                          @RequestParam(defaultValue = "20") @Min(1) int limit,
+                                                                                          @RequestParam(required = false) Double minSimilarity,
+                                                                                          @RequestParam(required = false) Long bookId) {
+        DatatableResponse<DuplicateBookResponse> response = bookDuplicateService.getSuspectedDuplicates(page, limit, minSimilarity, bookId);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<DataResponse<CatalogSearchResponse>> searchCatalog(@RequestParam(required = false) String q,
+                                                                             @RequestParam(required = false) String genre,
+                                                                             @RequestParam(required = false) Integer languageId,
+                                                                             @RequestParam(required = false) String copyrightStatus,
+                                                                             @RequestParam(defaultValue = "1") @Min(1) int page,
+                                                                             @RequestParam(defaultValue = "12") @Min(1) int limit) {
+        DataResponse<CatalogSearchResponse> response = catalogSearchService.searchCatalog(q, genre, languageId, copyrightStatus, page, limit);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/search/reindex")
+    public ResponseEntity<DataResponse<Void>> reindexCatalogSearch() {
+        DataResponse<Void> response = catalogSearchService.reindexAll();
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
     @GetMapping("/{slug}")
     public ResponseEntity<DataResponse<BookResponse>> getBookDetail(@PathVariable String slug, HttpServletRequest request) {
         DataResponse<BookResponse> response = bookService.getBookDetailBySlug(slug, request);
@@ -90,6 +139,47 @@ public class BookController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<DataResponse<CursorPageResponse<BookResponse>>> getBooksByCursor(@RequestParam(defaultValue = "newest") String sort,
+                                                                                           @RequestParam(required = false) String cursor,
+                                                                                           @RequestParam(defaultValue = "12") @Min(1) int limit,
+                                                                                           @RequestParam(defaultValue = "false") boolean includeTotal,
+                                                                                           @RequestParam(required = false) String searchTitle,
+                                                                                           @RequestParam(required = false) String searchInBook,
+                                                                                           @RequestParam(required = false) String authorName,
+                                                                                           @RequestParam(required = false) String contributor,
+                                                                                           @RequestParam(required = false) String genre,
+                                                                                           @RequestParam(required = false) Integer minChapters,
+                                                                                           @RequestParam(required = false) Integer maxChapters,
+                                                                                           @RequestParam(required = false) Integer publicationYearFrom,
+                                                                                           @RequestParam(required = false) Integer publicationYearTo,
+                                                                                           @RequestParam(required = false) String difficultyLevel,
+                                                                                           @RequestParam(required = false) String fileFormat,
+                                                                                           @RequestParam(required = false) Boolean isFeatured,
+                                                                                           @RequestParam(required = false) Integer languageId,
+                                                                                           @RequestParam(required = false) Double minRating) {
+        BookSearchCriteria criteria = BookSearchCriteria.builder()
+                .searchTitle(searchTitle)
+                .searchInBook(searchInBook)
+                .authorName(authorName)
+                .contributor(contributor)
+                .genre(genre)
+                .minPages(minChapters)
+                .maxPages(maxChapters)
+                .publicationYearFrom(publicationYearFrom)
+                .publicationYearTo(publicationYearTo)
+                .difficultyLevel(difficultyLevel)
+                .fileFormat(fileFormat)
+                .isFeatured(isFeatured)
+                .languageId(languageId)
+                .minRating(minRating)
+                .build();
+
+        DataResponse<CursorPageResponse<BookResponse>> response = bookService.getBooksByCursor(sort, cursor, limit, includeTotal, criteria);
+
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<DataResponse<Book>> updateBook(@RequestParam Long id, @RequestPart("ebook") @Valid Book book,
                                                          @RequestPart(value = "file", required = false) MultipartFile file) throws IOException {
@@ -129,6 +129,31 @@ public class NewspaperController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/categories/{categorySlug}/cursor")
+    public ResponseEntity<DataResponse<CursorPageResponse<NewspaperArticleResponse>>> getArticlesByCategoryCursor(
+            @PathVariable String categorySlug,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) int limit,
+            @RequestParam(defaultValue = "date") String sortBy,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String importance) {
+
+        NewspaperSearchCriteria criteria = NewspaperSearchCriteria.builder()
+                .category(categorySlug)
+                .dateFrom(dateFrom)
+                .dateTo(dateTo)
+                .source(source)
+                .importance(importance)
+                .build();
+
+        DataResponse<CursorPageResponse<NewspaperArticleResponse>> response =
+                newspaperService.getArticlesByCategoryCursor(categorySlug, sortBy, cursor, limit, includeTotal, criteria);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/date/{date}")
     public ResponseEntity<DatatableResponse<NewspaperArticleResponse>> getArticlesByDate(
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
@@ -193,6 +218,33 @@ public class NewspaperController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/search/faceted")
+    public ResponseEntity<DataResponse<NewspaperFacetedSearchResponse>> searchArticlesWithFacets(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "1") @Min(1) int page,
+            @RequestParam(defaultValue = "20") @Min(1) int limit,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) Long sourceId,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String importance) {
+
+        NewspaperSearchCriteria criteria = NewspaperSearchCriteria.builder()
+                .searchQuery(q)
+                .category(category)
+                .dateFrom(dateFrom)
+                .dateTo(dateTo)
+                .sourceId(sourceId)
+                .source(source)
+                .importance(importance)
+                .build();
+
+        DataResponse<NewspaperFacetedSearchResponse> response =
+                newspaperService.searchArticlesWithFacets(criteria, page, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/on-this-day")
     public ResponseEntity<DatatableResponse<NewspaperArticleResponse>> getOnThisDay(
             @RequestParam(required = false) Integer month,
@@ -0,0 +1,47 @@
+package com.naskah.demo.mapper;
+
+import com.naskah.demo.model.dto.AchievementProgressRow;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * {@code column} is always an {@link com.naskah.demo.model.enums.AchievementEvent} column name, never user input.
+ */
+@Mapper
+public interface AchievementMapper {
+
+    /** New value of the counter, or null when the user has no progress row yet */
+    @Select("UPDATE user_achievement_progress SET ${column} = ${column} + #{amount}, updated_at = NOW() " +
+            "WHERE user_id = #{userId} RETURNING ${column}")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Integer increment(@Param("userId") Long userId, @Param("column") String column, @Param("amount") int amount);
+
+    /** New value of the counter, or null when the user has no progress row yet */
+    @Select("UPDATE user_achievement_progress SET ${column} = GREATEST(${column}, #{level}), updated_at = NOW() " +
+            "WHERE user_id = #{userId} RETURNING ${column}")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    Integer raise(@Param("userId") Long userId, @Param("column") String column, @Param("level") int level);
+
+    @Insert("INSERT INTO user_achievement_progress " +
+            "(user_id, books_completed, reading_minutes, streak_days, highlights, reviews, updated_at) " +
+            "VALUES (#{userId}, #{booksCompleted}, #{readingMinutes}, #{streakDays}, #{highlights}, #{reviews}, NOW()) " +
+            "ON CONFLICT (user_id) DO NOTHING")
+    void insertProgress(AchievementProgressRow row);
+
+    /** Unlocks are written once: an achievement that is already unlocked keeps its original date */
+    @Insert("<script>" +
+            "INSERT INTO user_achievements (user_id, achievement_id, unlocked_at) VALUES " +
+            "<foreach item='id' collection='achievementIds' separator=','>(#{userId}, #{id}, NOW())</foreach> " +
+            "ON CONFLICT (user_id, achievement_id) DO NOTHING" +
+            "</script>")
+    int unlock(@Param("userId") Long userId, @Param("achievementIds") List<String> achievementIds);
+
+    /** Counters plus every unlocked achievement in one read: one row per unlock, or one row with no unlock */
+    @Select("SELECT p.user_id, p.books_completed, p.reading_minutes, p.streak_days, p.highlights, p.reviews, " +
+            "       a.achievement_id, a.unlocked_at " +
+            "FROM user_achievement_progress p " +
+            "LEFT JOIN user_achievements a ON a.user_id = p.user_id " +
+            "WHERE p.user_id = #{userId}")
+    List<AchievementProgressRow> findProgress(@Param("userId") Long userId);
+}
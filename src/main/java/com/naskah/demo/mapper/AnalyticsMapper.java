@@ -42,6 +42,8 @@ public interface AnalyticsMapper {
 
     List<Map<String, Object>> getMostSkippedChapters(@Param("bookId") Long bookId);
 
+    LocalDateTime getFunnelComputedAt(@Param("bookId") Long bookId);
+
     Map<String, Object> getChapterStats(@Param("bookId") Long bookId,
                                         @Param("chapterNumber") Integer chapterNumber);
 
@@ -0,0 +1,31 @@
+package com.naskah.demo.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface AnalyticsRollupMapper {
+
+    /** Current watermark, row-locked until commit; null when the job has never run */
+    LocalDateTime lockWatermark(@Param("name") String name);
+
+    LocalDateTime findWatermark(@Param("name") String name);
+
+    void insertWatermark(@Param("name") String name, @Param("watermark") LocalDateTime watermark);
+
+    void updateWatermark(@Param("name") String name, @Param("watermark") LocalDateTime watermark);
+
+    LocalDateTime findFirstEndedAt();
+
+    int aggregateHourly(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    int aggregateDaily(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /** Books with activity or progress after {@code since} (all of them when null) or a funnel older than maxAgeDays */
+    List<Long> findBooksForFunnelRefresh(@Param("since") LocalDateTime since, @Param("maxAgeDays") int maxAgeDays);
+
+    int refreshChapterFunnel(@Param("bookId") Long bookId, @Param("abandonAfterDays") int abandonAfterDays);
+}
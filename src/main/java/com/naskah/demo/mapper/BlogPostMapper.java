@@ -5,6 +5,7 @@ import com.naskah.demo.model.entity.*;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -34,6 +35,27 @@ public interface BlogPostMapper {
             @Param("sortType") String sortType
     );
 
+    List<BlogPostResponse> getBlogPostsByCursor(
+            @Param("status") String status,
+            @Param("category") String category,
+            @Param("tag") String tag,
+            @Param("search") String search,
+            @Param("authorId") Long authorId,
+            @Param("sort") String sort,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorViews") Long cursorViews,
+            @Param("cursorId") Long cursorId,
+            @Param("limit") int limit
+    );
+
+    int countBlogPostsWithFilters(
+            @Param("status") String status,
+            @Param("category") String category,
+            @Param("tag") String tag,
+            @Param("search") String search,
+            @Param("authorId") Long authorId
+    );
+
     List<BlogPostResponse> getTrendingBlogPosts(
             @Param("days") int days,
             @Param("offset") int offset,
@@ -75,6 +97,14 @@ public interface BlogPostMapper {
             @Param("sortType") String sortType
     );
 
+    int countSearchBlogPosts(
+            @Param("query") String query,
+            @Param("category") String category,
+            @Param("tag") String tag
+    );
+
+    void refreshSearchVector(@Param("id") Long id);
+
     List<BlogPostResponse> getRelatedBlogPosts(
             @Param("blogPostId") Long blogPostId,
             @Param("limit") int limit
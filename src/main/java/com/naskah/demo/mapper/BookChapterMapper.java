@@ -73,10 +73,17 @@ public interface BookChapterMapper {
             "word_count = #{wordCount}, " +
             "parent_chapter_id = #{parentChapterId}, " +
             "chapter_level = #{chapterLevel}, " +
+            "content_hash = #{contentHash}, " +
             "updated_at = #{updatedAt} " +
             "WHERE id = #{id}")
     void updateChapter(BookChapter chapter);
 
+    // Move an unchanged chapter to its new number and (possibly re-inserted) parent without rewriting content
+    @Update("UPDATE book_chapters SET chapter_number = #{chapterNumber}, parent_chapter_id = #{parentChapterId}, " +
+            "updated_at = NOW() WHERE id = #{id}")
+    void updateChapterPosition(@Param("id") Long id, @Param("chapterNumber") Integer chapterNumber,
+                               @Param("parentChapterId") Long parentChapterId);
+
     // ✅ NEW: Delete specific chapter by ID
     @Delete("DELETE FROM book_chapters WHERE id = #{id}")
     void deleteChapterById(@Param("id") Long id);
@@ -60,6 +60,17 @@ public interface BookMapper {
 
     int countBooksWithAdvancedFilters(@Param("criteria") BookSearchCriteria criteria);
 
+    List<BookResponse> getBookListByIds(@Param("ids") List<Long> ids);
+
+    List<BookResponse> getBookListByCursor(
+            @Param("criteria") BookSearchCriteria criteria,
+            @Param("sort") String sort,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorNumber") Double cursorNumber,
+            @Param("cursorText") String cursorText,
+            @Param("cursorId") Long cursorId,
+            @Param("limit") int limit);
+
     @Select("SELECT b.id, b.title, b.slug, b.cover_image_url, " +
             "a.name as author_name, g.name as genre, " +
             "COALESCE(AVG(br.rating), 0) as average_rating, " +
@@ -156,6 +167,12 @@ public interface BookMapper {
             @Result(property = "description", column = "description"),
             @Result(property = "fileUrl", column = "file_url"),
             @Result(property = "coverImageUrl", column = "cover_image_url"),
+            @Result(property = "coverListUrl", column = "cover_list_url"),
+            @Result(property = "coverListWebpUrl", column = "cover_list_webp_url"),
+            @Result(property = "coverCardUrl", column = "cover_card_url"),
+            @Result(property = "coverCardWebpUrl", column = "cover_card_webp_url"),
+            @Result(property = "coverDetailUrl", column = "cover_detail_url"),
+            @Result(property = "coverDetailWebpUrl", column = "cover_detail_webp_url"),
             @Result(property = "source", column = "source"),
             @Result(property = "fileFormat", column = "file_format"),
             @Result(property = "fileSize", column = "file_size"),
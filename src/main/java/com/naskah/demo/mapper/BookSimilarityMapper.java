@@ -0,0 +1,79 @@
+package com.naskah.demo.mapper;
+
+import com.naskah.demo.model.dto.response.DuplicateBookResponse;
+import com.naskah.demo.model.entity.BookSignature;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+@Mapper
+public interface BookSimilarityMapper {
+
+    @Insert("INSERT INTO book_minhash_signatures (book_id, signature, updated_at) " +
+            "VALUES (#{bookId}, #{signature}, NOW()) " +
+            "ON CONFLICT (book_id) DO UPDATE SET signature = EXCLUDED.signature, updated_at = NOW()")
+    void upsertSignature(@Param("bookId") Long bookId, @Param("signature") byte[] signature);
+
+    @Select("<script>" +
+            "SELECT book_id, signature, updated_at FROM book_minhash_signatures " +
+            "WHERE book_id IN " +
+            "<foreach item='id' collection='bookIds' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<BookSignature> findSignaturesByBookIds(@Param("bookIds") List<Long> bookIds);
+
+    @Delete("DELETE FROM book_lsh_bands WHERE book_id = #{bookId}")
+    void deleteBandsByBookId(@Param("bookId") Long bookId);
+
+    @Insert("<script>" +
+            "INSERT INTO book_lsh_bands (book_id, band_key) VALUES " +
+            "<foreach item='key' collection='bandKeys' separator=','>(#{bookId}, #{key})</foreach>" +
+            "</script>")
+    void insertBands(@Param("bookId") Long bookId, @Param("bandKeys") List<Long> bandKeys);
+
+    /**
+     * Books sharing at least one LSH band with the given keys (index on band_key)
+     */
+    @Select("<script>" +
+            "SELECT DISTINCT book_id FROM book_lsh_bands " +
+            "WHERE band_key IN " +
+            "<foreach item='key' collection='bandKeys' open='(' separator=',' close=')'>#{key}</foreach>" +
+            "<if test='excludeBookId != null'> AND book_id != #{excludeBookId}</if>" +
+            "</script>")
+    List<Long> findCandidateBookIds(@Param("bandKeys") List<Long> bandKeys, @Param("excludeBookId") Long excludeBookId);
+
+    /**
+     * Pairs are stored once, under the book that was ingested later; both sides are cleared when a book is re-fingerprinted
+     */
+    @Delete("DELETE FROM book_duplicate_candidates WHERE book_id = #{bookId} OR duplicate_of_book_id = #{bookId}")
+    void deleteDuplicateCandidatesByBookId(@Param("bookId") Long bookId);
+
+    @Insert("INSERT INTO book_duplicate_candidates (book_id, duplicate_of_book_id, similarity, detected_at) " +
+            "VALUES (#{bookId}, #{duplicateOfBookId}, #{similarity}, NOW()) " +
+            "ON CONFLICT (book_id, duplicate_of_book_id) DO UPDATE SET similarity = EXCLUDED.similarity, detected_at = NOW()")
+    void insertDuplicateCandidate(@Param("bookId") Long bookId,
+                                  @Param("duplicateOfBookId") Long duplicateOfBookId,
+                                  @Param("similarity") double similarity);
+
+    @Select("<script>" +
+            "SELECT d.book_id, b.title, b.slug, " +
+            "d.duplicate_of_book_id, o.title AS duplicate_of_title, o.slug AS duplicate_of_slug, " +
+            "d.similarity, d.detected_at " +
+            "FROM book_duplicate_candidates d " +
+            "JOIN books b ON b.id = d.book_id " +
+            "JOIN books o ON o.id = d.duplicate_of_book_id " +
+            "WHERE d.similarity &gt;= #{minSimilarity} " +
+            "<if test='bookId != null'>AND (d.book_id = #{bookId} OR d.duplicate_of_book_id = #{bookId}) </if>" +
+            "ORDER BY d.similarity DESC, d.detected_at DESC " +
+            "LIMIT #{limit} OFFSET #{offset}" +
+            "</script>")
+    List<DuplicateBookResponse> findDuplicateCandidates(@Param("minSimilarity") double minSimilarity,
+                                                        @Param("bookId") Long bookId,
+                                                        @Param("offset") int offset,
+                                                        @Param("limit") int limit);
+
+    @Select("<script>" +
+            "SELECT COUNT(*) FROM book_duplicate_candidates WHERE similarity &gt;= #{minSimilarity}" +
+            "<if test='bookId != null'> AND (book_id = #{bookId} OR duplicate_of_book_id = #{bookId})</if>" +
+            "</script>")
+    int countDuplicateCandidates(@Param("minSimilarity") double minSimilarity, @Param("bookId") Long bookId);
+}
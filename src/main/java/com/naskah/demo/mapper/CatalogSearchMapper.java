@@ -0,0 +1,126 @@
+package com.naskah.demo.mapper;
+
+import com.naskah.demo.model.dto.BookFacetRow;
+import com.naskah.demo.model.dto.CatalogSearchSource;
+import com.naskah.demo.model.dto.CatalogSearchHit;
+import com.naskah.demo.model.dto.response.FacetCountResponse;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+@Mapper
+public interface CatalogSearchMapper {
+
+    /**
+     * Text the search document is built from: title, subtitle and the book's author names
+     */
+    @Select("<script>" +
+            "SELECT b.id AS book_id, b.title, b.subtitle, " +
+            "(SELECT STRING_AGG(au.name, ' ') FROM book_authors ba JOIN authors au ON au.id = ba.author_id " +
+            " WHERE ba.book_id = b.id) AS author_names " +
+            "FROM books b " +
+            "<if test='bookId != null'>WHERE b.id = #{bookId}</if>" +
+            "</script>")
+    List<CatalogSearchSource> findSearchSources(@Param("bookId") Long bookId);
+
+    /**
+     * Keyset batch of search document sources for the full reindex
+     */
+    @Select("SELECT b.id AS book_id, b.title, b.subtitle, " +
+            "(SELECT STRING_AGG(au.name, ' ') FROM book_authors ba JOIN authors au ON au.id = ba.author_id " +
+            " WHERE ba.book_id = b.id) AS author_names " +
+            "FROM books b " +
+            "WHERE b.id > #{afterBookId} " +
+            "ORDER BY b.id " +
+            "LIMIT #{limit}")
+    List<CatalogSearchSource> findSearchSourcesAfter(@Param("afterBookId") long afterBookId, @Param("limit") int limit);
+
+    /**
+     * Rebuild the book's weighted search document: title (A), subtitle and authors (B), description (C),
+     * plus the canonical (EYD, diacritic-free) title/subtitle/authors text, both as weight D lexemes and as
+     * the text behind the trigram index
+     */
+    @Update("UPDATE books b SET " +
+            "search_vector = " +
+            "setweight(to_tsvector('indonesian', COALESCE(b.title, '')), 'A') || " +
+            "setweight(to_tsvector('indonesian', COALESCE(b.subtitle, '')), 'B') || " +
+            "setweight(to_tsvector('indonesian', COALESCE(a.names, '')), 'B') || " +
+            "setweight(to_tsvector('indonesian', COALESCE(b.description, '')), 'C') || " +
+            "setweight(to_tsvector('simple', #{canonicalText}), 'D'), " +
+            "search_text = #{canonicalText} " +
+            "FROM (SELECT STRING_AGG(au.name, ' ') AS names " +
+            "      FROM book_authors ba JOIN authors au ON au.id = ba.author_id " +
+            "      WHERE ba.book_id = #{bookId}) a " +
+            "WHERE b.id = #{bookId}")
+    void refreshSearchDocument(@Param("bookId") Long bookId, @Param("canonicalText") String canonicalText);
+
+    /**
+     * Active books matching the query by full text on the original spelling, by full text on the canonical
+     * spelling, or by trigram word similarity on the canonical text (GIN gin_trgm_ops on search_text), best first
+     */
+    @Select("SELECT b.id AS book_id, " +
+            "ts_rank_cd('{0.1, 0.2, 0.4, 1.0}', b.search_vector, q.tsq || q.canonical_tsq) + word_similarity(q.term, b.search_text) AS rank " +
+            "FROM books b, " +
+            "(SELECT websearch_to_tsquery('indonesian', #{query}) AS tsq, " +
+            " plainto_tsquery('simple', #{canonicalQuery}) AS canonical_tsq, " +
+            " #{canonicalQuery}::text AS term) q " +
+            "WHERE b.is_active = TRUE " +
+            "AND (b.search_vector @@ q.tsq OR b.search_vector @@ q.canonical_tsq OR q.term <% b.search_text) " +
+            "ORDER BY rank DESC, b.id DESC " +
+            "LIMIT #{maxHits}")
+    List<CatalogSearchHit> searchBooks(@Param("query") String query, @Param("canonicalQuery") String canonicalQuery,
+                                       @Param("maxHits") int maxHits);
+
+    /**
+     * Every book id {@link #searchBooks} would match, unranked and uncapped, for facet counts and totals
+     */
+    @Select("SELECT b.id FROM books b, " +
+            "(SELECT websearch_to_tsquery('indonesian', #{query}) AS tsq, " +
+            " plainto_tsquery('simple', #{canonicalQuery}) AS canonical_tsq, " +
+            " #{canonicalQuery}::text AS term) q " +
+            "WHERE b.is_active = TRUE " +
+            "AND (b.search_vector @@ q.tsq OR b.search_vector @@ q.canonical_tsq OR q.term <% b.search_text)")
+    List<Long> findMatchingBookIds(@Param("query") String query, @Param("canonicalQuery") String canonicalQuery);
+
+    /**
+     * Fallback for queries nothing matched: rank by word similarity alone with a looser threshold than the
+     * index operator's default, so badly misspelled titles and names still come back
+     */
+    @Select("SELECT b.id AS book_id, word_similarity(#{canonicalQuery}, b.search_text) AS rank " +
+            "FROM books b " +
+            "WHERE b.is_active = TRUE " +
+            "AND word_similarity(#{canonicalQuery}, b.search_text) >= #{minSimilarity} " +
+            "ORDER BY rank DESC, b.id DESC " +
+            "LIMIT #{maxHits}")
+    List<CatalogSearchHit> searchBooksFuzzy(@Param("canonicalQuery") String canonicalQuery,
+                                            @Param("minSimilarity") double minSimilarity,
+                                            @Param("maxHits") int maxHits);
+
+    @Select("SELECT b.id FROM books b " +
+            "WHERE b.is_active = TRUE " +
+            "AND word_similarity(#{canonicalQuery}, b.search_text) >= #{minSimilarity}")
+    List<Long> findFuzzyMatchingBookIds(@Param("canonicalQuery") String canonicalQuery,
+                                        @Param("minSimilarity") double minSimilarity);
+
+    @Select("SELECT id AS book_id, 0 AS rank FROM books " +
+            "WHERE is_active = TRUE " +
+            "ORDER BY updated_at DESC, id DESC " +
+            "LIMIT #{maxHits}")
+    List<CatalogSearchHit> findLatestBooks(@Param("maxHits") int maxHits);
+
+    @Select("<script>" +
+            "SELECT b.id AS book_id, b.language_id, b.copyright_status_id, b.is_active, bg.genre_id " +
+            "FROM books b LEFT JOIN book_genres bg ON bg.book_id = b.id " +
+            "<if test='bookId != null'>WHERE b.id = #{bookId}</if>" +
+            "</script>")
+    List<BookFacetRow> findFacetRows(@Param("bookId") Long bookId);
+
+    @Select("SELECT id, slug AS code, name FROM genres ORDER BY name")
+    List<FacetCountResponse> findGenreLabels();
+
+    @Select("SELECT id, code, name FROM languages ORDER BY name")
+    List<FacetCountResponse> findLanguageLabels();
+
+    @Select("SELECT id, code, name FROM copyright_statuses ORDER BY name")
+    List<FacetCountResponse> findCopyrightStatusLabels();
+}
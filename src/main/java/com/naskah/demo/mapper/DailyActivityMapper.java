@@ -0,0 +1,50 @@
+package com.naskah.demo.mapper;
+
+import com.naskah.demo.model.dto.DailyActivityRow;
+import com.naskah.demo.model.dto.WeeklyActivityRow;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Per-day and per-week activity of one user over a date range, read from the {@code user_daily_stats} rollup
+ * with one row per day/week including empty ones, so dashboard charts cost O(days) regardless of how much
+ * the user has read.
+ */
+@Mapper
+public interface DailyActivityMapper {
+
+    @Select("SELECT days.day::date AS day, " +
+            "       COALESCE(s.minutes_read, 0) AS minutes_read, " +
+            "       COALESCE(s.sessions_count, 0) AS sessions_count, " +
+            "       COALESCE(s.chapters_read, 0) AS chapters_read, " +
+            "       COALESCE(s.chapters_completed, 0) AS chapters_completed, " +
+            "       COALESCE(s.bookmarks_count, 0) AS bookmarks_count, " +
+            "       COALESCE(s.highlights_count, 0) AS highlights_count, " +
+            "       COALESCE(s.notes_count, 0) AS notes_count " +
+            "FROM generate_series(#{fromDate}::date, #{toDate}::date, INTERVAL '1 day') AS days(day) " +
+            "LEFT JOIN user_daily_stats s ON s.user_id = #{userId} AND s.day = days.day::date " +
+            "ORDER BY 1")
+    List<DailyActivityRow> findDailyActivity(
+            @Param("userId") Long userId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate);
+
+    /** Weeks start on Monday (ISO, same as date_trunc); fromWeek must be a Monday */
+    @Select("SELECT weeks.week_start::date AS week_start, " +
+            "       COALESCE(SUM(s.minutes_read), 0) AS minutes_read, " +
+            "       (SELECT COUNT(DISTINCT b) FROM user_daily_stats d, UNNEST(d.completed_book_ids) b " +
+            "        WHERE d.user_id = #{userId} AND d.day >= weeks.week_start::date AND d.day < weeks.week_start::date + 7) AS books_completed " +
+            "FROM generate_series(#{fromWeek}::date, #{toDate}::date, INTERVAL '1 week') AS weeks(week_start) " +
+            "LEFT JOIN user_daily_stats s ON s.user_id = #{userId} " +
+            "     AND s.day >= weeks.week_start::date AND s.day < weeks.week_start::date + 7 " +
+            "GROUP BY weeks.week_start " +
+            "ORDER BY 1")
+    List<WeeklyActivityRow> findWeeklyActivity(
+            @Param("userId") Long userId,
+            @Param("fromWeek") LocalDate fromWeek,
+            @Param("toDate") LocalDate toDate);
+}
@@ -4,6 +4,7 @@ import com.naskah.demo.model.entity.*;
 import com.naskah.demo.model.dto.response.*;
 import org.apache.ibatis.annotations.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 // ============ KIOS PRODUCT MAPPER ============
@@ -47,6 +48,54 @@ public interface KiosProductMapper {
             @Param("sortColumn") String sortColumn,
             @Param("sortType") String sortType);
 
+    /**
+     * Keyset page of active products: rows strictly after the cursor (sort key, id), id breaks ties
+     */
+    @Select("<script>" +
+            "SELECT p.id, p.name, p.slug, p.sku, p.product_type, p.category, p.price, p.discount_price, " +
+            "p.discount_percentage, COALESCE(p.discount_price, p.price) AS final_price, p.stock_quantity, " +
+            "p.min_stock_level, p.thumbnail_url, p.book_id, p.is_active, p.is_featured, " +
+            "p.stock_quantity &lt;= p.min_stock_level AS is_low_stock, p.stock_quantity &lt;= 0 AS is_out_of_stock, " +
+            "p.view_count, p.sold_count, p.created_at, p.updated_at " +
+            "FROM kios_products p " +
+            "WHERE p.is_active = true " +
+            "<if test='search != null and search != \"\"'>AND p.name ILIKE CONCAT('%', #{search}, '%') </if>" +
+            "<if test='category != null and category != \"\"'>AND p.category = #{category} </if>" +
+            "<if test='productType != null and productType != \"\"'>AND p.product_type = #{productType} </if>" +
+            "<if test='inStock != null and inStock'>AND p.stock_quantity &gt; 0 </if>" +
+            "<if test='cursorId != null'>" +
+            "<choose>" +
+            "<when test='sort == \"price\"'>AND (COALESCE(p.discount_price, p.price), p.id) &gt; (#{cursorNumber}, #{cursorId}) </when>" +
+            "<when test='sort == \"bestselling\"'>AND (COALESCE(p.sold_count, 0), p.id) &lt; (#{cursorNumber}, #{cursorId}) </when>" +
+            "<otherwise>AND (COALESCE(p.created_at, TIMESTAMP '1970-01-01'), p.id) &lt; (#{cursorTime}, #{cursorId}) </otherwise>" +
+            "</choose>" +
+            "</if>" +
+            "<choose>" +
+            "<when test='sort == \"price\"'>ORDER BY COALESCE(p.discount_price, p.price) ASC, p.id ASC </when>" +
+            "<when test='sort == \"bestselling\"'>ORDER BY COALESCE(p.sold_count, 0) DESC, p.id DESC </when>" +
+            "<otherwise>ORDER BY COALESCE(p.created_at, TIMESTAMP '1970-01-01') DESC, p.id DESC </otherwise>" +
+            "</choose>" +
+            "LIMIT #{limit}" +
+            "</script>")
+    List<KiosProductResponse> getProductsByCursor(
+            @Param("search") String search,
+            @Param("category") String category,
+            @Param("productType") String productType,
+            @Param("inStock") Boolean inStock,
+            @Param("sort") String sort,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorNumber") BigDecimal cursorNumber,
+            @Param("cursorId") Long cursorId,
+            @Param("limit") int limit);
+
+    @Select("<script>" +
+            "SELECT COUNT(*) FROM kios_products p " +
+            "WHERE p.is_active = true " +
+            "<if test='search != null and search != \"\"'>AND p.name ILIKE CONCAT('%', #{search}, '%') </if>" +
+            "<if test='category != null and category != \"\"'>AND p.category = #{category} </if>" +
+            "<if test='productType != null and productType != \"\"'>AND p.product_type = #{productType} </if>" +
+            "<if test='inStock != null and inStock'>AND p.stock_quantity &gt; 0 </if>" +
+            "</script>")
     int countProductsWithFilters(
             @Param("search") String search,
             @Param("category") String category,
@@ -1,5 +1,6 @@
 package com.naskah.demo.mapper;
 
+import com.naskah.demo.model.dto.NewspaperFacetRow;
 import com.naskah.demo.model.dto.newspaper.*;
 import com.naskah.demo.model.entity.newspaper.*;
 import org.apache.ibatis.annotations.*;
@@ -41,6 +42,15 @@ public interface NewspaperMapper {
             @Param("categorySlug") String categorySlug,
             @Param("criteria") NewspaperSearchCriteria criteria);
 
+    List<NewspaperArticleResponse> getArticlesByCategoryCursor(
+            @Param("categorySlug") String categorySlug,
+            @Param("sortBy") String sortBy,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorViews") Long cursorViews,
+            @Param("cursorId") Long cursorId,
+            @Param("limit") int limit,
+            @Param("criteria") NewspaperSearchCriteria criteria);
+
     List<NewspaperArticleResponse> getArticlesByDate(
             @Param("date") LocalDate date,
             @Param("offset") int offset,
@@ -74,6 +84,23 @@ public interface NewspaperMapper {
 
     int countSearchArticles(@Param("criteria") NewspaperSearchCriteria criteria);
 
+    List<NewspaperArticleResponse> searchArticlesFaceted(
+            @Param("criteria") NewspaperSearchCriteria criteria,
+            @Param("offset") int offset,
+            @Param("limit") int limit);
+
+    List<NewspaperFacetRow> countArticleFacets(@Param("criteria") NewspaperSearchCriteria criteria);
+
+    List<NewspaperFacetRow> findArticleFacetCounts(
+            @Param("criteria") NewspaperSearchCriteria criteria,
+            @Param("yearFrom") Integer yearFrom,
+            @Param("yearTo") Integer yearTo);
+
+    void incrementArticleFacetCount(
+            @Param("sourceId") Long sourceId,
+            @Param("category") String category,
+            @Param("publishYear") int publishYear);
+
     // ============================================
     // ON THIS DAY
     // ============================================
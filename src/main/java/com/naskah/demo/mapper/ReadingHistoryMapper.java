@@ -0,0 +1,26 @@
+package com.naskah.demo.mapper;
+
+import com.naskah.demo.model.dto.ReadingHistoryRow;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface ReadingHistoryMapper {
+
+    /**
+     * One page of a user's sessions, annotations, ratings and reviews since {@code since}, newest first and
+     * ordered by (timestamp, type, id); starts after the cursor when one is given, otherwise at {@code offset}.
+     */
+    List<ReadingHistoryRow> findHistoryPage(@Param("userId") Long userId,
+                                            @Param("since") LocalDateTime since,
+                                            @Param("cursorTime") LocalDateTime cursorTime,
+                                            @Param("cursorType") String cursorType,
+                                            @Param("cursorId") Long cursorId,
+                                            @Param("offset") int offset,
+                                            @Param("limit") int limit);
+
+    int countHistory(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+}
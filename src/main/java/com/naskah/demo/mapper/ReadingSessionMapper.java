@@ -1,5 +1,6 @@
 package com.naskah.demo.mapper;
 
+import com.naskah.demo.model.dto.GenreBreakdownRow;
 import com.naskah.demo.model.entity.ReadingSession;
 import org.apache.ibatis.annotations.*;
 
@@ -91,4 +92,33 @@ public interface ReadingSessionMapper {
             @Param("userId") Long userId,
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end);
+
+    /** Minutes over all of a user's sessions, each session rounded down as the reading-time achievements count it */
+    @Select("SELECT COALESCE(SUM(COALESCE(total_duration_seconds, 0) / 60), 0) FROM reading_sessions WHERE user_id = #{userId}")
+    int sumMinutesByUser(@Param("userId") Long userId);
+
+    /**
+     * Reading time per genre since a date: every session's minutes go to its book's primary genre (lowest
+     * genre id), books are counted once, and the average is over the user's ratings of those books.
+     */
+    @Select("WITH per_book AS (" +
+            "    SELECT book_id, SUM(COALESCE(total_duration_seconds, 0) / 60) AS minutes " +
+            "    FROM reading_sessions " +
+            "    WHERE user_id = #{userId} AND started_at >= #{since} " +
+            "    GROUP BY book_id" +
+            "), by_genre AS (" +
+            "    SELECT pb.book_id, pb.minutes, " +
+            "           (SELECT g.name FROM genres g JOIN book_genres bg ON g.id = bg.genre_id " +
+            "            WHERE bg.book_id = pb.book_id ORDER BY g.id LIMIT 1) AS genre_name " +
+            "    FROM per_book pb" +
+            ") " +
+            "SELECT bg.genre_name, COUNT(*) AS books_read, SUM(bg.minutes) AS minutes_spent, " +
+            "       COALESCE(SUM(bg.minutes) * 100.0 / NULLIF(SUM(SUM(bg.minutes)) OVER (), 0), 0) AS percentage, " +
+            "       COALESCE(AVG(br.rating), 0) AS average_rating " +
+            "FROM by_genre bg " +
+            "LEFT JOIN book_ratings br ON br.user_id = #{userId} AND br.book_id = bg.book_id " +
+            "WHERE bg.genre_name IS NOT NULL " +
+            "GROUP BY bg.genre_name " +
+            "ORDER BY percentage DESC, bg.genre_name")
+    List<GenreBreakdownRow> findGenreBreakdown(@Param("userId") Long userId, @Param("since") LocalDateTime since);
 }
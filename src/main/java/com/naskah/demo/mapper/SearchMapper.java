@@ -1,5 +1,7 @@
 package com.naskah.demo.mapper;
 
+import com.naskah.demo.model.dto.SearchQueryStat;
+import com.naskah.demo.model.dto.response.SearchQueryStatResponse;
 import com.naskah.demo.model.entity.SearchHistory;
 import org.apache.ibatis.annotations.*;
 
@@ -43,4 +45,12 @@ public interface SearchMapper {
     );
 
     void insertSearchHistory(SearchHistory history);
+
+    void insertSearchHistoryBatch(@Param("histories") List<SearchHistory> histories);
+
+    void upsertQueryStats(@Param("stats") List<SearchQueryStat> stats);
+
+    List<SearchQueryStatResponse> findQueryStats(@Param("bookId") Long bookId,
+                                                 @Param("zeroResultsOnly") boolean zeroResultsOnly,
+                                                 @Param("limit") int limit);
 }
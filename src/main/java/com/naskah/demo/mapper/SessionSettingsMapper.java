@@ -0,0 +1,17 @@
+package com.naskah.demo.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+@Mapper
+public interface SessionSettingsMapper {
+
+    /**
+     * Caps every following statement of the current transaction at the given time (set_config with is_local),
+     * so the server cancels a query that overruns and the pooled connection goes back with its default.
+     * Must run inside a transaction; outside one the setting is lost with the statement.
+     */
+    @Select("SELECT set_config('statement_timeout', CAST(#{timeoutMs} AS text), true)")
+    String setLocalStatementTimeout(@Param("timeoutMs") long timeoutMs);
+}
@@ -0,0 +1,44 @@
+package com.naskah.demo.mapper;
+
+import com.naskah.demo.model.dto.SuggestRow;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+@Mapper
+public interface SuggestMapper {
+
+    @Select("<script>" +
+            "SELECT id, title AS label, slug, COALESCE(view_count, 0) AS popularity " +
+            "FROM books WHERE is_active = TRUE " +
+            "<if test='bookId != null'>AND id = #{bookId}</if>" +
+            "</script>")
+    List<SuggestRow> findBooks(@Param("bookId") Long bookId);
+
+    /**
+     * Authors weighted by the total views of their active books
+     */
+    @Select("<script>" +
+            "SELECT a.id, a.name AS label, a.slug, COALESCE(SUM(b.view_count), 0) AS popularity " +
+            "FROM authors a " +
+            "LEFT JOIN book_authors ba ON ba.author_id = a.id " +
+            "LEFT JOIN books b ON b.id = ba.book_id AND b.is_active = TRUE " +
+            "<if test='bookId != null'>WHERE a.id IN (SELECT author_id FROM book_authors WHERE book_id = #{bookId}) </if>" +
+            "GROUP BY a.id, a.name, a.slug" +
+            "</script>")
+    List<SuggestRow> findAuthors(@Param("bookId") Long bookId);
+
+    @Select("<script>" +
+            "SELECT id, title AS label, slug, COALESCE(view_count, 0) AS popularity " +
+            "FROM newspaper_articles WHERE is_active = TRUE " +
+            "<if test='articleId != null'>AND id = #{articleId}</if>" +
+            "</script>")
+    List<SuggestRow> findArticles(@Param("articleId") Long articleId);
+
+    @Select("<script>" +
+            "SELECT id, title AS label, slug, COALESCE(view_count, 0) AS popularity " +
+            "FROM blog_posts WHERE status = 'PUBLISHED' " +
+            "<if test='postId != null'>AND id = #{postId}</if>" +
+            "</script>")
+    List<SuggestRow> findBlogPosts(@Param("postId") Long postId);
+}
@@ -0,0 +1,50 @@
+package com.naskah.demo.mapper;
+
+import com.naskah.demo.model.dto.UserActivityBitmapRow;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+public interface UserActivityBitmapMapper {
+
+    @Select("SELECT user_id, origin_date, bits FROM user_activity_bitmaps WHERE user_id = #{userId}")
+    UserActivityBitmapRow findByUserId(@Param("userId") Long userId);
+
+    /**
+     * Set the bit of one day, growing the bytea when the day lies past its end. Days before the origin are
+     * ignored (the origin is the signup date).
+     */
+    @Update("UPDATE user_activity_bitmaps SET " +
+            "bits = set_bit(" +
+            "    CASE WHEN octet_length(bits) * 8 > #{day}::date - origin_date THEN bits " +
+            "         ELSE bits || decode(repeat('00', (#{day}::date - origin_date) / 8 + 1 - octet_length(bits)), 'hex') END, " +
+            "    #{day}::date - origin_date, 1), " +
+            "updated_at = NOW() " +
+            "WHERE user_id = #{userId} AND #{day}::date >= origin_date")
+    int setActiveDay(@Param("userId") Long userId, @Param("day") LocalDate day);
+
+    /**
+     * Insert a freshly built bitmap, or OR it into a row written meanwhile (another build, or a day set by
+     * {@link #setActiveDay}), so a build that read sessions before a concurrent write never clears that
+     * write's bit. bytea has no bitwise OR, so it is merged byte by byte. A row with a different origin is
+     * left as it is; callers re-read the row.
+     */
+    @Insert("INSERT INTO user_activity_bitmaps (user_id, origin_date, bits, updated_at) " +
+            "VALUES (#{userId}, #{originDate}, #{bits}, NOW()) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "bits = COALESCE((" +
+            "    SELECT decode(string_agg(lpad(to_hex(" +
+            "        CASE WHEN i < octet_length(user_activity_bitmaps.bits) THEN get_byte(user_activity_bitmaps.bits, i) ELSE 0 END " +
+            "      | CASE WHEN i < octet_length(EXCLUDED.bits) THEN get_byte(EXCLUDED.bits, i) ELSE 0 END), 2, '0'), '' ORDER BY i), 'hex') " +
+            "    FROM generate_series(0, GREATEST(octet_length(user_activity_bitmaps.bits), octet_length(EXCLUDED.bits)) - 1) AS i" +
+            "), '\\x'::bytea), " +
+            "updated_at = NOW() " +
+            "WHERE user_activity_bitmaps.origin_date = EXCLUDED.origin_date")
+    void upsert(UserActivityBitmapRow row);
+
+    /** Days with a reading session, used to build a bitmap the first time it is needed */
+    @Select("SELECT DISTINCT started_at::date FROM reading_sessions WHERE user_id = #{userId} ORDER BY 1")
+    List<LocalDate> findSessionDays(@Param("userId") Long userId);
+}
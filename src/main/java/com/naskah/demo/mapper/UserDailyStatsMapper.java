@@ -0,0 +1,25 @@
+package com.naskah.demo.mapper;
+
+import com.naskah.demo.model.dto.DailyStatsSummaryRow;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+public interface UserDailyStatsMapper {
+
+    /** Upserts the days in range that have activity and returns how many were written; null bounds mean all history */
+    int refresh(@Param("userId") Long userId, @Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+    void delete(@Param("userId") Long userId, @Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, @Param("limit") int limit);
+
+    int sumMinutes(@Param("userId") Long userId, @Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+    boolean hasReadingOn(@Param("userId") Long userId, @Param("day") LocalDate day);
+
+    DailyStatsSummaryRow summarize(@Param("userId") Long userId, @Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+}
@@ -0,0 +1,34 @@
+package com.naskah.demo.mapper;
+
+import com.naskah.demo.model.dto.response.BookLibraryItemResponse;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface UserLibraryMapper {
+
+    /**
+     * Upserts the rows that still have interactions and returns how many were written. Either id may be null
+     * (all books of the user, all readers of the book), not both.
+     */
+    int refresh(@Param("userId") Long userId, @Param("bookId") Long bookId);
+
+    /** Deletes the rows of a user, of a book, or one pair; either id may be null, not both */
+    void delete(@Param("userId") Long userId, @Param("bookId") Long bookId);
+
+    /** Whether the user's library has been built from their history at least once */
+    boolean isBuilt(@Param("userId") Long userId);
+
+    void markBuilt(@Param("userId") Long userId);
+
+    List<BookLibraryItemResponse> findLibrary(
+            @Param("userId") Long userId,
+            @Param("filter") String filter,
+            @Param("sortBy") String sortBy,
+            @Param("offset") int offset,
+            @Param("limit") int limit);
+
+    int countLibrary(@Param("userId") Long userId, @Param("filter") String filter);
+}
@@ -0,0 +1,20 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's achievement counters joined with one of their unlocked achievements (null when none is unlocked yet)
+ */
+@Data
+public class AchievementProgressRow {
+    private Long userId;
+    private Integer booksCompleted;
+    private Integer readingMinutes;
+    private Integer streakDays;
+    private Integer highlights;
+    private Integer reviews;
+    private String achievementId;
+    private LocalDateTime unlockedAt;
+}
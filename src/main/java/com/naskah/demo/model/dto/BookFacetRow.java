@@ -0,0 +1,12 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+@Data
+public class BookFacetRow {
+    private Long bookId;
+    private Long languageId;
+    private Long copyrightStatusId;
+    private Long genreId;
+    private Boolean isActive;
+}
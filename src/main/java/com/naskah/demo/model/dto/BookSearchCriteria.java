@@ -8,6 +8,7 @@ import lombok.Data;
 public class BookSearchCriteria {
     // Basic search
     private String searchTitle;
+    private String canonicalSearchTitle; // searchTitle in EYD spelling, set by the service
     private String searchInBook;
     private String authorName;
     private String contributor;
@@ -0,0 +1,9 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+@Data
+public class CatalogSearchHit {
+    private Long bookId;
+    private Double rank;
+}
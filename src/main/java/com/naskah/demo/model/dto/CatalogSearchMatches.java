@@ -0,0 +1,19 @@
+package com.naskah.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * One query's catalogue matches: the ranked hits (capped at max-hits) and every matching book id, which
+ * facet counts and totals are computed from. A null {@code matchedIds} means every active book matches.
+ * Shared through the search cache, so callers clone {@code matchedIds} before changing it.
+ */
+@Data
+@AllArgsConstructor
+public class CatalogSearchMatches {
+    private List<CatalogSearchHit> hits;
+    private BitSet matchedIds;
+}
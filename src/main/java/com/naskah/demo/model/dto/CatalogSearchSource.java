@@ -0,0 +1,11 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+@Data
+public class CatalogSearchSource {
+    private Long bookId;
+    private String title;
+    private String subtitle;
+    private String authorNames;
+}
@@ -0,0 +1,13 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+@Data
+public class CoverThumbnails {
+    private String listUrl;
+    private String listWebpUrl;
+    private String cardUrl;
+    private String cardWebpUrl;
+    private String detailUrl;
+    private String detailWebpUrl;
+}
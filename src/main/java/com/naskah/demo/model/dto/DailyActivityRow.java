@@ -0,0 +1,17 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class DailyActivityRow {
+    private LocalDate day;
+    private Integer minutesRead;
+    private Integer sessionsCount;
+    private Integer chaptersRead;
+    private Integer chaptersCompleted;
+    private Integer bookmarksCount;
+    private Integer highlightsCount;
+    private Integer notesCount;
+}
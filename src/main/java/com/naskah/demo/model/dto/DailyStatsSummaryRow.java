@@ -0,0 +1,13 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+@Data
+public class DailyStatsSummaryRow {
+    private Integer minutesRead;
+    private Long readingSeconds;
+    private Integer chaptersRead;
+    private Long wordsRead;
+    private Integer booksRead;
+    private Integer booksCompleted;
+}
@@ -11,5 +11,6 @@ public class EpubProcessResult {
     private int totalChapters;
     private long totalWords;
     private String coverImageUrl;
+    private CoverThumbnails coverThumbnails;
     private String previewText;
 }
@@ -0,0 +1,34 @@
+package com.naskah.demo.model.dto;
+
+import com.naskah.demo.model.entity.BookChapter;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A re-uploaded EPUB, extracted and with its images and cover already uploaded, waiting for its chapter writes.
+ * Built outside any transaction; applied inside the transaction that updates the book row.
+ */
+@Data
+public class EpubUpdatePlan {
+    private Long bookId;
+    private List<PlannedChapter> chapters;
+    private List<BookChapter> obsoleteChapters;
+    private EpubProcessResult result;
+
+    /**
+     * One TOC entry in order. {@code stored} is the chapter kept (unchanged) or rewritten in place, null for a
+     * new chapter; content and html are only set when the chapter changed.
+     */
+    @Data
+    public static class PlannedChapter {
+        private int chapterNumber;
+        private ChapterHierarchy hierarchy;
+        private String contentHash;
+        private boolean unchanged;
+        private BookChapter stored;
+        private String content;
+        private String html;
+        private int wordCount;
+    }
+}
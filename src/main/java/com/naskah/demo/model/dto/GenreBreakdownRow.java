@@ -0,0 +1,12 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+@Data
+public class GenreBreakdownRow {
+    private String genreName;
+    private Integer booksRead;
+    private Integer minutesSpent;
+    private Double percentage;
+    private Double averageRating;
+}
@@ -0,0 +1,11 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+@Data
+public class NewspaperFacetRow {
+    private String facet;
+    private Long facetKey;
+    private String label;
+    private Integer articleCount;
+}
@@ -0,0 +1,19 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ReadingHistoryRow {
+    private String activityType;
+    private Long activityId;
+    private LocalDateTime timestamp;
+    private Long bookId;
+    private String bookTitle;
+    private String bookSlug;
+    private String bookCover;
+    private Integer chapterNumber;
+    private Integer durationSeconds; // reading sessions only
+    private Double rating;           // ratings only
+}
@@ -0,0 +1,18 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregated counts for one (book, normalised query) pair within a single history flush
+ */
+@Data
+public class SearchQueryStat {
+    private Long bookId;
+    private String query;
+    private int searchCount;
+    private int zeroResultCount;
+    private int lastResultCount;
+    private LocalDateTime lastSearchedAt;
+}
@@ -0,0 +1,11 @@
+package com.naskah.demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SimilarBook {
+    private Long bookId;
+    private double similarity;
+}
@@ -0,0 +1,11 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+@Data
+public class SuggestRow {
+    private Long id;
+    private String label;
+    private String slug;
+    private Long popularity;
+}
@@ -0,0 +1,12 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class UserActivityBitmapRow {
+    private Long userId;
+    private LocalDate originDate;
+    private byte[] bits;
+}
@@ -0,0 +1,12 @@
+package com.naskah.demo.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class WeeklyActivityRow {
+    private LocalDate weekStart;
+    private Integer minutesRead;
+    private Integer booksCompleted;
+}
@@ -0,0 +1,19 @@
+package com.naskah.demo.model.dto.newspaper;
+
+import com.naskah.demo.model.dto.response.FacetCountResponse;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class NewspaperFacetedSearchResponse {
+    private String query;
+    private Integer page;
+    private Integer limit;
+    private Integer total;
+    private List<NewspaperArticleResponse> list;
+
+    // Facet counts for the current query; each facet ignores its own filter so other values stay selectable
+    private List<FacetCountResponse> years;
+    private List<FacetCountResponse> sources;
+}
@@ -22,6 +22,7 @@ public class NewspaperSearchCriteria {
     private String category;
     private LocalDate dateFrom;
     private LocalDate dateTo;
+    private Long sourceId;
     private String source;
     private String importance;
     private List<String> tags;
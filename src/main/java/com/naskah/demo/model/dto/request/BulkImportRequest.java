@@ -0,0 +1,16 @@
+package com.naskah.demo.model.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class BulkImportRequest {
+    @NotBlank
+    private String sourcePath;              // directory or .zip, relative to book.import.root-directory
+
+    @Min(1)
+    private Integer parallelism;            // capped by book.import.max-parallelism
+
+    private Boolean updateExisting = false; // false = skip books that already exist (same slug + author)
+}
@@ -39,4 +39,9 @@ public class BlogPostResponse {
 
     // Reading time estimation (in minutes)
     private Integer readingTime;
+
+    // Search only: matched terms wrapped in <mark>, and the ts_rank_cd score
+    private String highlightedTitle;
+    private String highlight;
+    private Float searchRank;
 }
@@ -28,6 +28,7 @@ public class BookAnalyticsResponse {
     // Problem Areas
     private List<ChapterDropOffPoint> dropOffPoints;
     private List<ChapterSkipAnalysis> mostSkippedChapters;
+    private LocalDateTime funnelsComputedAt; // problem areas come from the nightly batch
 
     // Trends
     private TrendAnalysis trends;
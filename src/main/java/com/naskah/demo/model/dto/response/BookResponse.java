@@ -11,6 +11,12 @@ public class BookResponse {
     private String subtitle;
     private Integer edition;
     private String coverImageUrl;
+    private String coverListUrl;
+    private String coverListWebpUrl;
+    private String coverCardUrl;
+    private String coverCardWebpUrl;
+    private String coverDetailUrl;
+    private String coverDetailWebpUrl;
     private String publisher;
     private Integer publicationYear;
     private String fileUrl;
@@ -0,0 +1,17 @@
+package com.naskah.demo.model.dto.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BulkImportItemResponse {
+    private String fileName;                // path inside the source directory or zip
+    private Long fileSize;
+    private Long lastModified;
+    private String status;                  // "imported", "updated", "skipped", "failed"
+    private Long bookId;
+    private String slug;
+    private String message;
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,25 @@
+package com.naskah.demo.model.dto.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkImportResponse {
+    private String jobId;
+    private String sourcePath;
+    private String status;                  // "running", "completed", "failed"
+    private int parallelism;
+    private int totalFiles;
+    private int imported;
+    private int updated;
+    private int skipped;
+    private int failed;
+    private int resumed;                    // already done in a previous run, per manifest
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String errorMessage;
+    private List<BulkImportItemResponse> items = new ArrayList<>();
+}
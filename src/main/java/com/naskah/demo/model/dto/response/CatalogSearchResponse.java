@@ -0,0 +1,19 @@
+package com.naskah.demo.model.dto.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CatalogSearchResponse {
+    private String query;
+    private Integer page;
+    private Integer limit;
+    private Integer total;
+    private List<BookResponse> list;
+
+    // Facet counts for the current query; each facet ignores its own filter so other values stay selectable
+    private List<FacetCountResponse> genres;
+    private List<FacetCountResponse> languages;
+    private List<FacetCountResponse> copyrightStatuses;
+}
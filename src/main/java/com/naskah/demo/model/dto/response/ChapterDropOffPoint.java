@@ -10,5 +10,6 @@ public class ChapterDropOffPoint {
     private Integer averageScrollDepth;
     private Integer readersStarted;
     private Integer readersCompleted;
+    private Integer readersAbandoned; // stopped here without finishing the book and went idle
     private String severity; // "Critical", "High", "Medium", "Low"
 }
\ No newline at end of file
@@ -9,5 +9,6 @@ public class ChapterSkipAnalysis {
     private Double skipRate;
     private Integer timesSkipped;
     private Integer totalReaders;
+    private Integer readersSkipped; // read further into the book without opening this chapter
     private String possibleReason; // "Too long", "Low rating", "Complex"
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.naskah.demo.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    int limit;
+    String nextCursor; // null on the last page
+    boolean hasMore;
+    Integer approximateTotal; // only when requested; cached, may lag recent writes
+    List<T> list;
+}
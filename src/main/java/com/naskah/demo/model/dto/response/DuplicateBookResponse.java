@@ -0,0 +1,17 @@
+package com.naskah.demo.model.dto.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class DuplicateBookResponse {
+    private Long bookId;
+    private String title;
+    private String slug;
+    private Long duplicateOfBookId;
+    private String duplicateOfTitle;
+    private String duplicateOfSlug;
+    private Double similarity;              // estimated Jaccard similarity of word shingles, 0..1
+    private LocalDateTime detectedAt;
+}
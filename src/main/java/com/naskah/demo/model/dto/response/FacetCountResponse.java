@@ -0,0 +1,11 @@
+package com.naskah.demo.model.dto.response;
+
+import lombok.Data;
+
+@Data
+public class FacetCountResponse {
+    private Long id;
+    private String code;
+    private String name;
+    private Integer count;
+}
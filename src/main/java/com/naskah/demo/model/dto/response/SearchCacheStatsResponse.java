@@ -0,0 +1,15 @@
+package com.naskah.demo.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SearchCacheStatsResponse {
+    private String region;
+    private int size;
+    private long generation;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+}
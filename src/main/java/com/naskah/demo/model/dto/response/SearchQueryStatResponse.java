@@ -0,0 +1,17 @@
+package com.naskah.demo.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class SearchQueryStatResponse {
+    private String query;
+    private Long searchCount;
+    private Long zeroResultCount;
+    private Integer lastResultCount;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastSearchedAt;
+}
@@ -0,0 +1,13 @@
+package com.naskah.demo.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SuggestionResponse {
+    private String type;
+    private Long id;
+    private String label;
+    private String slug;
+}
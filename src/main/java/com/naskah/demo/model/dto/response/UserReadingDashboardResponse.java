@@ -28,6 +28,9 @@ public class UserReadingDashboardResponse {
     // Recent achievements
     private List<RecentAchievement> recentAchievements;
 
+    // Sections that missed the deadline or failed; they are null above and can be retried by the client
+    private List<String> unavailableSections;
+
     @Data
     public static class OverviewStats {
         private Integer totalBooks;              // Total buku yang pernah dibaca
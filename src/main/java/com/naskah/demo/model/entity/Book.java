@@ -19,6 +19,12 @@ public class Book {
     private String summary;
     private String source;
     private String coverImageUrl;
+    private String coverListUrl;
+    private String coverListWebpUrl;
+    private String coverCardUrl;
+    private String coverCardWebpUrl;
+    private String coverDetailUrl;
+    private String coverDetailWebpUrl;
     private String fileUrl;
     private String fileFormat;
     private Long fileSize;
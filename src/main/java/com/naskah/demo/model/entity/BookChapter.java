@@ -15,6 +15,7 @@ public class BookChapter {
     private String content;
     private String htmlContent;
     private Integer wordCount;
+    private String contentHash;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.naskah.demo.model.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BookSignature {
+    private Long bookId;
+    private byte[] signature;       // MinHash signature, MinHashUtil.NUM_HASHES big-endian ints
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.naskah.demo.model.enums;
+
+/**
+ * Domain events that advance achievement progress. Each event moves one column of
+ * {@code user_achievement_progress}: cumulative events add their amount, the others report a level
+ * (a count or streak length) that only ever raises the stored value.
+ */
+public enum AchievementEvent {
+    BOOK_FINISHED("books_completed", false),
+    READING_TIME("reading_minutes", true),
+    STREAK_EXTENDED("streak_days", false),
+    HIGHLIGHT_CREATED("highlights", true),
+    REVIEW_POSTED("reviews", true);
+
+    private final String column;
+    private final boolean cumulative;
+
+    AchievementEvent(String column, boolean cumulative) {
+        this.column = column;
+        this.cumulative = cumulative;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public boolean isCumulative() {
+        return cumulative;
+    }
+}
@@ -0,0 +1,10 @@
+package com.naskah.demo.model.enums;
+
+/**
+ * Independently invalidated groups of cached search results: book and chapter writes bump BOOKS,
+ * newspaper article writes bump ARTICLES.
+ */
+public enum SearchCacheRegion {
+    BOOKS,
+    ARTICLES
+}
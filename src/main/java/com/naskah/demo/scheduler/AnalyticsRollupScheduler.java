@@ -0,0 +1,57 @@
+package com.naskah.demo.scheduler;
+
+import com.naskah.demo.service.book.BookAnalyticsRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRollupScheduler {
+
+    private final BookAnalyticsRollupService bookAnalyticsRollupService;
+
+    @Value("${analytics.rollup.max-windows-per-run:48}")
+    private int maxWindowsPerRun;
+
+    /**
+     * Catch the analytics rollups up with ended reading activity, a bounded number of windows per run
+     * (a first run over a long history finishes over several runs)
+     */
+    @Scheduled(fixedDelayString = "${analytics.rollup.interval-ms:300000}",
+            initialDelayString = "${analytics.rollup.initial-delay-ms:60000}")
+    public void aggregateBookActivity() {
+        long start = System.currentTimeMillis();
+        int windows = 0;
+
+        try {
+            while (windows < maxWindowsPerRun && bookAnalyticsRollupService.aggregateNextWindow()) {
+                windows++;
+            }
+        } catch (Exception e) {
+            log.error("Book activity rollup failed after {} windows: {}", windows, e.getMessage(), e);
+            return;
+        }
+
+        if (windows > 0) {
+            log.info("Book activity rollup: {} windows in {} ms", windows, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Nightly recompute of per-chapter drop-off and skip funnels for books read since the previous night
+     */
+    @Scheduled(cron = "${analytics.funnel.cron:0 30 2 * * *}")
+    public void refreshChapterFunnels() {
+        long start = System.currentTimeMillis();
+        try {
+            int books = bookAnalyticsRollupService.refreshChapterFunnels();
+            log.info("Chapter funnels: {} books in {} ms", books, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Chapter funnel refresh failed: {}", e.getMessage(), e);
+        }
+    }
+}
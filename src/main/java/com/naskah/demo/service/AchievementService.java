@@ -0,0 +1,13 @@
+package com.naskah.demo.service;
+
+import com.naskah.demo.model.dto.response.AchievementResponse;
+import com.naskah.demo.model.enums.AchievementEvent;
+
+import java.util.List;
+
+public interface AchievementService {
+    /** Cumulative events add {@code value}; level events report the current count or streak length */
+    void record(Long userId, AchievementEvent event, int value);
+
+    List<AchievementResponse> getAchievements(Long userId);
+}
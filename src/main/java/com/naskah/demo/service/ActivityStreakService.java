@@ -0,0 +1,11 @@
+package com.naskah.demo.service;
+
+import com.naskah.demo.util.ActivityBitmap;
+
+import java.time.LocalDate;
+
+public interface ActivityStreakService {
+    void markActive(Long userId, LocalDate day);
+
+    ActivityBitmap getBitmap(Long userId);
+}
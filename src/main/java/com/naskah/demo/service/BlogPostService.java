@@ -12,6 +12,9 @@ public interface BlogPostService {
     DatatableResponse<BlogPostResponse> getBlogPosts(int page, int limit, String sortField, String sortOrder,
                                                      String status, String category, String tag, String search, Long authorId);
 
+    DataResponse<CursorPageResponse<BlogPostResponse>> getBlogPostsByCursor(String sort, String cursor, int limit, boolean includeTotal,
+                                                                           String status, String category, String tag, String search, Long authorId);
+
     DataResponse<BlogPostDetailResponse> getBlogPostBySlug(String slug);
 
     DataResponse<BlogPostResponse> createBlogPost(CreateBlogPostRequest request, List<MultipartFile> images);
@@ -7,6 +7,7 @@ public interface DashboardService {
     DataResponse<UserReadingDashboardResponse> getUserReadingDashboard();
     DatatableResponse<BookLibraryItemResponse> getUserLibrary(String filter, int page, int limit, String sortBy);
     DatatableResponse<ReadingActivityResponse> getReadingHistory(int days, int page, int limit);
+    DataResponse<CursorPageResponse<ReadingActivityResponse>> getReadingHistoryByCursor(int days, String cursor, int limit);
     DataResponse<ReadingStatisticsResponse> getReadingStatistics(int period);
     DatatableResponse<AnnotationItemResponse> getAllAnnotations(String type, int page, int limit, String sortBy);
     DatatableResponse<UserReviewItemResponse> getUserReviews(int page, int limit);
@@ -14,6 +14,9 @@ public interface KiosService {
     DatatableResponse<KiosProductResponse> getProducts(int page, int limit, String sortField,
                                                        String sortOrder, String search, String category, String productType, Boolean inStock);
 
+    DataResponse<CursorPageResponse<KiosProductResponse>> getProductsByCursor(String sort, String cursor, int limit, boolean includeTotal,
+                                                                             String search, String category, String productType, Boolean inStock);
+
     DataResponse<KiosProductResponse> getProductBySlug(String slug);
 
     DataResponse<KiosProductResponse> updateProduct(Long id, KiosProductRequest request, List<MultipartFile> images);
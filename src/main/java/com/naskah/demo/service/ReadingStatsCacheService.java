@@ -0,0 +1,9 @@
+package com.naskah.demo.service;
+
+import java.util.function.Supplier;
+
+public interface ReadingStatsCacheService {
+    <T> T get(Long userId, String key, Supplier<T> loader);
+
+    void evict(Long userId);
+}
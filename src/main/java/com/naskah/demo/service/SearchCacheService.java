@@ -0,0 +1,16 @@
+package com.naskah.demo.service;
+
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.model.dto.response.SearchCacheStatsResponse;
+import com.naskah.demo.model.enums.SearchCacheRegion;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface SearchCacheService {
+    <T> T get(SearchCacheRegion region, String key, Supplier<T> loader);
+
+    void invalidate(SearchCacheRegion region);
+
+    DataResponse<List<SearchCacheStatsResponse>> getStats();
+}
@@ -0,0 +1,21 @@
+package com.naskah.demo.service;
+
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.model.dto.response.SuggestionResponse;
+
+import java.util.List;
+
+public interface SuggestService {
+    DataResponse<List<SuggestionResponse>> suggest(String query, int limit, String types);
+
+    /** Re-read a book and its authors after the book was created, edited or deleted */
+    void refreshBook(Long bookId);
+
+    void removeBook(Long bookId);
+
+    void refreshArticle(Long articleId);
+
+    void refreshBlogPost(Long postId);
+
+    void removeBlogPost(Long postId);
+}
@@ -0,0 +1,11 @@
+package com.naskah.demo.service;
+
+import com.naskah.demo.model.dto.response.DataResponse;
+
+import java.time.LocalDate;
+
+public interface UserDailyStatsService {
+    void refreshDay(Long userId, LocalDate day);
+
+    DataResponse<Void> backfill();
+}
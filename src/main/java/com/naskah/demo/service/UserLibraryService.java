@@ -0,0 +1,13 @@
+package com.naskah.demo.service;
+
+public interface UserLibraryService {
+    void refresh(Long userId, Long bookId);
+
+    void rebuild(Long userId);
+
+    void ensureBuilt(Long userId);
+
+    void refreshBook(Long bookId);
+
+    void removeBook(Long bookId);
+}
@@ -0,0 +1,9 @@
+package com.naskah.demo.service.book;
+
+public interface BookAnalyticsRollupService {
+    /** Aggregate the next window of ended reading activity; false when there was nothing left to aggregate */
+    boolean aggregateNextWindow();
+
+    /** Recompute the stored chapter funnels of books with new activity since the last run; returns the books refreshed */
+    int refreshChapterFunnels();
+}
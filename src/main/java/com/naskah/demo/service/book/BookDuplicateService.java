@@ -0,0 +1,19 @@
+package com.naskah.demo.service.book;
+
+import com.naskah.demo.model.dto.SimilarBook;
+import com.naskah.demo.model.dto.response.DatatableResponse;
+import com.naskah.demo.model.dto.response.DuplicateBookResponse;
+
+import java.util.List;
+
+public interface BookDuplicateService {
+    int[] computeSignature(nl.siegmann.epublib.domain.Book epubBook);
+
+    List<SimilarBook> findSimilarBooks(int[] signature, Long excludeBookId);
+
+    boolean isBlockingDuplicates();
+
+    void saveSignature(Long bookId, int[] signature, List<SimilarBook> similarBooks);
+
+    DatatableResponse<DuplicateBookResponse> getSuspectedDuplicates(int page, int limit, Double minSimilarity, Long bookId);
+}
@@ -0,0 +1,11 @@
+package com.naskah.demo.service.book;
+
+import com.naskah.demo.model.dto.request.BulkImportRequest;
+import com.naskah.demo.model.dto.response.BulkImportResponse;
+import com.naskah.demo.model.dto.response.DataResponse;
+
+public interface BookImportService {
+    DataResponse<BulkImportResponse> startBulkImport(BulkImportRequest request);
+
+    DataResponse<BulkImportResponse> getBulkImportStatus(String jobId);
+}
@@ -0,0 +1,9 @@
+package com.naskah.demo.service.book;
+
+import com.naskah.demo.util.search.BookSearchIndex;
+
+public interface BookSearchIndexService {
+    BookSearchIndex getIndex(Long bookId);
+
+    void invalidate(Long bookId);
+}
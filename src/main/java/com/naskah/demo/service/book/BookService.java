@@ -15,6 +15,7 @@ import java.util.Map;
 
 public interface BookService {
     DataResponse<BookResponse> createBook(BookRequest request);
+    DataResponse<BookResponse> importEpub(MultipartFile bookFile, boolean updateExisting) throws IOException;
     DataResponse<BookResponse> getBookDetailBySlug(String slug, HttpServletRequest request);
     ResponseEntity<byte[]> downloadBookAsBytes(String slug, HttpServletRequest request);
     DataResponse<Book> update(Long id, Book book, MultipartFile file) throws IOException;
@@ -23,6 +24,8 @@ public interface BookService {
     DatatableResponse<AuthorResponse> getAllAuthors(int page, int limit, String search, String sortBy);
     DatatableResponse<ContributorResponse> getAllContributors(int page, int limit, String role, String search);
     DatatableResponse<BookResponse> getPaginatedBooks(int page, int limit, String sortField, String sortOrder, BookSearchCriteria criteria);
+
+    DataResponse<CursorPageResponse<BookResponse>> getBooksByCursor(String sort, String cursor, int limit, boolean includeTotal, BookSearchCriteria criteria);
     List<Book> getAllBooksForSitemap();
     List<String> getChapterPaths(String slug);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.naskah.demo.service.book;
+
+import com.naskah.demo.model.dto.response.CatalogSearchResponse;
+import com.naskah.demo.model.dto.response.DataResponse;
+
+public interface CatalogSearchService {
+    DataResponse<CatalogSearchResponse> searchCatalog(String query, String genre, Integer languageId, String copyrightStatus, int page, int limit);
+
+    void refreshBook(Long bookId);
+
+    void removeBook(Long bookId);
+
+    DataResponse<Void> reindexAll();
+}
@@ -1,6 +1,7 @@
 package com.naskah.demo.service.book;
 
 import com.naskah.demo.model.dto.EpubProcessResult;
+import com.naskah.demo.model.dto.EpubUpdatePlan;
 import com.naskah.demo.model.entity.Book;
 import com.naskah.demo.model.entity.BookChapter;
 import org.springframework.web.multipart.MultipartFile;
@@ -19,5 +20,7 @@ public interface EpubService {
 
     void deleteChaptersByBookId(Long bookId);
 
-    EpubProcessResult processEpubFileForUpdate(MultipartFile newFile, Book existingBook) throws IOException;
+    EpubUpdatePlan prepareEpubUpdate(MultipartFile newFile, Book existingBook) throws IOException;
+
+    List<BookChapter> applyEpubUpdate(EpubUpdatePlan plan);
 }
@@ -0,0 +1,15 @@
+package com.naskah.demo.service.book;
+
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.model.dto.response.SearchQueryStatResponse;
+
+import java.util.List;
+
+public interface SearchHistoryService {
+    /** Queue one in-book search; never blocks and never touches the database on the caller's thread */
+    void record(Long userId, Long bookId, String query, int resultsCount);
+
+    void flush();
+
+    DataResponse<List<SearchQueryStatResponse>> getQueryAnalytics(String slug, boolean zeroResultsOnly, int limit);
+}
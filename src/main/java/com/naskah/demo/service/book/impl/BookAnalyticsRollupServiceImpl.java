@@ -0,0 +1,109 @@
+package com.naskah.demo.service.book.impl;
+
+import com.naskah.demo.mapper.AnalyticsRollupMapper;
+import com.naskah.demo.service.book.BookAnalyticsRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Incrementally folds ended {@code reading_activity_log} rows into the {@code book_activity_hourly} and
+ * {@code book_activity_daily} rollups that book analytics read from.
+ * <p>
+ * Progress is a watermark on {@code ended_at}: each window [watermark, to) is aggregated and the watermark
+ * moved to {@code to} in the same transaction, so a window is counted exactly once even when a run fails
+ * halfway or two instances race (the watermark row is locked for the duration). The window stops
+ * {@code safety-lag-seconds} short of now so rows stamped just before a slow commit are not skipped.
+ * <p>
+ * Chapter funnels (reached / completed / skipped / abandoned per chapter) are recomputed in a nightly batch
+ * into {@code book_chapter_funnels}, only for books with new activity since the previous batch. Each book is
+ * one idempotent upsert, so the batch watermark only moves once every book went through; a failed run is
+ * simply redone in full next time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookAnalyticsRollupServiceImpl implements BookAnalyticsRollupService {
+    private final AnalyticsRollupMapper rollupMapper;
+
+    private static final String WATERMARK = "book_activity";
+    private static final String FUNNEL_WATERMARK = "chapter_funnels";
+
+    @Value("${analytics.rollup.max-window-hours:24}")
+    private long maxWindowHours;
+
+    @Value("${analytics.rollup.safety-lag-seconds:120}")
+    private long safetyLagSeconds;
+
+    @Value("${analytics.funnel.abandon-after-days:30}")
+    private int abandonAfterDays;
+
+    @Value("${analytics.funnel.max-age-days:7}")
+    private int funnelMaxAgeDays;
+
+    @Override
+    @Transactional
+    public boolean aggregateNextWindow() {
+        LocalDateTime from = rollupMapper.lockWatermark(WATERMARK);
+        if (from == null) {
+            // ✅ first run: start at the oldest ended activity instead of walking empty windows from the epoch
+            LocalDateTime first = rollupMapper.findFirstEndedAt();
+            if (first == null) {
+                return false;
+            }
+            rollupMapper.insertWatermark(WATERMARK, first.truncatedTo(ChronoUnit.HOURS));
+            from = rollupMapper.lockWatermark(WATERMARK);
+        }
+
+        LocalDateTime safeEnd = LocalDateTime.now().minusSeconds(safetyLagSeconds);
+        if (!from.isBefore(safeEnd)) {
+            return false;
+        }
+
+        LocalDateTime to = from.plusHours(maxWindowHours);
+        if (to.isAfter(safeEnd)) {
+            to = safeEnd;
+        }
+
+        int hourly = rollupMapper.aggregateHourly(from, to);
+        int daily = rollupMapper.aggregateDaily(from, to);
+        rollupMapper.updateWatermark(WATERMARK, to);
+
+        log.debug("Aggregated book activity [{}, {}): {} hourly, {} daily buckets", from, to, hourly, daily);
+        return true;
+    }
+
+    @Override
+    public int refreshChapterFunnels() {
+        LocalDateTime runStart = LocalDateTime.now();
+        LocalDateTime since = rollupMapper.findWatermark(FUNNEL_WATERMARK);
+        List<Long> bookIds = rollupMapper.findBooksForFunnelRefresh(since, funnelMaxAgeDays);
+
+        int refreshed = 0;
+        int failed = 0;
+        for (Long bookId : bookIds) {
+            try {
+                rollupMapper.refreshChapterFunnel(bookId, abandonAfterDays);
+                refreshed++;
+            } catch (Exception e) {
+                failed++;
+                log.error("Failed to refresh chapter funnels of book {}: {}", bookId, e.getMessage(), e);
+            }
+        }
+
+        // ✅ keep the old watermark when a book failed, so the next run picks it up again
+        if (failed == 0) {
+            rollupMapper.insertWatermark(FUNNEL_WATERMARK, runStart);
+            rollupMapper.updateWatermark(FUNNEL_WATERMARK, runStart);
+        }
+
+        log.debug("Chapter funnels since {}: {} books refreshed, {} failed", since, refreshed, failed);
+        return refreshed;
+    }
+}
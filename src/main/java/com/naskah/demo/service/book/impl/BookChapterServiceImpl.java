@@ -6,8 +6,20 @@ import com.naskah.demo.mapper.*;
 import com.naskah.demo.model.dto.request.*;
 import com.naskah.demo.model.dto.response.*;
 import com.naskah.demo.model.entity.*;
+import com.naskah.demo.model.enums.AchievementEvent;
+import com.naskah.demo.model.enums.SearchCacheRegion;
+import com.naskah.demo.service.AchievementService;
+import com.naskah.demo.service.ActivityStreakService;
+import com.naskah.demo.service.ReadingStatsCacheService;
+import com.naskah.demo.service.SearchCacheService;
+import com.naskah.demo.service.UserDailyStatsService;
+import com.naskah.demo.service.UserLibraryService;
 import com.naskah.demo.service.book.BookChapterService;
+import com.naskah.demo.service.book.BookSearchIndexService;
+import com.naskah.demo.service.book.SearchHistoryService;
+import com.naskah.demo.util.SearchResultCache;
 import com.naskah.demo.util.interceptor.HeaderHolder;
+import com.naskah.demo.util.search.BookSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
@@ -21,6 +33,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
@@ -48,6 +61,14 @@ public class BookChapterServiceImpl implements BookChapterService {
     private final ReadingSessionMapper sessionMapper;
     private final UserReadingPatternMapper patternMapper;
     private final SearchMapper searchMapper;
+    private final BookSearchIndexService searchIndexService;
+    private final SearchCacheService searchCacheService;
+    private final SearchHistoryService searchHistoryService;
+    private final ActivityStreakService activityStreakService;
+    private final UserLibraryService userLibraryService;
+    private final ReadingStatsCacheService readingStatsCacheService;
+    private final UserDailyStatsService userDailyStatsService;
+    private final AchievementService achievementService;
     private final AnnotationExportMapper exportMapper;
     private final EntityResponseMapper entityMapper;
     private final HeaderHolder headerHolder;
@@ -115,6 +136,7 @@ public class BookChapterServiceImpl implements BookChapterService {
             validateBook(book);
 
             ChapterProgress progress = chapterProgressMapper.findProgress(user.getId(), book.getId(), chapterNumber);
+            boolean wasCompleted = progress != null && Boolean.TRUE.equals(progress.getIsCompleted());
 
             if (progress == null) {
                 progress = new ChapterProgress();
@@ -129,15 +151,34 @@ public class BookChapterServiceImpl implements BookChapterService {
 
                 chapterProgressMapper.insertProgress(progress);
             } else {
+                // ✅ a completed chapter counts on the day it was last read, so moving that day touches two days
+                LocalDate previousDay = Boolean.TRUE.equals(progress.getIsCompleted()) && progress.getLastReadAt() != null
+                        ? progress.getLastReadAt().toLocalDate()
+                        : null;
+
                 progress.setPosition(request.getPosition());
                 progress.setReadingTimeSeconds(progress.getReadingTimeSeconds() + request.getReadingTimeSeconds());
                 progress.setIsCompleted(request.getIsCompleted());
                 progress.setLastReadAt(LocalDateTime.now());
 
                 chapterProgressMapper.updateProgress(progress);
+
+                if (previousDay != null && !previousDay.equals(LocalDate.now())) {
+                    userDailyStatsService.refreshDay(user.getId(), previousDay);
+                }
             }
 
-            updateOverallBookProgress(user.getId(), book.getId());
+            long completedChapters = updateOverallBookProgress(user.getId(), book.getId());
+            userLibraryService.refresh(user.getId(), book.getId());
+            userDailyStatsService.refreshDay(user.getId(), LocalDate.now());
+
+            // ✅ only the chapter that completes the book can finish it, so other chapters skip the finished-book
+            // count; that count only ever raises the counter
+            if (Boolean.TRUE.equals(request.getIsCompleted()) && !wasCompleted
+                    && book.getTotalPages() != null && completedChapters >= book.getTotalPages()) {
+                Integer booksCompleted = chapterProgressMapper.countCompletedBooks(user.getId());
+                achievementService.record(user.getId(), AchievementEvent.BOOK_FINISHED, booksCompleted != null ? booksCompleted : 0);
+            }
 
             ChapterProgressResponse response = new ChapterProgressResponse();
             response.setChapterNumber(chapterNumber);
@@ -156,7 +197,8 @@ public class BookChapterServiceImpl implements BookChapterService {
         }
     }
 
-    private void updateOverallBookProgress(Long userId, Long bookId) {
+    /** Returns the number of completed chapters of the book, or 0 when the update failed */
+    private long updateOverallBookProgress(Long userId, Long bookId) {
         try {
             List<ChapterProgress> allProgress = chapterProgressMapper.findAllByUserAndBook(userId, bookId);
             long completedCount = allProgress.stream().filter(ChapterProgress::getIsCompleted).count();
@@ -172,8 +214,10 @@ public class BookChapterServiceImpl implements BookChapterService {
                     readingProgressMapper.updateReadingProgress(overallProgress);
                 }
             }
+            return completedCount;
         } catch (Exception e) {
             log.warn("Failed to update overall book progress: {}", e.getMessage());
+            return 0;
         }
     }
 
@@ -195,6 +239,8 @@ public class BookChapterServiceImpl implements BookChapterService {
             bookmark.setCreatedAt(LocalDateTime.now());
 
             bookmarkMapper.insertBookmark(bookmark);
+            userLibraryService.refresh(user.getId(), book.getId());
+            userDailyStatsService.refreshDay(user.getId(), LocalDate.now());
 
             BookmarkResponse response = entityMapper.toBookmarkResponse(bookmark);
 
@@ -228,6 +274,9 @@ public class BookChapterServiceImpl implements BookChapterService {
             highlight.setUpdatedAt(LocalDateTime.now());
 
             highlightMapper.insertHighlight(highlight);
+            achievementService.record(user.getId(), AchievementEvent.HIGHLIGHT_CREATED, 1);
+            userLibraryService.refresh(user.getId(), book.getId());
+            userDailyStatsService.refreshDay(user.getId(), LocalDate.now());
             analyticsMapper.updateHighlightHeatmap(book.getId(), chapterNumber, 1);
 
             HighlightResponse response = entityMapper.toHighlightResponse(highlight);
@@ -264,6 +313,8 @@ public class BookChapterServiceImpl implements BookChapterService {
             note.setUpdatedAt(LocalDateTime.now());
 
             noteMapper.insertNote(note);
+            userLibraryService.refresh(user.getId(), book.getId());
+            userDailyStatsService.refreshDay(user.getId(), LocalDate.now());
             analyticsMapper.updateNoteHeatmap(book.getId(), chapterNumber, 1);
 
             NoteResponse response = entityMapper.toNoteResponse(note);
@@ -296,6 +347,10 @@ public class BookChapterServiceImpl implements BookChapterService {
             }
 
             bookmarkMapper.deleteBookmark(bookmarkId);
+            userLibraryService.refresh(user.getId(), bookmark.getBookId());
+            if (bookmark.getCreatedAt() != null) {
+                userDailyStatsService.refreshDay(user.getId(), bookmark.getCreatedAt().toLocalDate());
+            }
 
             log.info("Bookmark {} deleted by user {} from book {}", bookmarkId, user.getId(), slug);
 
@@ -326,6 +381,10 @@ public class BookChapterServiceImpl implements BookChapterService {
 
             highlightMapper.deleteHighlight(highlightId);
             analyticsMapper.updateHighlightHeatmap(book.getId(), chapterNumber, -1);
+            userLibraryService.refresh(user.getId(), highlight.getBookId());
+            if (highlight.getCreatedAt() != null) {
+                userDailyStatsService.refreshDay(user.getId(), highlight.getCreatedAt().toLocalDate());
+            }
 
             log.info("Highlight {} deleted by user {} from book {}", highlightId, user.getId(), slug);
 
@@ -356,6 +415,10 @@ public class BookChapterServiceImpl implements BookChapterService {
 
             noteMapper.deleteNote(noteId);
             analyticsMapper.updateNoteHeatmap(book.getId(), chapterNumber, -1);
+            userLibraryService.refresh(user.getId(), note.getBookId());
+            if (note.getCreatedAt() != null) {
+                userDailyStatsService.refreshDay(user.getId(), note.getCreatedAt().toLocalDate());
+            }
 
             log.info("Note {} deleted by user {} from book {}", noteId, user.getId(), slug);
 
@@ -700,6 +763,9 @@ public class BookChapterServiceImpl implements BookChapterService {
                 session.setCreatedAt(LocalDateTime.now());
                 session.setUpdatedAt(LocalDateTime.now());
                 sessionMapper.insertSession(session);
+                activityStreakService.markActive(user.getId(), session.getStartedAt().toLocalDate());
+                achievementService.record(user.getId(), AchievementEvent.STREAK_EXTENDED,
+                        activityStreakService.getBitmap(user.getId()).currentStreak(session.getStartedAt().toLocalDate()));
                 log.info("Created new reading session: {}", request.getSessionId());
             }
 
@@ -813,6 +879,7 @@ public class BookChapterServiceImpl implements BookChapterService {
             }
 
             LocalDateTime now = LocalDateTime.now();
+            int previousMinutes = session.getTotalDurationSeconds() != null ? session.getTotalDurationSeconds() / 60 : 0;
             session.setEndedAt(now);
             session.setEndChapter(endChapter);
 
@@ -843,6 +910,16 @@ public class BookChapterServiceImpl implements BookChapterService {
 
             session.setUpdatedAt(now);
             sessionMapper.updateSession(session);
+            userLibraryService.refresh(session.getUserId(), session.getBookId());
+            userDailyStatsService.refreshDay(session.getUserId(), session.getStartedAt() != null
+                    ? session.getStartedAt().toLocalDate()
+                    : now.toLocalDate());
+            readingStatsCacheService.evict(session.getUserId());
+            // ✅ a session is updated at every chapter end; only the minutes added since the last update count
+            if (session.getTotalDurationSeconds() != null) {
+                achievementService.record(session.getUserId(), AchievementEvent.READING_TIME,
+                        session.getTotalDurationSeconds() / 60 - previousMinutes);
+            }
 
             log.info("Updated session {}: chapters_read={}, total_duration={}s, completion_delta={}%",
                     sessionId, session.getChaptersRead(), session.getTotalDurationSeconds(),
@@ -1014,34 +1091,13 @@ public class BookChapterServiceImpl implements BookChapterService {
                 throw new IllegalArgumentException("Search query cannot be empty");
             }
 
-            List<Map<String, Object>> results;
-            int totalResults;
+            // ✅ repeated searches (same book, query, range and page) skip ranking until the book changes
+            String cacheKey = SearchResultCache.key("in-book", book.getId(), searchQuery, request.getPage(),
+                    request.getLimit(), request.getChapterFrom(), request.getChapterTo());
+            SearchInBookResponse response = searchCacheService.get(SearchCacheRegion.BOOKS, cacheKey,
+                    () -> runSearchInBook(book.getId(), request, searchQuery, offset));
 
-            try {
-                results = searchMapper.searchInBook(book.getId(), searchQuery, offset, request.getLimit());
-                totalResults = searchMapper.countSearchResults(book.getId(), searchQuery);
-
-                log.info("Full-text search returned {} results for query: '{}'", totalResults, searchQuery);
-            } catch (Exception e) {
-                log.warn("Full-text search failed, falling back to LIKE search: {}", e.getMessage());
-                results = searchMapper.searchInBookSimple(book.getId(), searchQuery, offset, request.getLimit());
-                totalResults = searchMapper.countSearchResultsSimple(book.getId(), searchQuery);
-            }
-
-            List<ChapterSearchResultResponse> searchResults = results.stream()
-                    .map(r -> mapToSearchResult(r, searchQuery))
-                    .toList();
-
-            SearchInBookResponse response = new SearchInBookResponse();
-            response.setQuery(request.getQuery());
-            response.setTotalResults(totalResults);
-            response.setTotalChapters((int) results.stream()
-                    .map(r -> r.get(CHAPTER_NUMBER))
-                    .distinct()
-                    .count());
-            response.setResults(searchResults);
-
-            saveSearchHistory(getCurrentUserIdOrNull(), book.getId(), request.getQuery(), totalResults);
+            saveSearchHistory(getCurrentUserIdOrNull(), book.getId(), request.getQuery(), response.getTotalResults());
 
             return new DataResponse<>(SUCCESS, "Search completed", HttpStatus.OK.value(), response);
 
@@ -1054,6 +1110,116 @@ public class BookChapterServiceImpl implements BookChapterService {
         }
     }
 
+    /**
+     * In-memory index first, then PostgreSQL full text, then LIKE as the last resort
+     */
+    private SearchInBookResponse runSearchInBook(Long bookId, SearchInBookRequest request, String searchQuery, int offset) {
+        try {
+            return searchWithIndex(bookId, request, searchQuery, offset);
+        } catch (RuntimeException e) {
+            log.warn("In-memory search index failed, falling back to database search: {}", e.getMessage());
+        }
+
+        List<Map<String, Object>> results;
+        int totalResults;
+
+        try {
+            results = searchMapper.searchInBook(bookId, searchQuery, offset, request.getLimit());
+            totalResults = searchMapper.countSearchResults(bookId, searchQuery);
+
+            log.info("Full-text search returned {} results for query: '{}'", totalResults, searchQuery);
+        } catch (Exception e) {
+            log.warn("Full-text search failed, falling back to LIKE search: {}", e.getMessage());
+            results = searchMapper.searchInBookSimple(bookId, searchQuery, offset, request.getLimit());
+            totalResults = searchMapper.countSearchResultsSimple(bookId, searchQuery);
+        }
+
+        List<ChapterSearchResultResponse> searchResults = results.stream()
+                .map(r -> mapToSearchResult(r, searchQuery))
+                .toList();
+
+        SearchInBookResponse response = new SearchInBookResponse();
+        response.setQuery(request.getQuery());
+        response.setTotalResults(totalResults);
+        response.setTotalChapters((int) results.stream()
+                .map(r -> r.get(CHAPTER_NUMBER))
+                .distinct()
+                .count());
+        response.setResults(searchResults);
+
+        return response;
+    }
+
+    /**
+     * ✅ Answer the search from the book's in-memory positional index (built on first use)
+     */
+    private SearchInBookResponse searchWithIndex(Long bookId, SearchInBookRequest request, String searchQuery, int offset) {
+        BookSearchIndex index = searchIndexService.getIndex(bookId);
+        List<BookSearchIndex.Hit> hits = index.search(searchQuery, request.getChapterFrom(), request.getChapterTo());
+
+        List<ChapterSearchResultResponse> searchResults = hits.stream()
+                .skip(offset)
+                .limit(request.getLimit())
+                .map(this::mapIndexHitToSearchResult)
+                .toList();
+
+        log.info("Index search returned {} results for query: '{}'", hits.size(), searchQuery);
+
+        SearchInBookResponse response = new SearchInBookResponse();
+        response.setQuery(request.getQuery());
+        response.setTotalResults(hits.size());
+        response.setTotalChapters(searchResults.size());
+        response.setResults(searchResults);
+        return response;
+    }
+
+    private ChapterSearchResultResponse mapIndexHitToSearchResult(BookSearchIndex.Hit hit) {
+        BookSearchIndex.IndexedChapter chapter = hit.chapter();
+
+        ChapterSearchResultResponse response = new ChapterSearchResultResponse();
+        response.setChapterId(chapter.id());
+        response.setChapterNumber(chapter.number());
+        response.setChapterTitle(chapter.title());
+        response.setChapterSlug(chapter.slug());
+        response.setChapterLevel(chapter.level());
+        response.setParentSlug(chapter.parentSlug());
+        response.setRelevanceScore(hit.score());
+        response.setMatchCount(hit.matchCount());
+
+        List<SearchMatch> matches = new ArrayList<>();
+        for (BookSearchIndex.Span span : hit.spans()) {
+            if (matches.size() >= 5) break;
+            matches.add(buildSnippet(chapter.content(), chapter.tokenStarts()[span.startToken()], chapter.tokenEnds()[span.endToken()]));
+        }
+        response.setMatches(matches);
+
+        return response;
+    }
+
+    /**
+     * Snippet with 50 chars of context around [start, end), cut from the stored token offsets
+     */
+    private SearchMatch buildSnippet(String content, int start, int end) {
+        SearchMatch match = new SearchMatch();
+        match.setMatchText(content.substring(start, end));
+        match.setPosition(start);
+
+        int contextStart = Math.max(0, start - 50);
+        int contextEnd = Math.min(content.length(), end + 50);
+
+        match.setContextBefore(content.substring(contextStart, start).trim());
+        match.setContextAfter(content.substring(end, contextEnd).trim());
+
+        String snippet = (contextStart > 0 ? "..." : "") +
+                match.getContextBefore() + " " +
+                "<mark>" + match.getMatchText() + "</mark>" + " " +
+                match.getContextAfter() +
+                (contextEnd < content.length() ? "..." : "");
+        match.setSnippet(snippet.trim());
+
+        return match;
+    }
+
     private ChapterSearchResultResponse mapToSearchResult(Map<String, Object> result, String query) {
         ChapterSearchResultResponse response = new ChapterSearchResultResponse();
         response.setChapterId(getLongValue(result));
@@ -1180,20 +1346,8 @@ public class BookChapterServiceImpl implements BookChapterService {
     }
 
     private void saveSearchHistory(Long userId, Long bookId, String query, int resultsCount) {
-        if (userId != null) {
-            try {
-                SearchHistory history = new SearchHistory();
-                history.setUserId(userId);
-                history.setBookId(bookId);
-                history.setQuery(query);
-                history.setResultsCount(resultsCount);
-                history.setSearchType("in_book");
-                history.setCreatedAt(LocalDateTime.now());
-                searchMapper.insertSearchHistory(history);
-            } catch (Exception e) {
-                log.warn("Failed to save search history: {}", e.getMessage());
-            }
-        }
+        // buffered and written in batches; anonymous searches only feed the query rollup
+        searchHistoryService.record(userId, bookId, query, resultsCount);
     }
 
     @Override
@@ -1446,6 +1600,7 @@ public class BookChapterServiceImpl implements BookChapterService {
             response.setMostHighlightedPassages(findMostHighlightedPassages(book.getId()));
             response.setDropOffPoints(findDropOffPoints(book.getId()));
             response.setMostSkippedChapters(findMostSkippedChapters(book.getId()));
+            response.setFunnelsComputedAt(analyticsMapper.getFunnelComputedAt(book.getId()));
             response.setTrends(analyzeTrends(book.getId(), startDate, endDate));
 
             return new DataResponse<>(SUCCESS, "Analytics retrieved", HttpStatus.OK.value(), response);
@@ -2258,6 +2413,7 @@ public class BookChapterServiceImpl implements BookChapterService {
                     analysis.setSkipRate(safeConvertToDouble(d.get("skip_rate")));
                     analysis.setTimesSkipped(safeConvertToInt(d.get("times_skipped")));
                     analysis.setTotalReaders(safeConvertToInt(d.get("total_readers")));
+                    analysis.setReadersSkipped(safeConvertToInt(d.get("readers_skipped")));
                     analysis.setPossibleReason(inferSkipReason(analysis));
                     return analysis;
                 })
@@ -2369,6 +2525,7 @@ public class BookChapterServiceImpl implements BookChapterService {
         point.setAverageScrollDepth(safeConvertToInt(data.get("average_scroll_depth")));
         point.setReadersStarted(safeConvertToInt(data.get("readers_started")));
         point.setReadersCompleted(safeConvertToInt(data.get("readers_completed")));
+        point.setReadersAbandoned(safeConvertToInt(data.get("readers_abandoned")));
 
         double dropOffRate = point.getDropOffRate();
         if (dropOffRate >= 50) point.setSeverity("Critical");
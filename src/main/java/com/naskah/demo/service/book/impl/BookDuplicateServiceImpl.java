@@ -0,0 +1,137 @@
+package com.naskah.demo.service.book.impl;
+
+import com.naskah.demo.mapper.BookSimilarityMapper;
+import com.naskah.demo.model.dto.SimilarBook;
+import com.naskah.demo.model.dto.response.DatatableResponse;
+import com.naskah.demo.model.dto.response.DuplicateBookResponse;
+import com.naskah.demo.model.dto.response.PageDataResponse;
+import com.naskah.demo.model.entity.BookSignature;
+import com.naskah.demo.service.book.BookDuplicateService;
+import com.naskah.demo.util.MinHashUtil;
+import com.naskah.demo.util.interceptor.HeaderHolder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import nl.siegmann.epublib.domain.Resource;
+import nl.siegmann.epublib.domain.SpineReference;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookDuplicateServiceImpl implements BookDuplicateService {
+    private final BookSimilarityMapper similarityMapper;
+    private final HeaderHolder headerHolder;
+    private static final String SUCCESS = "Success";
+
+    @Value("${book.duplicate.similarity-threshold:0.8}")
+    private double similarityThreshold;
+
+    @Value("${book.duplicate.block-uploads:false}")
+    private boolean blockUploads;
+
+    /**
+     * MinHash signature of the whole book text (all spine documents), or null if the EPUB can't be read
+     * or is too short to fingerprint. Takes the EPUB the caller already parsed for its metadata.
+     */
+    @Override
+    public int[] computeSignature(nl.siegmann.epublib.domain.Book epubBook) {
+        try {
+            StringBuilder text = new StringBuilder();
+            for (SpineReference ref : epubBook.getSpine().getSpineReferences()) {
+                Resource resource = ref.getResource();
+                if (resource == null) continue;
+
+                Document doc = Jsoup.parse(new String(resource.getData(), StandardCharsets.UTF_8));
+                if (doc.body() != null) {
+                    text.append(doc.body().text()).append('\n');
+                }
+            }
+
+            return MinHashUtil.computeSignature(text);
+        } catch (Exception e) {
+            log.warn("Failed to compute MinHash signature for '{}': {}", epubBook.getTitle(), e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public List<SimilarBook> findSimilarBooks(int[] signature, Long excludeBookId) {
+        if (signature == null) {
+            return Collections.emptyList();
+        }
+
+        List<Long> bandKeys = toList(MinHashUtil.bandKeys(signature));
+        List<Long> candidateIds = similarityMapper.findCandidateBookIds(bandKeys, excludeBookId);
+        if (candidateIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<SimilarBook> similarBooks = new ArrayList<>();
+        for (BookSignature candidate : similarityMapper.findSignaturesByBookIds(candidateIds)) {
+            double similarity = MinHashUtil.estimateSimilarity(signature, MinHashUtil.fromBytes(candidate.getSignature()));
+            if (similarity >= similarityThreshold) {
+                similarBooks.add(new SimilarBook(candidate.getBookId(), similarity));
+            }
+        }
+
+        similarBooks.sort(Comparator.comparingDouble(SimilarBook::getSimilarity).reversed());
+        log.info("LSH lookup: {} candidates, {} above similarity threshold {}", candidateIds.size(), similarBooks.size(), similarityThreshold);
+
+        return similarBooks;
+    }
+
+    @Override
+    public boolean isBlockingDuplicates() {
+        return blockUploads;
+    }
+
+    /**
+     * Store (or replace) the book's signature and LSH bands, and flag it against the given similar books
+     */
+    @Override
+    public void saveSignature(Long bookId, int[] signature, List<SimilarBook> similarBooks) {
+        if (signature == null) {
+            return;
+        }
+
+        similarityMapper.upsertSignature(bookId, MinHashUtil.toBytes(signature));
+        similarityMapper.deleteBandsByBookId(bookId);
+        similarityMapper.insertBands(bookId, toList(MinHashUtil.bandKeys(signature)));
+
+        similarityMapper.deleteDuplicateCandidatesByBookId(bookId);
+        for (SimilarBook similar : similarBooks) {
+            similarityMapper.insertDuplicateCandidate(bookId, similar.getBookId(), similar.getSimilarity());
+            log.warn("Book {} flagged as near-duplicate of book {} (similarity {})", bookId, similar.getBookId(), similar.getSimilarity());
+        }
+    }
+
+    @Override
+    public DatatableResponse<DuplicateBookResponse> getSuspectedDuplicates(int page, int limit, Double minSimilarity, Long bookId) {
+        headerHolder.requireAdmin();
+
+        double threshold = minSimilarity != null ? minSimilarity : similarityThreshold;
+        int offset = (page - 1) * limit;
+
+        List<DuplicateBookResponse> duplicates = similarityMapper.findDuplicateCandidates(threshold, bookId, offset, limit);
+        int total = similarityMapper.countDuplicateCandidates(threshold, bookId);
+
+        PageDataResponse<DuplicateBookResponse> pageData = new PageDataResponse<>(page, limit, total, duplicates);
+
+        return new DatatableResponse<>(SUCCESS, "Suspected duplicates retrieved successfully", HttpStatus.OK.value(), pageData);
+    }
+
+    private List<Long> toList(long[] values) {
+        List<Long> list = new ArrayList<>(values.length);
+        for (long value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
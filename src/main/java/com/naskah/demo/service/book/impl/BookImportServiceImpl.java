@@ -0,0 +1,405 @@
+package com.naskah.demo.service.book.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naskah.demo.exception.custom.*;
+import com.naskah.demo.model.dto.request.BulkImportRequest;
+import com.naskah.demo.model.dto.response.BookResponse;
+import com.naskah.demo.model.dto.response.BulkImportItemResponse;
+import com.naskah.demo.model.dto.response.BulkImportResponse;
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.model.dto.response.ResponseMessage;
+import com.naskah.demo.service.book.BookImportService;
+import com.naskah.demo.service.book.BookService;
+import com.naskah.demo.util.file.LocalMultipartFile;
+import com.naskah.demo.util.interceptor.HeaderHolder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Server-side bulk import of EPUBs from a directory or a zip. Files go through BookService.importEpub on a
+ * small fixed worker pool (each worker holds at most one DB connection), so a back catalogue of thousands of
+ * books never takes more than book.import.max-parallelism connections from the Hikari pool. Only one bulk
+ * import runs at a time.
+ * <p>
+ * Every processed file is appended to a JSON-lines manifest next to the source. Re-running the same import
+ * skips files the manifest already records as imported/updated/skipped with the same size and modification
+ * time, so an interrupted run resumes where it stopped and failed files are retried.
+ * <p>
+ * Job status (with its per-file items) is kept in memory for book.import.job-retention-minutes after the job
+ * finishes; the manifest remains the durable record.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookImportServiceImpl implements BookImportService {
+    private final BookService bookService;
+    private final HeaderHolder headerHolder;
+    private final ObjectMapper objectMapper;
+
+    private static final String SUCCESS = "Success";
+    private static final String EPUB_CONTENT_TYPE = "application/epub+zip";
+    private static final String DIRECTORY_MANIFEST = ".import-manifest.jsonl";
+    private static final String ZIP_MANIFEST_SUFFIX = ".import-manifest.jsonl";
+
+    private static final String STATUS_RUNNING = "running";
+    private static final String STATUS_COMPLETED = "completed";
+    private static final String STATUS_FAILED = "failed";
+    private static final String ITEM_IMPORTED = "imported";
+    private static final String ITEM_UPDATED = "updated";
+    private static final String ITEM_SKIPPED = "skipped";
+    private static final String ITEM_FAILED = "failed";
+
+    private final Map<String, BulkImportResponse> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService jobRunner = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean importRunning = new AtomicBoolean(false);
+
+    @Value("${book.import.root-directory:${file.upload-directory:uploads}}")
+    private String importRootDirectory;
+
+    @Value("${book.import.max-parallelism:4}")
+    private int maxParallelism;
+
+    @Value("${book.import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    @Override
+    public DataResponse<BulkImportResponse> startBulkImport(BulkImportRequest request) {
+        headerHolder.requireAdmin();
+        evictFinishedJobs();
+
+        Path root = Paths.get(importRootDirectory).toAbsolutePath().normalize();
+        Path source = root.resolve(request.getSourcePath()).normalize();
+
+        if (!source.startsWith(root)) {
+            throw new ForbiddenException();
+        }
+
+        if (!Files.exists(source)) {
+            throw new DataNotFoundException();
+        }
+
+        boolean isZip = Files.isRegularFile(source) && source.getFileName().toString().toLowerCase().endsWith(".zip");
+        if (!isZip && !Files.isDirectory(source)) {
+            throw new InvalidDataException();
+        }
+
+        if (!importRunning.compareAndSet(false, true)) {
+            throw new DataConflictException();
+        }
+
+        int requested = request.getParallelism() != null ? request.getParallelism() : maxParallelism;
+        int parallelism = Math.max(1, Math.min(requested, maxParallelism));
+        boolean updateExisting = Boolean.TRUE.equals(request.getUpdateExisting());
+
+        BulkImportResponse job = new BulkImportResponse();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setSourcePath(request.getSourcePath());
+        job.setStatus(STATUS_RUNNING);
+        job.setParallelism(parallelism);
+        job.setStartedAt(LocalDateTime.now());
+        jobs.put(job.getJobId(), job);
+
+        try {
+            jobRunner.submit(() -> runImport(job, source, isZip, parallelism, updateExisting));
+        } catch (RejectedExecutionException e) {
+            importRunning.set(false);
+            throw new ServiceUnavailableException();
+        }
+
+        log.info("Bulk import {} started from {} (parallelism {}, updateExisting {})", job.getJobId(), source, parallelism, updateExisting);
+
+        return new DataResponse<>(SUCCESS, "Bulk import started", HttpStatus.ACCEPTED.value(), snapshot(job));
+    }
+
+    @Override
+    public DataResponse<BulkImportResponse> getBulkImportStatus(String jobId) {
+        headerHolder.requireAdmin();
+        evictFinishedJobs();
+
+        BulkImportResponse job = jobs.get(jobId);
+        if (job == null) {
+            throw new DataNotFoundException();
+        }
+
+        return new DataResponse<>(SUCCESS, ResponseMessage.DATA_FETCHED, HttpStatus.OK.value(), snapshot(job));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobRunner.shutdownNow();
+    }
+
+    // ============ IMPORT PIPELINE ============
+
+    private void runImport(BulkImportResponse job, Path source, boolean isZip, int parallelism, boolean updateExisting) {
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        // At most two queued files per worker, so the coordinator never races ahead of the pool
+        Semaphore slots = new Semaphore(parallelism * 2);
+
+        try {
+            Path manifestPath = isZip
+                    ? source.resolveSibling(source.getFileName() + ZIP_MANIFEST_SUFFIX)
+                    : source.resolve(DIRECTORY_MANIFEST);
+            Map<String, BulkImportItemResponse> manifest = loadManifest(manifestPath);
+
+            if (isZip) {
+                try (ZipFile zip = new ZipFile(source.toFile())) {
+                    List<? extends ZipEntry> entries = zip.stream()
+                            .filter(entry -> !entry.isDirectory() && entry.getName().toLowerCase().endsWith(".epub"))
+                            .sorted(Comparator.comparing(ZipEntry::getName))
+                            .toList();
+                    setTotalFiles(job, entries.size());
+
+                    for (ZipEntry entry : entries) {
+                        if (isAlreadyDone(job, manifest, entry.getName(), entry.getSize(), entry.getTime())) {
+                            continue;
+                        }
+
+                        slots.acquire();
+                        workers.execute(() -> {
+                            try {
+                                importZipEntry(job, manifestPath, zip, entry, updateExisting);
+                            } finally {
+                                slots.release();
+                            }
+                        });
+                    }
+
+                    awaitWorkers(workers);
+                }
+            } else {
+                List<Path> files;
+                try (Stream<Path> walk = Files.walk(source)) {
+                    files = walk.filter(Files::isRegularFile)
+                            .filter(path -> path.getFileName().toString().toLowerCase().endsWith(".epub"))
+                            .sorted()
+                            .toList();
+                }
+                setTotalFiles(job, files.size());
+
+                for (Path file : files) {
+                    String name = source.relativize(file).toString();
+                    long size = Files.size(file);
+                    long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+                    if (isAlreadyDone(job, manifest, name, size, lastModified)) {
+                        continue;
+                    }
+
+                    slots.acquire();
+                    workers.execute(() -> {
+                        try {
+                            importFile(job, manifestPath, file, name, size, lastModified, updateExisting);
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                }
+
+                awaitWorkers(workers);
+            }
+
+            synchronized (job) {
+                job.setStatus(STATUS_COMPLETED);
+                job.setFinishedAt(LocalDateTime.now());
+            }
+
+            log.info("Bulk import {} completed: {} imported, {} updated, {} skipped, {} failed, {} resumed",
+                    job.getJobId(), job.getImported(), job.getUpdated(), job.getSkipped(), job.getFailed(), job.getResumed());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markJobFailed(job, "Import interrupted");
+        } catch (Exception e) {
+            log.error("Bulk import {} failed: {}", job.getJobId(), e.getMessage(), e);
+            markJobFailed(job, e.getMessage());
+        } finally {
+            workers.shutdownNow();
+            importRunning.set(false);
+        }
+    }
+
+    private void importZipEntry(BulkImportResponse job, Path manifestPath, ZipFile zip, ZipEntry entry, boolean updateExisting) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("bulk-import-", ".epub");
+            try (InputStream is = zip.getInputStream(entry)) {
+                Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            importFile(job, manifestPath, tempFile, entry.getName(), entry.getSize(), entry.getTime(), updateExisting);
+        } catch (IOException e) {
+            recordResult(job, manifestPath, newItem(entry.getName(), entry.getSize(), entry.getTime(), ITEM_FAILED, e.getMessage()));
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    log.warn("Failed to delete temp file {}: {}", tempFile, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void importFile(BulkImportResponse job, Path manifestPath, Path file, String name, long size, long lastModified, boolean updateExisting) {
+        BulkImportItemResponse item;
+
+        try {
+            String fileName = name.substring(name.replace('\\', '/').lastIndexOf('/') + 1);
+            DataResponse<BookResponse> response = bookService.importEpub(new LocalMultipartFile(file, fileName, EPUB_CONTENT_TYPE), updateExisting);
+
+            item = newItem(name, size, lastModified, response.getCode() == HttpStatus.CREATED.value() ? ITEM_IMPORTED : ITEM_UPDATED, null);
+            if (response.getData() != null) {
+                item.setBookId(response.getData().getId());
+                item.setSlug(response.getData().getSlug());
+            }
+        } catch (DataAlreadyExistsException e) {
+            item = newItem(name, size, lastModified, ITEM_SKIPPED, "Book already exists (same slug and author) or is a near-duplicate of an existing book");
+        } catch (Exception e) {
+            log.warn("Bulk import of {} failed: {}", name, e.getMessage());
+            item = newItem(name, size, lastModified, ITEM_FAILED, e.getMessage());
+        }
+
+        recordResult(job, manifestPath, item);
+    }
+
+    private void awaitWorkers(ExecutorService workers) throws InterruptedException {
+        workers.shutdown();
+        while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            log.debug("Waiting for bulk import workers to finish");
+        }
+    }
+
+    // ============ JOB STATE & MANIFEST ============
+
+    private boolean isAlreadyDone(BulkImportResponse job, Map<String, BulkImportItemResponse> manifest, String name, long size, long lastModified) {
+        BulkImportItemResponse previous = manifest.get(name);
+        boolean done = previous != null
+                && !ITEM_FAILED.equals(previous.getStatus())
+                && Objects.equals(previous.getFileSize(), size)
+                && Objects.equals(previous.getLastModified(), lastModified);
+
+        if (done) {
+            synchronized (job) {
+                job.setResumed(job.getResumed() + 1);
+            }
+        }
+
+        return done;
+    }
+
+    private void recordResult(BulkImportResponse job, Path manifestPath, BulkImportItemResponse item) {
+        synchronized (job) {
+            switch (item.getStatus()) {
+                case ITEM_IMPORTED -> job.setImported(job.getImported() + 1);
+                case ITEM_UPDATED -> job.setUpdated(job.getUpdated() + 1);
+                case ITEM_SKIPPED -> job.setSkipped(job.getSkipped() + 1);
+                default -> job.setFailed(job.getFailed() + 1);
+            }
+            job.getItems().add(item);
+
+            try {
+                Files.writeString(manifestPath, objectMapper.writeValueAsString(item) + System.lineSeparator(),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                log.warn("Failed to append to import manifest {}: {}", manifestPath, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Read the JSON-lines manifest of earlier runs; the last line for a file wins.
+     */
+    private Map<String, BulkImportItemResponse> loadManifest(Path manifestPath) throws IOException {
+        Map<String, BulkImportItemResponse> manifest = new HashMap<>();
+        if (!Files.exists(manifestPath)) {
+            return manifest;
+        }
+
+        for (String line : Files.readAllLines(manifestPath, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+
+            try {
+                BulkImportItemResponse item = objectMapper.readValue(line, BulkImportItemResponse.class);
+                manifest.put(item.getFileName(), item);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable manifest line in {}: {}", manifestPath, e.getMessage());
+            }
+        }
+
+        log.info("Loaded import manifest {} with {} entries", manifestPath, manifest.size());
+        return manifest;
+    }
+
+    private BulkImportItemResponse newItem(String name, long size, long lastModified, String status, String message) {
+        BulkImportItemResponse item = new BulkImportItemResponse();
+        item.setFileName(name);
+        item.setFileSize(size);
+        item.setLastModified(lastModified);
+        item.setStatus(status);
+        item.setMessage(message);
+        item.setProcessedAt(LocalDateTime.now());
+        return item;
+    }
+
+    /** Drop finished jobs older than the retention window; running jobs are always kept */
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                return job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff);
+            }
+        });
+    }
+
+    private void setTotalFiles(BulkImportResponse job, int totalFiles) {
+        synchronized (job) {
+            job.setTotalFiles(totalFiles);
+        }
+    }
+
+    private void markJobFailed(BulkImportResponse job, String message) {
+        synchronized (job) {
+            job.setStatus(STATUS_FAILED);
+            job.setErrorMessage(message);
+            job.setFinishedAt(LocalDateTime.now());
+        }
+    }
+
+    private BulkImportResponse snapshot(BulkImportResponse job) {
+        synchronized (job) {
+            BulkImportResponse copy = new BulkImportResponse();
+            copy.setJobId(job.getJobId());
+            copy.setSourcePath(job.getSourcePath());
+            copy.setStatus(job.getStatus());
+            copy.setParallelism(job.getParallelism());
+            copy.setTotalFiles(job.getTotalFiles());
+            copy.setImported(job.getImported());
+            copy.setUpdated(job.getUpdated());
+            copy.setSkipped(job.getSkipped());
+            copy.setFailed(job.getFailed());
+            copy.setResumed(job.getResumed());
+            copy.setStartedAt(job.getStartedAt());
+            copy.setFinishedAt(job.getFinishedAt());
+            copy.setErrorMessage(job.getErrorMessage());
+            copy.setItems(new ArrayList<>(job.getItems()));
+            return copy;
+        }
+    }
+}
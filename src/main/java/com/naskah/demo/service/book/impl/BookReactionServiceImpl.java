@@ -5,6 +5,9 @@ import com.naskah.demo.mapper.*;
 import com.naskah.demo.model.dto.request.*;
 import com.naskah.demo.model.dto.response.*;
 import com.naskah.demo.model.entity.*;
+import com.naskah.demo.model.enums.AchievementEvent;
+import com.naskah.demo.service.AchievementService;
+import com.naskah.demo.service.UserLibraryService;
 import com.naskah.demo.service.book.BookReactionService;
 import com.naskah.demo.util.interceptor.HeaderHolder;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +30,8 @@ public class BookReactionServiceImpl implements BookReactionService {
     private final BookMapper bookMapper;
     private final UserMapper userMapper;
     private final HeaderHolder headerHolder;
+    private final UserLibraryService userLibraryService;
+    private final AchievementService achievementService;
     private static final String SUCCESS = "Success";
 
     // ============================================
@@ -75,6 +80,8 @@ public class BookReactionServiceImpl implements BookReactionService {
                 statusCode = HttpStatus.CREATED.value();
             }
 
+            userLibraryService.refresh(user.getId(), book.getId());
+
             BookRatingResponse response = mapToBookRatingResponse(savedRating, user);
             return new DataResponse<>(SUCCESS, message, statusCode, response);
 
@@ -172,6 +179,7 @@ public class BookReactionServiceImpl implements BookReactionService {
             }
 
             bookRatingMapper.delete(rating.getId());
+            userLibraryService.refresh(user.getId(), book.getId());
             return new DataResponse<>(SUCCESS, "Book rating deleted successfully", HttpStatus.OK.value(), null);
 
         } catch (Exception e) {
@@ -276,6 +284,8 @@ public class BookReactionServiceImpl implements BookReactionService {
             review.setUpdatedAt(LocalDateTime.now());
 
             bookReviewMapper.insert(review);
+            userLibraryService.refresh(user.getId(), book.getId());
+            achievementService.record(user.getId(), AchievementEvent.REVIEW_POSTED, 1);
 
             BookReviewResponse response = mapToBookReviewResponse(review, user.getId());
             return new DataResponse<>(SUCCESS, "Book review created successfully", HttpStatus.CREATED.value(), response);
@@ -343,6 +353,7 @@ public class BookReactionServiceImpl implements BookReactionService {
             }
 
             bookReviewMapper.softDelete(review.getId());
+            userLibraryService.refresh(user.getId(), book.getId());
 
             return new DataResponse<>(SUCCESS, "Book review deleted successfully", HttpStatus.OK.value(), null);
 
@@ -0,0 +1,129 @@
+package com.naskah.demo.service.book.impl;
+
+import com.naskah.demo.mapper.BookChapterMapper;
+import com.naskah.demo.model.entity.BookChapter;
+import com.naskah.demo.service.book.BookSearchIndexService;
+import com.naskah.demo.util.search.BookSearchIndex;
+import com.naskah.demo.util.search.BookSearchIndexCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps per-book search indexes in memory, built lazily on the first search and evicted least recently
+ * used once the configured memory budget is exceeded. An evicted or invalidated book is simply rebuilt
+ * from its chapters on the next search.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookSearchIndexServiceImpl implements BookSearchIndexService {
+    private final BookChapterMapper chapterMapper;
+
+    @Value("${book.search.index.max-memory-mb:256}")
+    private long maxMemoryMb;
+
+    private final Map<Long, Object> buildLocks = new ConcurrentHashMap<>();
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private BookSearchIndexCache indexes;
+
+    @PostConstruct
+    void init() {
+        indexes = new BookSearchIndexCache(maxMemoryMb * 1024 * 1024);
+    }
+
+    @Override
+    public BookSearchIndex getIndex(Long bookId) {
+        BookSearchIndex index = indexes.get(bookId);
+        if (index != null) {
+            return index;
+        }
+
+        // one build per book at a time; concurrent searches on the same book wait for it. The lock is dropped
+        // once the build is done, so a waiter holding a stale lock goes round again and finds the cached index.
+        while (true) {
+            Object lock = buildLocks.computeIfAbsent(bookId, k -> new Object());
+            synchronized (lock) {
+                if (buildLocks.get(bookId) != lock) {
+                    continue;
+                }
+
+                try {
+                    index = indexes.get(bookId);
+                    if (index != null) {
+                        return index;
+                    }
+
+                    long version = versions.getOrDefault(bookId, 0L);
+                    long started = System.nanoTime();
+                    index = buildIndex(bookId);
+                    log.info("Built search index for book {}: {} chapters, ~{} KB in {} ms", bookId, index.getChapterCount(),
+                            index.getEstimatedBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+
+                    // don't cache an index whose chapters changed while it was being built
+                    if (version == versions.getOrDefault(bookId, 0L)) {
+                        putCached(bookId, index);
+                    }
+                    return index;
+                } finally {
+                    buildLocks.remove(bookId, lock);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(Long bookId) {
+        versions.merge(bookId, 1L, Long::sum);
+        if (indexes.remove(bookId) != null) {
+            log.info("Invalidated search index for book {}", bookId);
+        }
+    }
+
+    private BookSearchIndex buildIndex(Long bookId) {
+        List<BookChapter> chapters = chapterMapper.findChaptersByBookId(bookId);
+
+        Map<Long, BookChapter> byId = new HashMap<>();
+        for (BookChapter chapter : chapters) {
+            byId.put(chapter.getId(), chapter);
+        }
+
+        BookSearchIndex.Builder builder = BookSearchIndex.builder();
+        for (BookChapter chapter : chapters) {
+            BookChapter parent = chapter.getParentChapterId() != null ? byId.get(chapter.getParentChapterId()) : null;
+            builder.addChapter(chapter.getId(), chapter.getChapterNumber(), chapter.getTitle(),
+                    buildFullSlug(chapter, byId), chapter.getChapterLevel(),
+                    parent != null ? parent.getSlug() : null, chapter.getContent());
+        }
+        return builder.build();
+    }
+
+    /**
+     * parent/child/... slug path, same as the recursive CTE used by the SQL search
+     */
+    private String buildFullSlug(BookChapter chapter, Map<Long, BookChapter> byId) {
+        Deque<String> parts = new ArrayDeque<>();
+        Set<Long> visited = new HashSet<>();
+        BookChapter current = chapter;
+        while (current != null && visited.add(current.getId())) {
+            parts.addFirst(current.getSlug());
+            current = current.getParentChapterId() != null ? byId.get(current.getParentChapterId()) : null;
+        }
+        return String.join("/", parts);
+    }
+
+    private void putCached(Long bookId, BookSearchIndex index) {
+        List<Long> evicted = indexes.put(bookId, index);
+        if (evicted == null) {
+            log.warn("Search index for book {} (~{} KB) exceeds the memory budget, not caching it",
+                    bookId, index.getEstimatedBytes() / 1024);
+        } else if (!evicted.isEmpty()) {
+            log.debug("Evicted search indexes for books {}", evicted);
+        }
+    }
+}
@@ -1,25 +1,39 @@
 package com.naskah.demo.service.book.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naskah.demo.exception.custom.DataAlreadyExistsException;
 import com.naskah.demo.exception.custom.DataNotFoundException;
-import com.naskah.demo.exception.custom.ForbiddenException;
 import com.naskah.demo.exception.custom.InternalServerErrorException;
-import com.naskah.demo.exception.custom.UnauthorizedException;
+import com.naskah.demo.exception.custom.InvalidDataException;
 import com.naskah.demo.mapper.*;
 import com.naskah.demo.model.dto.*;
 import com.naskah.demo.model.dto.request.*;
 import com.naskah.demo.model.dto.response.*;
 import com.naskah.demo.model.entity.*;
+import com.naskah.demo.model.enums.SearchCacheRegion;
+import com.naskah.demo.service.book.BookDuplicateService;
+import com.naskah.demo.service.book.BookSearchIndexService;
+import com.naskah.demo.service.SearchCacheService;
+import com.naskah.demo.service.SuggestService;
+import com.naskah.demo.service.UserLibraryService;
+import com.naskah.demo.service.book.CatalogSearchService;
 import com.naskah.demo.service.book.BookService;
 import com.naskah.demo.service.book.EpubService;
+import com.naskah.demo.util.ApproximateCountCache;
+import com.naskah.demo.util.CursorUtil;
 import com.naskah.demo.util.HashUtil;
 import com.naskah.demo.util.IPUtil;
+import com.naskah.demo.util.SearchResultCache;
+import com.naskah.demo.util.TransactionUtil;
 import com.naskah.demo.util.file.EpubMetadataExtractor;
 import com.naskah.demo.util.file.FileUtil;
+import com.naskah.demo.util.file.StorageKeyUtil;
 import com.naskah.demo.util.interceptor.HeaderHolder;
+import com.naskah.demo.util.search.IndonesianTextNormalizer;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import nl.siegmann.epublib.epub.EpubReader;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -27,6 +41,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -34,6 +49,7 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -52,134 +68,233 @@ public class BookServiceImpl implements BookService {
     private final GenreMapper genreMapper;
     private final HeaderHolder headerHolder;
     private final EpubService epubService;
+    private final BookDuplicateService bookDuplicateService;
+    private final BookSearchIndexService bookSearchIndexService;
+    private final CatalogSearchService catalogSearchService;
+    private final SuggestService suggestService;
+    private final SearchCacheService searchCacheService;
+    private final UserLibraryService userLibraryService;
     private final FileUtil fileUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final ApproximateCountCache bookCountCache = new ApproximateCountCache(Duration.ofMinutes(5).toMillis());
     private static final String SUCCESS = "Success";
 
+    // books without a created_at sort last under "newest"; must match the COALESCE in getBookListByCursor
+    private static final LocalDateTime NO_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     @Value("${file.upload.max-size:52428800}")
     private String maxFileSizeStr;
 
     // ============ BOOK CRUD OPERATIONS ============
-    @Transactional
     public DataResponse<BookResponse> createBook(BookRequest request){
         try {
-            if (headerHolder.getUsername() == null || headerHolder.getUsername().isEmpty()) {
-                throw new UnauthorizedException();
-            }
+            headerHolder.requireAdmin();
 
-            if (headerHolder.getRoles() == null || !Arrays.asList(headerHolder.getRoles()).contains("ADMIN")) {
-                throw new ForbiddenException();
-            }
+            return importEpub(request.getBookFile(), true);
 
-            long maxSizeBytes = fileUtil.parseFileSize(maxFileSizeStr);
-            fileUtil.validateFile(request.getBookFile(), maxSizeBytes);
+        } catch (Exception e) {
+            log.error("Error creating book: {}", e.getMessage(), e);
+            throw new InternalServerErrorException();
+        }
+    }
 
-            String fileExtension = fileUtil.getFileExtension(request.getBookFile().getOriginalFilename());
-            if (!"epub".equalsIgnoreCase(fileExtension)) {
-                throw new IllegalArgumentException("Only EPUB files are supported for auto-metadata extraction");
-            }
+    /**
+     * Create a book from an EPUB, deriving everything from its metadata. When a book with the same slug and
+     * author already exists it is updated in place, or rejected with DataAlreadyExistsException if
+     * updateExisting is false. Does not touch the request-scoped HeaderHolder, so it can run on worker threads.
+     * <p>
+     * Not one transaction: the EPUB, cover and chapter images are uploaded with no transaction open, and the
+     * book row and its relationships are written in short transactions around them. A new book stays inactive
+     * until the last one commits and is removed again if the import fails.
+     */
+    @Override
+    public DataResponse<BookResponse> importEpub(MultipartFile bookFile, boolean updateExisting) throws IOException {
+        long maxSizeBytes = fileUtil.parseFileSize(maxFileSizeStr);
+        fileUtil.validateFile(bookFile, maxSizeBytes);
 
-            log.info("Extracting complete metadata from EPUB file");
+        String fileExtension = fileUtil.getFileExtension(bookFile.getOriginalFilename());
+        if (!"epub".equalsIgnoreCase(fileExtension)) {
+            throw new IllegalArgumentException("Only EPUB files are supported for auto-metadata extraction");
+        }
 
-            CompleteEpubMetadata epubMeta = EpubMetadataExtractor.extractCompleteMetadata(request.getBookFile().getInputStream());
+        log.info("Extracting complete metadata from EPUB file");
 
-            String finalTitle = epubMeta.getTitle();
-            String finalSubtitle = epubMeta.getSubtitle();
-            String finalDescription = epubMeta.getDescription();
-            String finalPublisher = epubMeta.getPublisher();
-            String finalCategory = epubMeta.getCategory();
+        // parsed once here for the metadata and the near-duplicate fingerprint
+        nl.siegmann.epublib.domain.Book epubBook;
+        try (InputStream is = bookFile.getInputStream()) {
+            epubBook = new EpubReader().readEpub(is);
+        }
+        CompleteEpubMetadata epubMeta = EpubMetadataExtractor.extractCompleteMetadata(epubBook);
 
-            // =============== VALIDATION ===============
-            if (finalTitle == null || finalTitle.isEmpty()) {
-                throw new IllegalArgumentException("Title not found in EPUB metadata.");
-            }
+        String finalTitle = epubMeta.getTitle();
+        String finalSubtitle = epubMeta.getSubtitle();
+        String finalDescription = epubMeta.getDescription();
+        String finalPublisher = epubMeta.getPublisher();
+        String finalCategory = epubMeta.getCategory();
 
-            if (finalPublisher == null || finalPublisher.isEmpty()) {
-                throw new IllegalArgumentException("Publisher not found in EPUB metadata.");
-            }
+        // =============== VALIDATION ===============
+        if (finalTitle == null || finalTitle.isEmpty()) {
+            throw new IllegalArgumentException("Title not found in EPUB metadata.");
+        }
 
-            if (epubMeta.getPublicationYear() == null) {
-                throw new IllegalArgumentException("Publication year not found in EPUB metadata.");
-            }
+        if (finalPublisher == null || finalPublisher.isEmpty()) {
+            throw new IllegalArgumentException("Publisher not found in EPUB metadata.");
+        }
 
-            // =============== CHECK FOR EXISTING BOOK WITH SAME SLUG AND AUTHOR ===============
-            String baseSlug = fileUtil.sanitizeFilename(finalTitle);
-            Book existingBook = checkExistingBookWithSameAuthor(baseSlug, epubMeta);
+        if (epubMeta.getPublicationYear() == null) {
+            throw new IllegalArgumentException("Publication year not found in EPUB metadata.");
+        }
 
-            if (existingBook != null) {
-                log.info("Found existing book with same slug '{}' and author(s). Updating instead of creating new.", baseSlug);
-                return updateExistingBook(existingBook, request.getBookFile(), epubMeta);
-            }
+        // =============== CHECK FOR EXISTING BOOK WITH SAME SLUG AND AUTHOR ===============
+        String baseSlug = fileUtil.sanitizeFilename(finalTitle);
+        Book existingBook = checkExistingBookWithSameAuthor(baseSlug, epubMeta);
 
-            // =============== GENERATE UNIQUE SLUG ===============
-            String finalSlug = baseSlug;
-            int duplicateCount = bookMapper.countBySlug(finalSlug);
-            if (duplicateCount > 0) {
-                finalSlug = baseSlug + "-" + System.currentTimeMillis();
-                log.info("Slug '{}' already exists, using unique slug: {}", baseSlug, finalSlug);
+        if (existingBook != null) {
+            if (!updateExisting) {
+                log.info("Found existing book with same slug '{}' and author(s). Skipping.", baseSlug);
+                throw new DataAlreadyExistsException();
             }
 
-            // =============== GET OR CREATE LANGUAGE ===============
-            Language language = languageMapper.findLanguageByName(epubMeta.getLanguage());
-            CopyrightStatus copyrightStatus = copyrightStatusMapper.findByCopyrightStatusCode(epubMeta.getCopyrightStatus());
+            log.info("Found existing book with same slug '{}' and author(s). Updating instead of creating new.", baseSlug);
+            return updateExistingBook(existingBook, bookFile, epubBook, epubMeta);
+        }
 
-            // =============== UPLOAD BOOK FILE ===============
-            FileStorageResult bookResult = fileUtil.saveAndUploadBookFile(request.getBookFile(), finalTitle);
-            BookMetadata metadata = fileUtil.extractBookMetadata(request.getBookFile());
-
-            // =============== CREATE BOOK ENTITY ===============
-            Book book = new Book();
-            book.setTitle(finalTitle);
-            book.setSlug(finalSlug);
-            book.setSubtitle(finalSubtitle);
-            book.setSeriesId(null);
-            book.setSeriesOrder(null);
-            book.setEdition(1);
-            book.setPublicationYear(epubMeta.getPublicationYear());
-            book.setPublisher(finalPublisher);
-            book.setLanguageId(language.getId());
-            book.setDescription(finalDescription);
-            book.setFileUrl(bookResult.getCloudUrl());
-            book.setSource(epubMeta.getSource());
-            book.setFileFormat(metadata.getFileFormat());
-            book.setFileSize(metadata.getFileSize());
-            book.setCopyrightStatusId(copyrightStatus.getId());
-            book.setViewCount(0);
-            book.setReadCount(0);
-            book.setDownloadCount(0);
-            book.setIsActive(true);
-            book.setIsFeatured(false);
-            book.setPublishedAt(epubMeta.getPublishedAt() != null ? epubMeta.getPublishedAt().atStartOfDay() : null);
-            book.setCategory(finalCategory);
-            book.setCreatedAt(epubMeta.getUpdatedAt());
-            book.setUpdatedAt(epubMeta.getUpdatedAt());
+        // =============== NEAR-DUPLICATE CHECK (MinHash + LSH) ===============
+        int[] signature = bookDuplicateService.computeSignature(epubBook);
+        List<SimilarBook> similarBooks = bookDuplicateService.findSimilarBooks(signature, null);
 
-            bookMapper.insertBook(book);
-            log.info("Book created with ID: {} and slug: {}", book.getId(), book.getSlug());
+        if (!similarBooks.isEmpty() && bookDuplicateService.isBlockingDuplicates()) {
+            log.info("Rejected '{}': near-duplicate of book {} (similarity {})", finalTitle, similarBooks.getFirst().getBookId(), similarBooks.getFirst().getSimilarity());
+            throw new DataAlreadyExistsException();
+        }
+
+        // =============== GENERATE UNIQUE SLUG ===============
+        String finalSlug = baseSlug;
+        int duplicateCount = bookMapper.countBySlug(finalSlug);
+        if (duplicateCount > 0) {
+            finalSlug = baseSlug + "-" + System.currentTimeMillis();
+            log.info("Slug '{}' already exists, using unique slug: {}", baseSlug, finalSlug);
+        }
+
+        // =============== GET OR CREATE LANGUAGE ===============
+        Language language = languageMapper.findLanguageByName(epubMeta.getLanguage());
+        CopyrightStatus copyrightStatus = copyrightStatusMapper.findByCopyrightStatusCode(epubMeta.getCopyrightStatus());
+
+        // =============== UPLOAD BOOK FILE ===============
+        FileStorageResult bookResult = fileUtil.saveAndUploadBookFile(bookFile, finalTitle);
+        BookMetadata metadata = fileUtil.extractBookMetadata(bookFile);
+
+        // =============== CREATE BOOK ENTITY ===============
+        Book book = new Book();
+        book.setTitle(finalTitle);
+        book.setSlug(finalSlug);
+        book.setSubtitle(finalSubtitle);
+        book.setSeriesId(null);
+        book.setSeriesOrder(null);
+        book.setEdition(1);
+        book.setPublicationYear(epubMeta.getPublicationYear());
+        book.setPublisher(finalPublisher);
+        book.setLanguageId(language.getId());
+        book.setDescription(finalDescription);
+        book.setFileUrl(bookResult.getCloudUrl());
+        book.setSource(epubMeta.getSource());
+        book.setFileFormat(metadata.getFileFormat());
+        book.setFileSize(metadata.getFileSize());
+        book.setCopyrightStatusId(copyrightStatus.getId());
+        book.setViewCount(0);
+        book.setReadCount(0);
+        book.setDownloadCount(0);
+        book.setIsActive(false); // ✅ activated in the final transaction, once chapters and metadata are in
+        book.setIsFeatured(false);
+        book.setPublishedAt(epubMeta.getPublishedAt() != null ? epubMeta.getPublishedAt().atStartOfDay() : null);
+        book.setCategory(finalCategory);
+        book.setCreatedAt(epubMeta.getUpdatedAt());
+        book.setUpdatedAt(epubMeta.getUpdatedAt());
+
+        bookMapper.insertBook(book);
+        log.info("Book created with ID: {} and slug: {}", book.getId(), book.getSlug());
 
-            EpubProcessResult result = epubService.processEpubFile(request.getBookFile(), book);
+        try {
+            // ✅ chapters are stored as they are parsed and their images uploaded; no transaction is open here,
+            // so a pooled connection is only taken per statement and never held across Cloudinary uploads
+            EpubProcessResult result = epubService.processEpubFile(bookFile, book);
             log.info("EPUB processed: {} chapters, {} words", result.getTotalChapters(), result.getTotalWords());
 
             book.setTotalWord(result.getTotalWords());
             book.setTotalPages(result.getTotalChapters());
             book.setEstimatedReadTime(fileUtil.calculateEstimatedReadTime(result.getTotalWords()));
             book.setCoverImageUrl(result.getCoverImageUrl());
+            applyCoverThumbnails(book, result.getCoverThumbnails());
+            book.setIsActive(true);
 
-            bookMapper.updateBook(book);
+            transactionTemplate.executeWithoutResult(status -> {
+                bookMapper.updateBook(book);
+                genreProcessing(epubMeta, book);
+                authorProcessing(epubMeta, book);
+                contributorProcessing(epubMeta, book);
+                bookDuplicateService.saveSignature(book.getId(), signature, similarBooks);
+            });
+        } catch (IOException | RuntimeException e) {
+            discardFailedImport(book);
+            throw e;
+        }
 
-            genreProcessing(epubMeta, book);
-            authorProcessing(epubMeta, book);
-            contributorProcessing(epubMeta, book);
+        catalogSearchService.refreshBook(book.getId());
+        suggestService.refreshBook(book.getId());
+        searchCacheService.invalidate(SearchCacheRegion.BOOKS);
 
-            // =============== GET COMPLETE BOOK RESPONSE ===============
-            BookResponse data = bookMapper.getBookDetailBySlug(book.getSlug());
+        // =============== GET COMPLETE BOOK RESPONSE ===============
+        BookResponse data = bookMapper.getBookDetailBySlug(book.getSlug());
 
-            log.info("Book successfully created with full automation: {}", finalTitle);
+        log.info("Book successfully created with full automation: {}", finalTitle);
 
-            return new DataResponse<>(SUCCESS, ResponseMessage.DATA_CREATED, 201, data);
+        return new DataResponse<>(SUCCESS, ResponseMessage.DATA_CREATED, 201, data);
+    }
 
-        } catch (Exception e) {
-            log.error("Error creating book: {}", e.getMessage(), e);
-            throw new InternalServerErrorException();
+    private void applyCoverThumbnails(Book book, CoverThumbnails thumbnails) {
+        CoverThumbnails source = thumbnails != null ? thumbnails : new CoverThumbnails();
+        book.setCoverListUrl(source.getListUrl());
+        book.setCoverListWebpUrl(source.getListWebpUrl());
+        book.setCoverCardUrl(source.getCardUrl());
+        book.setCoverCardWebpUrl(source.getCardWebpUrl());
+        book.setCoverDetailUrl(source.getDetailUrl());
+        book.setCoverDetailWebpUrl(source.getDetailWebpUrl());
+    }
+
+    private static List<String> storedFileUrls(Book book) {
+        return Arrays.asList(book.getFileUrl(), book.getCoverImageUrl(),
+                book.getCoverListUrl(), book.getCoverListWebpUrl(),
+                book.getCoverCardUrl(), book.getCoverCardWebpUrl(),
+                book.getCoverDetailUrl(), book.getCoverDetailWebpUrl());
+    }
+
+    /**
+     * Undo the uploads of a failed re-upload: files the book row still points at (overwritten in place) are
+     * kept, the rest are deleted. Chapter images already uploaded are left behind (logged), as on import.
+     */
+    private void discardFailedUpdate(Book book, List<String> uploadedUrls, List<String> currentUrls) {
+        try {
+            for (String uploadedUrl : StorageKeyUtil.staleFiles(uploadedUrls, currentUrls)) {
+                fileUtil.deleteFile(uploadedUrl);
+            }
+            log.warn("Discarded failed update of book ID: {} ({}); uploaded chapter images are left in storage", book.getId(), book.getTitle());
+        } catch (Exception cleanupError) {
+            log.error("Failed to clean up failed update of book ID {}: {}", book.getId(), cleanupError.getMessage(), cleanupError);
+        }
+    }
+
+    /**
+     * Undo a new book whose import failed after its row was inserted: chapters stored so far, the row itself
+     * and the uploaded EPUB. Chapter images already uploaded are left behind (logged).
+     */
+    private void discardFailedImport(Book book) {
+        try {
+            epubService.deleteChaptersByBookId(book.getId());
+            bookMapper.deleteEbook(book.getId());
+            fileUtil.deleteFile(book.getFileUrl());
+            log.warn("Discarded failed import of book ID: {} ({}); uploaded chapter images are left in storage", book.getId(), book.getTitle());
+        } catch (Exception cleanupError) {
+            log.error("Failed to clean up failed import of book ID {}: {}", book.getId(), cleanupError.getMessage(), cleanupError);
         }
     }
 
@@ -229,69 +344,92 @@ public class BookServiceImpl implements BookService {
 
     /**
      * ✅ UPDATE EXISTING BOOK WITH NEW FILE AND METADATA
+     * <p>
+     * Uploads and chapter extraction run outside any transaction; the book row, its chapters and relationships
+     * are then replaced in one short transaction, and the old files are only deleted after that commit. If
+     * anything fails, the stored book and chapters stay as they were and the files uploaded for the update
+     * are removed again, unless they were written over the book's current ones.
      */
-    @Transactional
-    private DataResponse<BookResponse> updateExistingBook(Book existingBook, MultipartFile newFile, CompleteEpubMetadata epubMeta) throws IOException {
+    private DataResponse<BookResponse> updateExistingBook(Book existingBook, MultipartFile newFile,
+                                                          nl.siegmann.epublib.domain.Book epubBook,
+                                                          CompleteEpubMetadata epubMeta) throws IOException {
         log.info("Updating existing book ID: {} - {}", existingBook.getId(), existingBook.getTitle());
 
-        // 1. DELETE OLD FILES
-        if (existingBook.getFileUrl() != null) {
-            fileUtil.deleteFile(existingBook.getFileUrl());
-            log.info("Deleted old book file: {}", existingBook.getFileUrl());
-        }
+        List<String> oldFileUrls = storedFileUrls(existingBook);
 
-        if (existingBook.getCoverImageUrl() != null) {
-            fileUtil.deleteFile(existingBook.getCoverImageUrl());
-            log.info("Deleted old cover image: {}", existingBook.getCoverImageUrl());
-        }
+        // 1. UPLOAD NEW BOOK FILE
+        FileStorageResult bookResult = fileUtil.saveAndUploadBookFile(newFile, existingBook.getTitle());
+        List<String> uploadedUrls = Collections.singletonList(bookResult.getCloudUrl());
 
-        // 2. DELETE OLD RELATIONSHIPS (genres, contributors)
-        bookMapper.deleteBookGenres(existingBook.getId());
-        bookMapper.deleteBookContributors(existingBook.getId());
-        log.info("Deleted old relationships for book ID: {}", existingBook.getId());
+        try {
+            BookMetadata metadata = fileUtil.extractBookMetadata(newFile);
 
-        // 3. UPLOAD NEW BOOK FILE
-        FileStorageResult bookResult = fileUtil.saveAndUploadBookFile(newFile, existingBook.getTitle());
-        BookMetadata metadata = fileUtil.extractBookMetadata(newFile);
+            // 2. GET LANGUAGE AND COPYRIGHT STATUS
+            Language language = languageMapper.findLanguageByName(epubMeta.getLanguage());
+            CopyrightStatus copyrightStatus = copyrightStatusMapper.findByCopyrightStatusCode(epubMeta.getCopyrightStatus());
 
-        // 4. GET LANGUAGE AND COPYRIGHT STATUS
-        Language language = languageMapper.findLanguageByName(epubMeta.getLanguage());
-        CopyrightStatus copyrightStatus = copyrightStatusMapper.findByCopyrightStatusCode(epubMeta.getCopyrightStatus());
+            // 3. UPDATE BOOK ENTITY
+            existingBook.setTitle(epubMeta.getTitle());
+            existingBook.setSubtitle(epubMeta.getSubtitle());
+            existingBook.setPublicationYear(epubMeta.getPublicationYear());
+            existingBook.setPublisher(epubMeta.getPublisher());
+            existingBook.setLanguageId(language.getId());
+            existingBook.setDescription(epubMeta.getDescription());
+            existingBook.setFileUrl(bookResult.getCloudUrl());
+            existingBook.setSource(epubMeta.getSource());
+            existingBook.setFileFormat(metadata.getFileFormat());
+            existingBook.setFileSize(metadata.getFileSize());
+            existingBook.setCopyrightStatusId(copyrightStatus.getId());
+            existingBook.setPublishedAt(epubMeta.getPublishedAt() != null ? epubMeta.getPublishedAt().atStartOfDay() : null);
+            existingBook.setCategory(epubMeta.getCategory());
+            existingBook.setUpdatedAt(epubMeta.getUpdatedAt());
+
+            // 4. PROCESS NEW EPUB FILE (UPDATE MODE): extract and upload now, write the chapters in the transaction
+            EpubUpdatePlan plan = epubService.prepareEpubUpdate(newFile, existingBook);
+            EpubProcessResult result = plan.getResult();
+            log.info("New EPUB processed: {} chapters, {} words", result.getTotalChapters(), result.getTotalWords());
+
+            existingBook.setTotalWord(result.getTotalWords());
+            existingBook.setTotalPages(result.getTotalChapters());
+            existingBook.setEstimatedReadTime(fileUtil.calculateEstimatedReadTime(result.getTotalWords()));
+            existingBook.setCoverImageUrl(result.getCoverImageUrl());
+            applyCoverThumbnails(existingBook, result.getCoverThumbnails());
+            uploadedUrls = storedFileUrls(existingBook);
+
+            int[] signature = bookDuplicateService.computeSignature(epubBook);
+            List<SimilarBook> similarBooks = bookDuplicateService.findSimilarBooks(signature, existingBook.getId());
+
+            // 5. REPLACE BOOK ROW, CHAPTERS, RELATIONSHIPS AND SIGNATURE IN ONE SHORT TRANSACTION
+            transactionTemplate.executeWithoutResult(status -> {
+                bookMapper.deleteBookGenres(existingBook.getId());
+                bookMapper.deleteBookContributors(existingBook.getId());
+
+                bookMapper.updateBook(existingBook);
+                log.info("Updated book entity ID: {}", existingBook.getId());
+                epubService.applyEpubUpdate(plan);
+                // ✅ progress and reading status in the readers' libraries depend on total_pages
+                userLibraryService.refreshBook(existingBook.getId());
+
+                genreProcessing(epubMeta, existingBook);
+                authorProcessing(epubMeta, existingBook);
+                contributorProcessing(epubMeta, existingBook);
+                bookDuplicateService.saveSignature(existingBook.getId(), signature, similarBooks);
+            });
+        } catch (Exception e) {
+            discardFailedUpdate(existingBook, uploadedUrls, oldFileUrls);
+            throw e;
+        }
+
+        // 6. DELETE OLD FILES (kept when the new upload overwrote them in place, whatever its URL version)
+        for (String staleUrl : StorageKeyUtil.staleFiles(oldFileUrls, storedFileUrls(existingBook))) {
+            fileUtil.deleteFile(staleUrl);
+        }
+
+        catalogSearchService.refreshBook(existingBook.getId());
+        suggestService.refreshBook(existingBook.getId());
+        searchCacheService.invalidate(SearchCacheRegion.BOOKS);
 
-        // 5. UPDATE BOOK ENTITY
-        existingBook.setTitle(epubMeta.getTitle());
-        existingBook.setSubtitle(epubMeta.getSubtitle());
-        existingBook.setPublicationYear(epubMeta.getPublicationYear());
-        existingBook.setPublisher(epubMeta.getPublisher());
-        existingBook.setLanguageId(language.getId());
-        existingBook.setDescription(epubMeta.getDescription());
-        existingBook.setFileUrl(bookResult.getCloudUrl());
-        existingBook.setSource(epubMeta.getSource());
-        existingBook.setFileFormat(metadata.getFileFormat());
-        existingBook.setFileSize(metadata.getFileSize());
-        existingBook.setCopyrightStatusId(copyrightStatus.getId());
-        existingBook.setPublishedAt(epubMeta.getPublishedAt() != null ? epubMeta.getPublishedAt().atStartOfDay() : null);
-        existingBook.setCategory(epubMeta.getCategory());
-        existingBook.setUpdatedAt(epubMeta.getUpdatedAt());
-
-        // 6. PROCESS NEW EPUB FILE (UPDATE MODE)
-        EpubProcessResult result = epubService.processEpubFileForUpdate(newFile, existingBook);
-        log.info("New EPUB processed: {} chapters, {} words", result.getTotalChapters(), result.getTotalWords());
-
-        existingBook.setTotalWord(result.getTotalWords());
-        existingBook.setTotalPages(result.getTotalChapters());
-        existingBook.setEstimatedReadTime(fileUtil.calculateEstimatedReadTime(result.getTotalWords()));
-        existingBook.setCoverImageUrl(result.getCoverImageUrl());
-
-        bookMapper.updateBook(existingBook);
-        log.info("Updated book entity ID: {}", existingBook.getId());
-
-        // 7. RE-PROCESS METADATA (genres, authors, contributors)
-        genreProcessing(epubMeta, existingBook);
-        authorProcessing(epubMeta, existingBook);
-        contributorProcessing(epubMeta, existingBook);
-
-        // 8. GET COMPLETE BOOK RESPONSE
+        // 9. GET COMPLETE BOOK RESPONSE
         BookResponse data = bookMapper.getBookDetailBySlug(existingBook.getSlug());
 
         log.info("Book successfully updated: {}", existingBook.getTitle());
@@ -532,13 +670,16 @@ public class BookServiceImpl implements BookService {
             log.info("Fetching books with criteria: {}", criteria);
             log.info("Sort by: {} {}, Page: {}, Limit: {}", sortColumn, sortType, page, limit);
 
-            List<BookResponse> pageResult = bookMapper.getBookListWithAdvancedFilters(criteria, offset, limit, sortColumn, sortType);
-
-            int totalCount = bookMapper.countBooksWithAdvancedFilters(criteria);
+            normalizeSearchText(criteria);
+            String cacheKey = SearchResultCache.key("page", criteria, page, limit, sortColumn, sortType);
 
-            log.info("Found {} books, returning page {} with {} items", totalCount, page, pageResult.size());
-
-            PageDataResponse<BookResponse> data = new PageDataResponse<>(page, limit, totalCount, pageResult);
+            // ✅ identical listings/searches within the TTL are served without re-running the query and count
+            PageDataResponse<BookResponse> data = searchCacheService.get(SearchCacheRegion.BOOKS, cacheKey, () -> {
+                List<BookResponse> pageResult = bookMapper.getBookListWithAdvancedFilters(criteria, offset, limit, sortColumn, sortType);
+                int totalCount = bookMapper.countBooksWithAdvancedFilters(criteria);
+                log.info("Found {} books, returning page {} with {} items", totalCount, page, pageResult.size());
+                return new PageDataResponse<>(page, limit, totalCount, pageResult);
+            });
 
             return new DatatableResponse<>(SUCCESS, ResponseMessage.DATA_FETCHED, HttpStatus.OK.value(), data);
 
@@ -548,6 +689,94 @@ public class BookServiceImpl implements BookService {
         }
     }
 
+    /**
+     * ✅ Keyset pagination: each page starts strictly after the (sort key, id) of the previous page's last row,
+     * so page 500 costs the same as page 1. The total is optional and served from a short-lived cache.
+     */
+    @Override
+    public DataResponse<CursorPageResponse<BookResponse>> getBooksByCursor(String sort, String cursor, int limit, boolean includeTotal, BookSearchCriteria criteria) {
+        if (limit < 1 || limit > 100) {
+            throw new InvalidDataException();
+        }
+
+        String sortKey = switch (sort == null ? "" : sort.toLowerCase()) {
+            case "popular" -> "popular";
+            case "rating" -> "rating";
+            case "title" -> "title";
+            default -> "newest";
+        };
+
+        normalizeSearchText(criteria);
+        String cacheKey = SearchResultCache.key("cursor", criteria, sortKey, cursor, limit, includeTotal);
+        CursorPageResponse<BookResponse> data = searchCacheService.get(SearchCacheRegion.BOOKS, cacheKey,
+                () -> loadBooksByCursor(sortKey, cursor, limit, includeTotal, criteria));
+
+        return new DataResponse<>(SUCCESS, ResponseMessage.DATA_FETCHED, HttpStatus.OK.value(), data);
+    }
+
+    private CursorPageResponse<BookResponse> loadBooksByCursor(String sortKey, String cursor, int limit, boolean includeTotal, BookSearchCriteria criteria) {
+        LocalDateTime cursorTime = null;
+        Double cursorNumber = null;
+        String cursorText = null;
+        Long cursorId = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            List<String> parts = CursorUtil.decode(cursor, 3);
+            if (!sortKey.equals(parts.get(0))) {
+                throw new InvalidDataException();
+            }
+            try {
+                switch (sortKey) {
+                    case "popular", "rating" -> cursorNumber = Double.valueOf(parts.get(1));
+                    case "title" -> cursorText = parts.get(1);
+                    default -> cursorTime = LocalDateTime.parse(parts.get(1));
+                }
+                cursorId = Long.valueOf(parts.get(2));
+            } catch (RuntimeException e) {
+                throw new InvalidDataException();
+            }
+        }
+
+        // one extra row tells us whether there is a next page
+        List<BookResponse> rows = bookMapper.getBookListByCursor(criteria, sortKey, cursorTime, cursorNumber, cursorText, cursorId, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<BookResponse> pageRows = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            BookResponse last = pageRows.getLast();
+            Object key = switch (sortKey) {
+                case "popular" -> last.getViewCount() != null ? last.getViewCount().doubleValue() : 0.0;
+                case "rating" -> last.getAverageRating() != null ? last.getAverageRating() : 0.0;
+                case "title" -> last.getTitle();
+                default -> last.getCreatedAt() != null ? last.getCreatedAt() : NO_CREATED_AT;
+            };
+            nextCursor = CursorUtil.encode(sortKey, key, last.getId());
+        }
+
+        Integer approximateTotal = includeTotal
+                ? bookCountCache.get(String.valueOf(criteria), () -> bookMapper.countBooksWithAdvancedFilters(criteria))
+                : null;
+
+        return new CursorPageResponse<>(limit, nextCursor, hasMore, approximateTotal, pageRows);
+    }
+
+    /**
+     * The free-text filters are matched case-insensitively, so lowercase and trim them up front; equal
+     * searches then share one result-cache entry.
+     */
+    private void normalizeSearchText(BookSearchCriteria criteria) {
+        if (criteria == null) {
+            return;
+        }
+        criteria.setSearchTitle(SearchResultCache.normalize(criteria.getSearchTitle()));
+        criteria.setCanonicalSearchTitle(criteria.getSearchTitle() != null
+                ? IndonesianTextNormalizer.canonicalize(criteria.getSearchTitle()) : null);
+        criteria.setSearchInBook(SearchResultCache.normalize(criteria.getSearchInBook()));
+        criteria.setAuthorName(SearchResultCache.normalize(criteria.getAuthorName()));
+        criteria.setContributor(SearchResultCache.normalize(criteria.getContributor()));
+    }
+
     @Override
     public DataResponse<Book> update(Long id, Book book, MultipartFile file) throws IOException {
         try {
@@ -571,6 +800,9 @@ public class BookServiceImpl implements BookService {
             }
 
             bookMapper.updateBook(book);
+            catalogSearchService.refreshBook(id);
+            suggestService.refreshBook(id);
+            searchCacheService.invalidate(SearchCacheRegion.BOOKS);
             Book data = bookMapper.getDetailEbook(id);
             if (data != null) {
                 return new DataResponse<>(SUCCESS, ResponseMessage.DATA_UPDATED, HttpStatus.OK.value(), data);
@@ -585,6 +817,7 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    @Transactional
     public DefaultResponse delete(Long id) throws IOException {
         try {
             Book ebook = bookMapper.getDetailEbook(id);
@@ -593,7 +826,12 @@ public class BookServiceImpl implements BookService {
                 if (Files.exists(filePath)) {
                     Files.delete(filePath);
                 }
+                userLibraryService.removeBook(id);
                 bookMapper.deleteEbook(id);
+                TransactionUtil.afterCommit(() -> bookSearchIndexService.invalidate(id));
+                catalogSearchService.removeBook(id);
+                suggestService.removeBook(id);
+                searchCacheService.invalidate(SearchCacheRegion.BOOKS);
                 return new DefaultResponse(SUCCESS, ResponseMessage.DATA_DELETED, HttpStatus.OK.value());
             } else {
                 throw new DataNotFoundException();
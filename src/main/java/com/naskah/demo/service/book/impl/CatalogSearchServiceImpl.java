@@ -0,0 +1,427 @@
+package com.naskah.demo.service.book.impl;
+
+import com.naskah.demo.mapper.BookMapper;
+import com.naskah.demo.mapper.CatalogSearchMapper;
+import com.naskah.demo.exception.custom.DataConflictException;
+import com.naskah.demo.exception.custom.ServiceUnavailableException;
+import com.naskah.demo.model.dto.BookFacetRow;
+import com.naskah.demo.model.dto.CatalogSearchHit;
+import com.naskah.demo.model.dto.CatalogSearchMatches;
+import com.naskah.demo.model.dto.CatalogSearchSource;
+import com.naskah.demo.model.dto.response.BookResponse;
+import com.naskah.demo.model.dto.response.CatalogSearchResponse;
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.model.dto.response.FacetCountResponse;
+import com.naskah.demo.model.enums.SearchCacheRegion;
+import com.naskah.demo.service.SearchCacheService;
+import com.naskah.demo.service.book.CatalogSearchService;
+import com.naskah.demo.util.SearchResultCache;
+import com.naskah.demo.util.TransactionUtil;
+import com.naskah.demo.util.interceptor.HeaderHolder;
+import com.naskah.demo.util.search.FacetBitmaps;
+import com.naskah.demo.util.search.IndonesianTextNormalizer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catalogue search: text matching and ranking in PostgreSQL (weighted tsvector + trigram), facet
+ * filtering and counting in memory over per-value bitmaps that are refreshed on every book write.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogSearchServiceImpl implements CatalogSearchService {
+    private final CatalogSearchMapper catalogSearchMapper;
+    private final BookMapper bookMapper;
+    private final SearchCacheService searchCacheService;
+    private final HeaderHolder headerHolder;
+    private static final String SUCCESS = "Success";
+
+    private static final String GENRE = "genre";
+    private static final String LANGUAGE = "language";
+    private static final String COPYRIGHT_STATUS = "copyrightStatus";
+
+    @Value("${book.catalog-search.max-hits:5000}")
+    private int maxHits;
+
+    @Value("${book.catalog-search.fuzzy-min-similarity:0.3}")
+    private double fuzzyMinSimilarity;
+
+    @Value("${book.catalog-search.reindex-batch-size:500}")
+    private int reindexBatchSize;
+
+    private final ExecutorService reindexRunner = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean reindexRunning = new AtomicBoolean(false);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile FacetBitmaps bitmaps;
+    private volatile Map<Long, FacetCountResponse> genreLabels = Collections.emptyMap();
+    private volatile Map<Long, FacetCountResponse> languageLabels = Collections.emptyMap();
+    private volatile Map<Long, FacetCountResponse> copyrightStatusLabels = Collections.emptyMap();
+
+    @Override
+    public DataResponse<CatalogSearchResponse> searchCatalog(String query, String genre, Integer languageId, String copyrightStatus, int page, int limit) {
+        ensureLoaded();
+
+        String normalizedQuery = query != null ? SearchResultCache.normalize(query) : "";
+
+        // ranking runs once per distinct query; filters, facets and paging work off the cached matches
+        CatalogSearchMatches matches = searchCacheService.get(SearchCacheRegion.BOOKS, SearchResultCache.key("catalog", normalizedQuery),
+                () -> findMatches(normalizedQuery));
+        List<CatalogSearchHit> hits = matches.getHits();
+
+        CatalogSearchResponse response = new CatalogSearchResponse();
+        BitSet filtered;
+
+        lock.readLock().lock();
+        try {
+            // facets and totals cover every match, not just the ranked hits
+            BitSet matched = bitmaps.active();
+            if (matches.getMatchedIds() != null) {
+                matched.and(matches.getMatchedIds());
+            }
+
+            BitSet genreFilter = filterBitmap(GENRE, findIdByCode(genreLabels, genre), genre != null);
+            BitSet languageFilter = filterBitmap(LANGUAGE, languageId != null ? languageId.longValue() : null, languageId != null);
+            BitSet copyrightFilter = filterBitmap(COPYRIGHT_STATUS, findIdByCode(copyrightStatusLabels, copyrightStatus), copyrightStatus != null);
+
+            // each facet is counted with the other facets' filters applied, but not its own
+            response.setGenres(toFacetCounts(bitmaps.counts(GENRE, intersect(matched, languageFilter, copyrightFilter)), genreLabels));
+            response.setLanguages(toFacetCounts(bitmaps.counts(LANGUAGE, intersect(matched, genreFilter, copyrightFilter)), languageLabels));
+            response.setCopyrightStatuses(toFacetCounts(bitmaps.counts(COPYRIGHT_STATUS, intersect(matched, genreFilter, languageFilter)), copyrightStatusLabels));
+
+            filtered = intersect(matched, genreFilter, languageFilter, copyrightFilter);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int offset = (page - 1) * limit;
+        List<Long> orderedIds = orderFiltered(hits, filtered, offset + limit);
+        List<Long> pageIds = orderedIds.subList(Math.min(offset, orderedIds.size()), Math.min(offset + limit, orderedIds.size()));
+
+        List<BookResponse> books = new ArrayList<>();
+        if (!pageIds.isEmpty()) {
+            Map<Long, BookResponse> byId = bookMapper.getBookListByIds(pageIds).stream()
+                    .collect(Collectors.toMap(BookResponse::getId, Function.identity()));
+            for (Long id : pageIds) {
+                BookResponse book = byId.get(id);
+                if (book != null) {
+                    books.add(book);
+                }
+            }
+        }
+
+        int total = filtered.cardinality();
+        response.setQuery(normalizedQuery);
+        response.setPage(page);
+        response.setLimit(limit);
+        response.setTotal(total);
+        response.setList(books);
+
+        log.info("Catalogue search '{}': {} ranked hits, {} after filters", normalizedQuery, hits.size(), total);
+
+        return new DataResponse<>(SUCCESS, "Catalogue search completed", HttpStatus.OK.value(), response);
+    }
+
+    /**
+     * Re-index one book after it was created or edited: search document in the database, part of the caller's
+     * transaction, and facet bitmaps in memory once that transaction has committed
+     */
+    @Override
+    public void refreshBook(Long bookId) {
+        for (CatalogSearchSource source : catalogSearchMapper.findSearchSources(bookId)) {
+            refreshSearchDocument(source);
+        }
+
+        TransactionUtil.afterCommit(() -> refreshBitmaps(bookId));
+    }
+
+    @Override
+    public void removeBook(Long bookId) {
+        TransactionUtil.afterCommit(() -> {
+            if (bitmaps == null) {
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                bitmaps.removeBook(bookId.intValue());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void refreshBitmaps(Long bookId) {
+        if (bitmaps == null) {
+            return; // not loaded yet, the first search loads everything
+        }
+
+        List<BookFacetRow> rows = catalogSearchMapper.findFacetRows(bookId);
+        boolean unknownLabel = false;
+
+        lock.writeLock().lock();
+        try {
+            bitmaps.removeBook(bookId.intValue());
+            for (BookFacetRow row : rows) {
+                addRow(bitmaps, row);
+                unknownLabel |= row.getGenreId() != null && !genreLabels.containsKey(row.getGenreId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // genres can be created during EPUB import
+        if (unknownLabel) {
+            loadLabels();
+        }
+    }
+
+    /**
+     * Rebuild every book's search document, e.g. after the normalisation rules changed. Runs in the
+     * background in id-ordered batches; one reindex at a time.
+     */
+    @Override
+    public DataResponse<Void> reindexAll() {
+        headerHolder.requireAdmin();
+
+        if (!reindexRunning.compareAndSet(false, true)) {
+            throw new DataConflictException();
+        }
+
+        try {
+            reindexRunner.submit(this::runReindex);
+        } catch (RejectedExecutionException e) {
+            reindexRunning.set(false);
+            throw new ServiceUnavailableException();
+        }
+
+        return new DataResponse<>(SUCCESS, "Catalogue search reindex started", HttpStatus.ACCEPTED.value(), null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reindexRunner.shutdownNow();
+    }
+
+    private void runReindex() {
+        long start = System.currentTimeMillis();
+        long afterBookId = 0;
+        int books = 0;
+        int failed = 0;
+
+        try {
+            List<CatalogSearchSource> batch = catalogSearchMapper.findSearchSourcesAfter(afterBookId, reindexBatchSize);
+            while (!batch.isEmpty() && !Thread.currentThread().isInterrupted()) {
+                for (CatalogSearchSource source : batch) {
+                    try {
+                        refreshSearchDocument(source);
+                        books++;
+                    } catch (Exception e) {
+                        failed++;
+                        log.error("Failed to reindex catalogue search document of book {}: {}", source.getBookId(), e.getMessage(), e);
+                    }
+                }
+
+                afterBookId = batch.getLast().getBookId();
+                log.info("Catalogue search reindex: {} books done, up to book {}", books, afterBookId);
+                batch = catalogSearchMapper.findSearchSourcesAfter(afterBookId, reindexBatchSize);
+            }
+
+            log.info("Catalogue search reindex finished: {} books, {} failed, {} ms", books, failed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Catalogue search reindex stopped after book {}: {}", afterBookId, e.getMessage(), e);
+        } finally {
+            searchCacheService.invalidate(SearchCacheRegion.BOOKS);
+            reindexRunning.set(false);
+        }
+    }
+
+    /**
+     * Ranked hits plus the full set of matching ids. Full text on either spelling plus trigram similarity;
+     * when that finds nothing at all, fall back to similarity-only ranking so a misspelled query still
+     * returns its closest books. The id query only runs when the ranked list was cut off at max-hits,
+     * otherwise the hits already are every match.
+     */
+    private CatalogSearchMatches findMatches(String query) {
+        if (query.isEmpty()) {
+            return new CatalogSearchMatches(catalogSearchMapper.findLatestBooks(maxHits), null);
+        }
+
+        String canonicalQuery = IndonesianTextNormalizer.canonicalize(query);
+        List<CatalogSearchHit> hits = catalogSearchMapper.searchBooks(query, canonicalQuery, maxHits);
+        boolean fuzzy = false;
+
+        if (hits.isEmpty() && !canonicalQuery.isEmpty()) {
+            hits = catalogSearchMapper.searchBooksFuzzy(canonicalQuery, fuzzyMinSimilarity, maxHits);
+            fuzzy = true;
+            log.info("Catalogue search '{}' had no direct match, fuzzy fallback found {}", query, hits.size());
+        }
+
+        BitSet matchedIds = new BitSet();
+        if (hits.size() < maxHits) {
+            for (CatalogSearchHit hit : hits) {
+                matchedIds.set(hit.getBookId().intValue());
+            }
+        } else {
+            List<Long> ids = fuzzy
+                    ? catalogSearchMapper.findFuzzyMatchingBookIds(canonicalQuery, fuzzyMinSimilarity)
+                    : catalogSearchMapper.findMatchingBookIds(query, canonicalQuery);
+            for (Long id : ids) {
+                matchedIds.set(id.intValue());
+            }
+        }
+        return new CatalogSearchMatches(hits, matchedIds);
+    }
+
+    /**
+     * The first {@code needed} filtered books: ranked hits first, then (for pages past the ranked list)
+     * the remaining matches newest id first
+     */
+    private List<Long> orderFiltered(List<CatalogSearchHit> hits, BitSet filtered, int needed) {
+        List<Long> orderedIds = new ArrayList<>();
+        BitSet rest = (BitSet) filtered.clone();
+        for (CatalogSearchHit hit : hits) {
+            if (orderedIds.size() >= needed) {
+                return orderedIds;
+            }
+            int bookId = hit.getBookId().intValue();
+            if (rest.get(bookId)) {
+                orderedIds.add(hit.getBookId());
+                rest.clear(bookId);
+            }
+        }
+
+        for (int id = rest.length() - 1; id >= 0 && orderedIds.size() < needed; id = rest.previousSetBit(id - 1)) {
+            orderedIds.add((long) id);
+        }
+        return orderedIds;
+    }
+
+    private void refreshSearchDocument(CatalogSearchSource source) {
+        String canonicalText = IndonesianTextNormalizer.canonicalize(
+                String.join(" ", Objects.toString(source.getTitle(), ""), Objects.toString(source.getSubtitle(), ""),
+                        Objects.toString(source.getAuthorNames(), "")));
+        catalogSearchMapper.refreshSearchDocument(source.getBookId(), canonicalText);
+    }
+
+    private void ensureLoaded() {
+        if (bitmaps != null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (bitmaps != null) {
+                return;
+            }
+
+            FacetBitmaps loaded = new FacetBitmaps();
+            List<BookFacetRow> rows = catalogSearchMapper.findFacetRows(null);
+            for (BookFacetRow row : rows) {
+                addRow(loaded, row);
+            }
+            loadLabels();
+            bitmaps = loaded;
+
+            log.info("Loaded catalogue facet bitmaps from {} rows", rows.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void loadLabels() {
+        Map<Long, FacetCountResponse> genres = toLabelMap(catalogSearchMapper.findGenreLabels());
+        Map<Long, FacetCountResponse> languages = toLabelMap(catalogSearchMapper.findLanguageLabels());
+        Map<Long, FacetCountResponse> copyrightStatuses = toLabelMap(catalogSearchMapper.findCopyrightStatusLabels());
+
+        lock.writeLock().lock();
+        try {
+            genreLabels = genres;
+            languageLabels = languages;
+            copyrightStatusLabels = copyrightStatuses;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addRow(FacetBitmaps target, BookFacetRow row) {
+        int bookId = row.getBookId().intValue();
+        target.setActive(bookId, Boolean.TRUE.equals(row.getIsActive()));
+        target.add(GENRE, row.getGenreId(), bookId);
+        target.add(LANGUAGE, row.getLanguageId(), bookId);
+        target.add(COPYRIGHT_STATUS, row.getCopyrightStatusId(), bookId);
+    }
+
+    /**
+     * Bitmap for a requested filter value, null when the filter isn't set. An unknown value matches nothing.
+     */
+    private BitSet filterBitmap(String facet, Long valueId, boolean requested) {
+        if (!requested) {
+            return null;
+        }
+        return valueId != null ? bitmaps.valueBitmap(facet, valueId) : new BitSet();
+    }
+
+    private BitSet intersect(BitSet base, BitSet... filters) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private Long findIdByCode(Map<Long, FacetCountResponse> labels, String code) {
+        if (code == null) {
+            return null;
+        }
+        for (FacetCountResponse label : labels.values()) {
+            if (code.equalsIgnoreCase(label.getCode())) {
+                return label.getId();
+            }
+        }
+        return null;
+    }
+
+    private List<FacetCountResponse> toFacetCounts(Map<Long, Integer> counts, Map<Long, FacetCountResponse> labels) {
+        List<FacetCountResponse> facets = new ArrayList<>(counts.size());
+        for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+            FacetCountResponse label = labels.get(entry.getKey());
+
+            FacetCountResponse facet = new FacetCountResponse();
+            facet.setId(entry.getKey());
+            facet.setCode(label != null ? label.getCode() : null);
+            facet.setName(label != null ? label.getName() : null);
+            facet.setCount(entry.getValue());
+            facets.add(facet);
+        }
+
+        facets.sort(Comparator.comparing(FacetCountResponse::getCount).reversed()
+                .thenComparing(f -> f.getName() != null ? f.getName() : ""));
+        return facets;
+    }
+
+    private Map<Long, FacetCountResponse> toLabelMap(List<FacetCountResponse> labels) {
+        Map<Long, FacetCountResponse> map = new HashMap<>();
+        for (FacetCountResponse label : labels) {
+            map.put(label.getId(), label);
+        }
+        return map;
+    }
+}
@@ -2,11 +2,17 @@ package com.naskah.demo.service.book.impl;
 
 import com.naskah.demo.exception.custom.DataNotFoundException;
 import com.naskah.demo.model.dto.ChapterHierarchy;
+import com.naskah.demo.model.dto.CoverThumbnails;
 import com.naskah.demo.model.dto.EpubProcessResult;
+import com.naskah.demo.model.dto.EpubUpdatePlan;
 import com.naskah.demo.model.entity.Book;
 import com.naskah.demo.model.entity.BookChapter;
 import com.naskah.demo.mapper.BookChapterMapper;
+import com.naskah.demo.service.book.BookSearchIndexService;
 import com.naskah.demo.service.book.EpubService;
+import com.naskah.demo.util.HashUtil;
+import com.naskah.demo.util.TransactionUtil;
+import com.naskah.demo.util.file.CoverThumbnailGenerator;
 import com.naskah.demo.util.file.FileUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +26,7 @@ import org.jsoup.select.Elements;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -27,7 +34,6 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -35,6 +41,7 @@ import java.util.stream.Collectors;
 public class EpubServiceImpl implements EpubService {
     private final BookChapterMapper chapterMapper;
     private final FileUtil fileUtil;
+    private final BookSearchIndexService searchIndexService;
 
     @Override
     public EpubProcessResult processEpubFile(MultipartFile epubFile, Book book) throws IOException {
@@ -66,6 +73,7 @@ public class EpubServiceImpl implements EpubService {
             if (coverResource != null) {
                 String coverUrl = extractAndUploadCover(coverResource, book.getId(), book.getTitle());
                 result.setCoverImageUrl(coverUrl);
+                result.setCoverThumbnails(generateAndUploadCoverThumbnails(coverResource, book.getId()));
             }
 
             // 5. Generate preview
@@ -117,139 +125,15 @@ public class EpubServiceImpl implements EpubService {
                     continue;
                 }
 
-                // Parse HTML
+                // Parse HTML and fingerprint the section before image URLs are rewritten
                 String htmlContent = new String(resource.getData(), StandardCharsets.UTF_8);
                 Document doc = Jsoup.parse(htmlContent);
+                ChapterSection section = extractChapterSection(doc, orderedToc, i, fileName, anchorId);
+                String contentHash = computeChapterFingerprint(hierarchy, section);
 
                 // ✅ OPTIMIZED: Process images with caching
-                Elements imgElements = doc.select("img");
-                for (Element img : imgElements) {
-                    String imgSrc = img.attr("src");
-                    if (!imgSrc.isEmpty()) {
-                        try {
-                            String cloudinaryUrl = extractAndUploadChapterImageOptimized(epubBook, imgSrc, bookId, imageCache);
-                            if (cloudinaryUrl != null) {
-                                img.attr("src", cloudinaryUrl);
-                            }
-                        } catch (Exception e) {
-                            log.warn("Failed to upload image {}: {}", imgSrc, e.getMessage());
-                        }
-                    }
-                }
-
-                String content;
-                String htmlContentStr;
-
-                // Extract content based on anchor
-                if (anchorId != null) {
-                    // This is a subchapter with anchor
-                    String nextAnchorInSameFile = null;
-                    for (int j = i + 1; j < orderedToc.size(); j++) {
-                        ChapterHierarchy next = orderedToc.get(j);
-                        if (next.getHref().startsWith(fileName + "#")) {
-                            nextAnchorInSameFile = next.getHref().split("#")[1];
-                            break;
-                        } else if (!next.getHref().startsWith(fileName)) {
-                            break;
-                        }
-                    }
-
-                    Element startElement = doc.getElementById(anchorId);
-                    if (startElement != null) {
-                        StringBuilder sb = new StringBuilder();
-                        StringBuilder htmlSb = new StringBuilder();
-
-                        Element current = startElement;
-                        boolean started = false;
-
-                        while (current != null) {
-                            if (!started && current.id().equals(anchorId)) {
-                                started = true;
-                            }
-
-                            if (started) {
-                                if (!current.id().isEmpty() && !current.id().equals(anchorId) && current.id().equals(nextAnchorInSameFile)) {
-                                    log.debug("Stopping at next anchor: {}", nextAnchorInSameFile);
-                                    break;
-                                }
-
-                                sb.append(current.text()).append("\n");
-                                htmlSb.append(current.outerHtml());
-                            }
-
-                            current = current.nextElementSibling();
-                        }
-
-                        content = sb.toString().trim();
-                        htmlContentStr = htmlSb.toString();
-                    } else {
-                        log.warn("Anchor not found: {}", anchorId);
-                        content = doc.body().text().trim();
-                        htmlContentStr = doc.body().html();
-                    }
-                } else {
-                    // No anchor - parent chapter
-                    String firstSubAnchor = null;
-                    for (int j = i + 1; j < orderedToc.size(); j++) {
-                        ChapterHierarchy next = orderedToc.get(j);
-                        if (next.getHref().startsWith(fileName + "#")) {
-                            firstSubAnchor = next.getHref().split("#")[1];
-                            log.debug("Found sub-chapter anchor in same file: {}", firstSubAnchor);
-                            break;
-                        } else if (!next.getHref().startsWith(fileName)) {
-                            break;
-                        }
-                    }
-
-                    if (firstSubAnchor != null) {
-                        Element stopElement = doc.getElementById(firstSubAnchor);
-
-                        if (stopElement != null) {
-                            Element sectionElement = doc.select("section.chapter").first();
-
-                            if (sectionElement != null) {
-                                StringBuilder sb = new StringBuilder();
-                                StringBuilder htmlSb = new StringBuilder();
-
-                                htmlSb.append("<section class=\"chapter\" epub:type=\"chapter\">\n");
-
-                                for (Element child : sectionElement.children()) {
-                                    if (child.id().equals(firstSubAnchor)) {
-                                        log.debug("Stopped before sub-chapter anchor: {}", firstSubAnchor);
-                                        break;
-                                    }
-
-                                    if (child.getElementById(firstSubAnchor) != null) {
-                                        log.debug("Found anchor inside child, stopping here");
-                                        break;
-                                    }
-
-                                    sb.append(child.text()).append("\n");
-                                    htmlSb.append(child.outerHtml()).append("\n");
-                                }
-
-                                htmlSb.append("</section>");
-
-                                content = sb.toString().trim();
-                                htmlContentStr = htmlSb.toString();
-
-                                log.info("Extracted parent chapter content, stopped before: {}", firstSubAnchor);
-                            } else {
-                                content = doc.body().text().trim();
-                                htmlContentStr = doc.body().html();
-                            }
-                        } else {
-                            log.warn("Sub-chapter anchor element not found: {}", firstSubAnchor);
-                            content = doc.body().text().trim();
-                            htmlContentStr = doc.body().html();
-                        }
-                    } else {
-                        // No sub-chapters - use entire document
-                        content = doc.body().text().trim();
-                        htmlContentStr = doc.body().html();
-                    }
-                }
-
+                String content = section.content();
+                String htmlContentStr = rewriteSectionImages(section, epubBook, bookId, imageCache);
                 int wordCount = fileUtil.countWords(content);
 
                 // Find parent chapter ID
@@ -272,6 +156,7 @@ public class EpubServiceImpl implements EpubService {
                 chapter.setWordCount(wordCount);
                 chapter.setParentChapterId(parentChapterId);
                 chapter.setChapterLevel(hierarchy.getLevel());
+                chapter.setContentHash(contentHash);
                 chapter.setCreatedAt(LocalDateTime.now());
                 chapter.setUpdatedAt(LocalDateTime.now());
 
@@ -291,6 +176,151 @@ public class EpubServiceImpl implements EpubService {
         return chapters;
     }
 
+    /**
+     * Rewrite every <img> in the document to its uploaded Cloudinary URL, reusing cached uploads
+     */
+    private void rewriteChapterImages(Document doc, nl.siegmann.epublib.domain.Book epubBook, Long bookId, Map<String, String> imageCache) {
+        Elements imgElements = doc.select("img");
+        for (Element img : imgElements) {
+            String imgSrc = img.attr("src");
+            if (!imgSrc.isEmpty()) {
+                try {
+                    String cloudinaryUrl = extractAndUploadChapterImageOptimized(epubBook, imgSrc, bookId, imageCache);
+                    if (cloudinaryUrl != null) {
+                        img.attr("src", cloudinaryUrl);
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to upload image {}: {}", imgSrc, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * HTML of an extracted section with its images rewritten to their uploaded URLs; only the section's own
+     * images are uploaded, not every image of the file it came from
+     */
+    private String rewriteSectionImages(ChapterSection section, nl.siegmann.epublib.domain.Book epubBook, Long bookId, Map<String, String> imageCache) {
+        Document fragment = Jsoup.parseBodyFragment(section.html());
+        rewriteChapterImages(fragment, epubBook, bookId, imageCache);
+        return fragment.body().html();
+    }
+
+    /**
+     * Extract plain text and HTML of the TOC entry at the given index, stopping at the next anchor in the same file
+     */
+    private ChapterSection extractChapterSection(Document doc, List<ChapterHierarchy> orderedToc, int index, String fileName, String anchorId) {
+        if (anchorId != null) {
+            // This is a subchapter with anchor
+            String nextAnchorInSameFile = null;
+            for (int j = index + 1; j < orderedToc.size(); j++) {
+                ChapterHierarchy next = orderedToc.get(j);
+                if (next.getHref().startsWith(fileName + "#")) {
+                    nextAnchorInSameFile = next.getHref().split("#")[1];
+                    break;
+                } else if (!next.getHref().startsWith(fileName)) {
+                    break;
+                }
+            }
+
+            Element startElement = doc.getElementById(anchorId);
+            if (startElement == null) {
+                log.warn("Anchor not found: {}", anchorId);
+                return new ChapterSection(doc.body().text().trim(), doc.body().html());
+            }
+
+            StringBuilder sb = new StringBuilder();
+            StringBuilder htmlSb = new StringBuilder();
+            Element current = startElement;
+            boolean started = false;
+
+            while (current != null) {
+                if (!started && current.id().equals(anchorId)) {
+                    started = true;
+                }
+
+                if (started) {
+                    if (!current.id().isEmpty() && !current.id().equals(anchorId) && current.id().equals(nextAnchorInSameFile)) {
+                        log.debug("Stopping at next anchor: {}", nextAnchorInSameFile);
+                        break;
+                    }
+
+                    sb.append(current.text()).append("\n");
+                    htmlSb.append(current.outerHtml());
+                }
+
+                current = current.nextElementSibling();
+            }
+
+            return new ChapterSection(sb.toString().trim(), htmlSb.toString());
+        }
+
+        // No anchor - parent chapter
+        String firstSubAnchor = null;
+        for (int j = index + 1; j < orderedToc.size(); j++) {
+            ChapterHierarchy next = orderedToc.get(j);
+            if (next.getHref().startsWith(fileName + "#")) {
+                firstSubAnchor = next.getHref().split("#")[1];
+                log.debug("Found sub-chapter anchor in same file: {}", firstSubAnchor);
+                break;
+            } else if (!next.getHref().startsWith(fileName)) {
+                break;
+            }
+        }
+
+        if (firstSubAnchor == null) {
+            // No sub-chapters - use entire document
+            return new ChapterSection(doc.body().text().trim(), doc.body().html());
+        }
+
+        if (doc.getElementById(firstSubAnchor) == null) {
+            log.warn("Sub-chapter anchor element not found: {}", firstSubAnchor);
+            return new ChapterSection(doc.body().text().trim(), doc.body().html());
+        }
+
+        Element sectionElement = doc.select("section.chapter").first();
+        if (sectionElement == null) {
+            return new ChapterSection(doc.body().text().trim(), doc.body().html());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        StringBuilder htmlSb = new StringBuilder();
+        htmlSb.append("<section class=\"chapter\" epub:type=\"chapter\">\n");
+
+        for (Element child : sectionElement.children()) {
+            if (child.id().equals(firstSubAnchor)) {
+                log.debug("Stopped before sub-chapter anchor: {}", firstSubAnchor);
+                break;
+            }
+
+            if (child.getElementById(firstSubAnchor) != null) {
+                log.debug("Found anchor inside child, stopping here");
+                break;
+            }
+
+            sb.append(child.text()).append("\n");
+            htmlSb.append(child.outerHtml()).append("\n");
+        }
+
+        htmlSb.append("</section>");
+        return new ChapterSection(sb.toString().trim(), htmlSb.toString());
+    }
+
+    /**
+     * Content fingerprint of a chapter as it appears in the EPUB (original image paths, not uploaded URLs),
+     * so an unchanged chapter hashes identically across re-uploads
+     */
+    private String computeChapterFingerprint(ChapterHierarchy hierarchy, ChapterSection section) {
+        return HashUtil.generateSHA256(hierarchy.getTitle() + "\u0000" + hierarchy.getLevel() + "\u0000" + section.html());
+    }
+
+    private record ChapterSection(String content, String html) {
+    }
+
+    /** A TOC entry of a re-uploaded EPUB, extracted and fingerprinted before any chapter is written */
+    private record TocSection(int chapterNumber, ChapterHierarchy hierarchy, ChapterSection section, String contentHash) {
+    }
+
     /**
      * ✅ BUILD IMAGE CACHE from existing chapters
      */
@@ -539,6 +569,51 @@ public class EpubServiceImpl implements EpubService {
         }
     }
 
+    /**
+     * ✅ Render list / card / detail thumbnails (JPEG + WebP) so catalogue pages don't pull the full cover.
+     * Returns null if the cover can't be decoded; the full-size cover is still used in that case.
+     */
+    private CoverThumbnails generateAndUploadCoverThumbnails(Resource coverResource, Long bookId) {
+        try {
+            BufferedImage source = CoverThumbnailGenerator.decode(coverResource.getData());
+            if (source == null) {
+                log.warn("Cover image format not readable, skipping thumbnails for book ID: {}", bookId);
+                return null;
+            }
+
+            CoverThumbnails thumbnails = new CoverThumbnails();
+            for (CoverThumbnailGenerator.Variant variant : CoverThumbnailGenerator.Variant.values()) {
+                BufferedImage resized = CoverThumbnailGenerator.resize(source, variant);
+                byte[] jpeg = CoverThumbnailGenerator.toJpeg(resized);
+                byte[] webp = CoverThumbnailGenerator.toWebp(resized);
+
+                String jpegUrl = fileUtil.uploadBookCoverThumbnail(jpeg, bookId, variant.key(), "jpg");
+                String webpUrl = fileUtil.uploadBookCoverThumbnail(webp != null ? webp : jpeg, bookId, variant.key(), "webp");
+
+                switch (variant) {
+                    case LIST -> {
+                        thumbnails.setListUrl(jpegUrl);
+                        thumbnails.setListWebpUrl(webpUrl);
+                    }
+                    case CARD -> {
+                        thumbnails.setCardUrl(jpegUrl);
+                        thumbnails.setCardWebpUrl(webpUrl);
+                    }
+                    case DETAIL -> {
+                        thumbnails.setDetailUrl(jpegUrl);
+                        thumbnails.setDetailWebpUrl(webpUrl);
+                    }
+                }
+            }
+
+            log.info("Uploaded cover thumbnails for book ID: {} (source {}x{})", bookId, source.getWidth(), source.getHeight());
+            return thumbnails;
+        } catch (Exception e) {
+            log.error("Failed to generate cover thumbnails: {}", e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public BookChapter getChapter(Long bookId, Integer chapterNumber) {
         BookChapter chapter = chapterMapper.findChapterByNumber(bookId, chapterNumber);
@@ -566,71 +641,116 @@ public class EpubServiceImpl implements EpubService {
 
     // ==================== PROCESS EPUB FOR UPDATE ====================
 
+    /**
+     * ✅ PREPARE an update: extract and fingerprint the new EPUB and upload what the changed chapters and the
+     * cover need, without writing any chapter. Runs outside a transaction; {@link #applyEpubUpdate} writes.
+     * <p>
+     * Unchanged chapters are matched by fingerprint, not by number, so a chapter inserted or removed near the
+     * front only renumbers the ones after it instead of rewriting them. Changed entries reuse the stored
+     * chapter with their number when no unchanged entry claimed it, and are inserted otherwise.
+     */
     @Override
-    public EpubProcessResult processEpubFileForUpdate(MultipartFile epubFile, Book book) throws IOException {
+    public EpubUpdatePlan prepareEpubUpdate(MultipartFile epubFile, Book book) throws IOException {
         log.info("Processing EPUB for UPDATE - book: {} (ID: {})", book.getTitle(), book.getId());
 
-        EpubProcessResult result = new EpubProcessResult();
-
         try (InputStream is = epubFile.getInputStream()) {
             EpubReader reader = new EpubReader();
             nl.siegmann.epublib.domain.Book epubBook = reader.readEpub(is);
 
-            // 1. Parse TOC structure
-            Map<String, ChapterHierarchy> tocStructure = parseTocStructure(epubBook);
+            // 1. Extract and fingerprint every TOC entry, so the whole new layout is known before a chapter is reused
+            List<ChapterHierarchy> orderedToc = getOrderedTocEntries(epubBook);
+            log.info("Processing {} TOC entries in correct order", orderedToc.size());
+            List<TocSection> sections = extractTocSections(epubBook, orderedToc);
 
-            // 2. Get existing chapters from database
+            // 2. Claim unchanged stored chapters by fingerprint
             List<BookChapter> existingChapters = chapterMapper.findChaptersByBookId(book.getId());
             Map<Integer, BookChapter> existingChapterMap = new HashMap<>();
+            Map<String, List<BookChapter>> existingByHash = new HashMap<>();
             for (BookChapter chapter : existingChapters) {
                 existingChapterMap.put(chapter.getChapterNumber(), chapter);
+                if (chapter.getContentHash() != null) {
+                    existingByHash.computeIfAbsent(chapter.getContentHash(), k -> new ArrayList<>()).add(chapter);
+                }
             }
 
-            // ✅ 3. BUILD IMAGE CACHE from existing chapters
-            Map<String, String> imageCache = buildExistingImageCache(existingChapters);
-
-            // 4. Extract and update/insert chapters WITH IMAGE CACHE
-            List<BookChapter> processedChapters = updateOrInsertChaptersWithHierarchy(epubBook, book.getId(), tocStructure, existingChapterMap, imageCache);
-
-            result.setChapters(processedChapters);
-            result.setTotalChapters(processedChapters.size());
+            Set<Long> claimedIds = new HashSet<>();
+            Map<Integer, BookChapter> unchangedByNumber = new HashMap<>();
+            for (TocSection entry : sections) {
+                BookChapter match = claimByFingerprint(existingByHash.get(entry.contentHash()), entry.chapterNumber(), claimedIds);
+                if (match != null) {
+                    unchangedByNumber.put(entry.chapterNumber(), match);
+                }
+            }
 
-            // 5. Delete chapters that no longer exist in new EPUB
-            Set<Integer> processedChapterNumbers = processedChapters.stream()
-                    .map(BookChapter::getChapterNumber)
-                    .collect(Collectors.toSet());
+            // 3. Plan every entry; changed ones get their images uploaded now, the image cache is only built
+            //    once a changed chapter needs it
+            List<EpubUpdatePlan.PlannedChapter> planned = new ArrayList<>(sections.size());
+            Map<String, String> imageCache = null;
+            long totalWords = 0;
+            int unchangedCount = 0;
+
+            for (TocSection entry : sections) {
+                EpubUpdatePlan.PlannedChapter chapter = new EpubUpdatePlan.PlannedChapter();
+                chapter.setChapterNumber(entry.chapterNumber());
+                chapter.setHierarchy(entry.hierarchy());
+                chapter.setContentHash(entry.contentHash());
+
+                BookChapter unchanged = unchangedByNumber.get(entry.chapterNumber());
+                if (unchanged != null) {
+                    chapter.setUnchanged(true);
+                    chapter.setStored(unchanged);
+                    chapter.setWordCount(unchanged.getWordCount() != null ? unchanged.getWordCount() : 0);
+                    unchangedCount++;
+                } else {
+                    if (imageCache == null) {
+                        imageCache = buildExistingImageCache(existingChapters);
+                    }
 
-            for (BookChapter existingChapter : existingChapters) {
-                if (!processedChapterNumbers.contains(existingChapter.getChapterNumber())) {
-                    chapterMapper.deleteChapterById(existingChapter.getId());
-                    log.info("Deleted obsolete chapter: {} (ID: {})",
-                            existingChapter.getTitle(), existingChapter.getId());
+                    BookChapter sameNumber = existingChapterMap.get(entry.chapterNumber());
+                    chapter.setStored(sameNumber != null && claimedIds.add(sameNumber.getId()) ? sameNumber : null);
+                    chapter.setContent(entry.section().content());
+                    chapter.setHtml(rewriteSectionImages(entry.section(), epubBook, book.getId(), imageCache));
+                    chapter.setWordCount(fileUtil.countWords(chapter.getContent()));
                 }
+
+                totalWords += chapter.getWordCount();
+                planned.add(chapter);
             }
 
-            // 6. Calculate total words
-            long totalWords = processedChapters.stream()
-                    .mapToLong(BookChapter::getWordCount)
-                    .sum();
+            // 4. Chapters that are neither kept, moved nor rewritten
+            List<BookChapter> obsolete = existingChapters.stream()
+                    .filter(chapter -> !claimedIds.contains(chapter.getId()))
+                    .toList();
+
+            EpubProcessResult result = new EpubProcessResult();
+            result.setTotalChapters(planned.size());
             result.setTotalWords(totalWords);
 
-            // 7. Extract cover
+            // 5. Extract cover
             Resource coverResource = epubBook.getCoverImage();
             if (coverResource != null) {
                 String coverUrl = extractAndUploadCover(coverResource, book.getId(), book.getTitle());
                 result.setCoverImageUrl(coverUrl);
+                result.setCoverThumbnails(generateAndUploadCoverThumbnails(coverResource, book.getId()));
             }
 
-            // 8. Generate preview
-            if (!processedChapters.isEmpty()) {
-                String preview = fileUtil.generatePreviewText(processedChapters.getFirst().getContent(), 500);
-                result.setPreviewText(preview);
+            // 6. Generate preview
+            if (!planned.isEmpty()) {
+                EpubUpdatePlan.PlannedChapter first = planned.getFirst();
+                String firstContent = first.isUnchanged() ? first.getStored().getContent() : first.getContent();
+                result.setPreviewText(fileUtil.generatePreviewText(firstContent, 500));
             }
 
-            log.info("EPUB update completed: {} chapters updated/inserted, {} words",
-                    processedChapters.size(), totalWords);
+            EpubUpdatePlan plan = new EpubUpdatePlan();
+            plan.setBookId(book.getId());
+            plan.setChapters(planned);
+            plan.setObsoleteChapters(obsolete);
+            plan.setResult(result);
 
-            return result;
+            log.info("EPUB update prepared: {} chapters ({} to write, {} unchanged, {} obsolete), {} words",
+                    planned.size(), planned.size() - unchangedCount, unchangedCount, obsolete.size(), totalWords);
+
+            return plan;
 
         } catch (Exception e) {
             log.error("Failed to update EPUB: {}", e.getMessage(), e);
@@ -639,31 +759,100 @@ public class EpubServiceImpl implements EpubService {
     }
 
     /**
-     * ✅ UPDATE OR INSERT chapters with IMAGE CACHE support
+     * ✅ APPLY a prepared update: move unchanged chapters, rewrite or insert changed ones in order (parents
+     * first, so children can link to them) and delete obsolete ones. Must run inside the caller's transaction,
+     * so a failure leaves the stored chapters as they were.
      */
-    private List<BookChapter> updateOrInsertChaptersWithHierarchy(
-            nl.siegmann.epublib.domain.Book epubBook,
-            Long bookId,
-            Map<String, ChapterHierarchy> tocStructure,
-            Map<Integer, BookChapter> existingChapterMap,
-            Map<String, String> imageCache) {
-
-        List<BookChapter> chapters = new ArrayList<>();
+    @Override
+    public List<BookChapter> applyEpubUpdate(EpubUpdatePlan plan) {
+        Long bookId = plan.getBookId();
+        List<BookChapter> chapters = new ArrayList<>(plan.getChapters().size());
         Map<String, Long> hrefToChapterId = new HashMap<>();
 
-        log.info("TOC contains {} entries", tocStructure.size());
+        for (EpubUpdatePlan.PlannedChapter planned : plan.getChapters()) {
+            ChapterHierarchy hierarchy = planned.getHierarchy();
+            int chapterNumber = planned.getChapterNumber();
 
-        List<ChapterHierarchy> orderedToc = getOrderedTocEntries(epubBook);
-        log.info("Processing {} TOC entries in correct order", orderedToc.size());
+            Long parentChapterId = null;
+            if (hierarchy.getParentHref() != null && !hierarchy.getParentHref().isEmpty()) {
+                parentChapterId = hrefToChapterId.get(hierarchy.getParentHref());
+            }
 
-        int chapterNumber = 0;
+            BookChapter chapter = planned.getStored();
+            if (planned.isUnchanged()) {
+                // UNCHANGED chapter: keep stored content and uploaded images, only move or re-link it if needed
+                if (!Objects.equals(chapter.getChapterNumber(), chapterNumber) || !Objects.equals(chapter.getParentChapterId(), parentChapterId)) {
+                    log.info("🔗 Moved unchanged chapter {} -> {} (ID: {})", chapter.getChapterNumber(), chapterNumber, chapter.getId());
+                    chapter.setChapterNumber(chapterNumber);
+                    chapter.setParentChapterId(parentChapterId);
+                    chapterMapper.updateChapterPosition(chapter.getId(), chapterNumber, parentChapterId);
+                } else {
+                    log.debug("⏭️ Skipped unchanged chapter {} (ID: {})", chapter.getChapterNumber(), chapter.getId());
+                }
+            } else if (chapter != null) {
+                // UPDATE existing chapter
+                chapter.setTitle(fileUtil.toTitleCase(hierarchy.getTitle()));
+                chapter.setSlug(fileUtil.sanitizeFilename(hierarchy.getTitle()));
+                chapter.setContent(planned.getContent());
+                chapter.setHtmlContent(planned.getHtml());
+                chapter.setWordCount(planned.getWordCount());
+                chapter.setParentChapterId(parentChapterId);
+                chapter.setChapterLevel(hierarchy.getLevel());
+                chapter.setContentHash(planned.getContentHash());
+                chapter.setUpdatedAt(LocalDateTime.now());
+
+                chapterMapper.updateChapter(chapter);
+                log.info("✏️ Updated chapter {} (ID: {}): {}", chapter.getChapterNumber(), chapter.getId(), hierarchy.getTitle());
+            } else {
+                // INSERT new chapter (its number is free, or taken by a chapter that moved)
+                chapter = new BookChapter();
+                chapter.setBookId(bookId);
+                chapter.setChapterNumber(chapterNumber);
+                chapter.setTitle(fileUtil.toTitleCase(hierarchy.getTitle()));
+                chapter.setSlug(fileUtil.sanitizeFilename(hierarchy.getTitle()));
+                chapter.setContent(planned.getContent());
+                chapter.setHtmlContent(planned.getHtml());
+                chapter.setWordCount(planned.getWordCount());
+                chapter.setParentChapterId(parentChapterId);
+                chapter.setChapterLevel(hierarchy.getLevel());
+                chapter.setContentHash(planned.getContentHash());
+                chapter.setCreatedAt(LocalDateTime.now());
+                chapter.setUpdatedAt(LocalDateTime.now());
+
+                chapterMapper.insertChapter(chapter);
+                log.info("➕ Inserted new chapter {} (ID: {}): {}", chapter.getChapterNumber(), chapter.getId(), hierarchy.getTitle());
+            }
+
+            chapters.add(chapter);
+            hrefToChapterId.put(hierarchy.getHref(), chapter.getId());
+        }
+
+        for (BookChapter obsolete : plan.getObsoleteChapters()) {
+            chapterMapper.deleteChapterById(obsolete.getId());
+            log.info("Deleted obsolete chapter: {} (ID: {})", obsolete.getTitle(), obsolete.getId());
+        }
+
+        plan.getResult().setChapters(chapters);
+
+        // Chapters changed: drop the in-memory search index once they're committed, it's rebuilt on the next search
+        TransactionUtil.afterCommit(() -> searchIndexService.invalidate(bookId));
+
+        log.info("EPUB update applied: {} chapters, {} deleted", chapters.size(), plan.getObsoleteChapters().size());
+        return chapters;
+    }
+
+    /**
+     * Extract and fingerprint every TOC entry in order; numbering matches the create path (an entry whose
+     * resource is missing still takes its number)
+     */
+    private List<TocSection> extractTocSections(nl.siegmann.epublib.domain.Book epubBook, List<ChapterHierarchy> orderedToc) {
+        List<TocSection> sections = new ArrayList<>(orderedToc.size());
 
         for (int i = 0; i < orderedToc.size(); i++) {
             ChapterHierarchy hierarchy = orderedToc.get(i);
+            int chapterNumber = i + 1;
 
             try {
-                chapterNumber++;
-
                 String fullHref = hierarchy.getHref();
                 String fileName = fullHref.split("#")[0];
                 String anchorId = fullHref.contains("#") ? fullHref.split("#")[1] : null;
@@ -674,172 +863,42 @@ public class EpubServiceImpl implements EpubService {
                     continue;
                 }
 
-                String htmlContent = new String(resource.getData(), StandardCharsets.UTF_8);
-                Document doc = Jsoup.parse(htmlContent);
-
-                // ✅ OPTIMIZED: Process images with caching
-                Elements imgElements = doc.select("img");
-                for (Element img : imgElements) {
-                    String imgSrc = img.attr("src");
-                    if (!imgSrc.isEmpty()) {
-                        try {
-                            String cloudinaryUrl = extractAndUploadChapterImageOptimized(
-                                    epubBook, imgSrc, bookId, imageCache
-                            );
-                            if (cloudinaryUrl != null) {
-                                img.attr("src", cloudinaryUrl);
-                            }
-                        } catch (Exception e) {
-                            log.warn("Failed to upload image {}: {}", imgSrc, e.getMessage());
-                        }
-                    }
-                }
-
-                String content;
-                String htmlContentStr;
-
-                // Extract content (same logic as before)
-                if (anchorId != null) {
-                    String nextAnchorInSameFile = null;
-                    for (int j = i + 1; j < orderedToc.size(); j++) {
-                        ChapterHierarchy next = orderedToc.get(j);
-                        if (next.getHref().startsWith(fileName + "#")) {
-                            nextAnchorInSameFile = next.getHref().split("#")[1];
-                            break;
-                        } else if (!next.getHref().startsWith(fileName)) {
-                            break;
-                        }
-                    }
-
-                    Element startElement = doc.getElementById(anchorId);
-                    if (startElement != null) {
-                        StringBuilder sb = new StringBuilder();
-                        StringBuilder htmlSb = new StringBuilder();
-                        Element current = startElement;
-                        boolean started = false;
-
-                        while (current != null) {
-                            if (!started && current.id().equals(anchorId)) {
-                                started = true;
-                            }
-
-                            if (started) {
-                                if (!current.id().isEmpty() && !current.id().equals(anchorId)
-                                        && current.id().equals(nextAnchorInSameFile)) {
-                                    break;
-                                }
-                                sb.append(current.text()).append("\n");
-                                htmlSb.append(current.outerHtml());
-                            }
-                            current = current.nextElementSibling();
-                        }
-
-                        content = sb.toString().trim();
-                        htmlContentStr = htmlSb.toString();
-                    } else {
-                        content = doc.body().text().trim();
-                        htmlContentStr = doc.body().html();
-                    }
-                } else {
-                    String firstSubAnchor = null;
-                    for (int j = i + 1; j < orderedToc.size(); j++) {
-                        ChapterHierarchy next = orderedToc.get(j);
-                        if (next.getHref().startsWith(fileName + "#")) {
-                            firstSubAnchor = next.getHref().split("#")[1];
-                            break;
-                        } else if (!next.getHref().startsWith(fileName)) {
-                            break;
-                        }
-                    }
-
-                    if (firstSubAnchor != null) {
-                        Element stopElement = doc.getElementById(firstSubAnchor);
-                        if (stopElement != null) {
-                            Element sectionElement = doc.select("section.chapter").first();
-                            if (sectionElement != null) {
-                                StringBuilder sb = new StringBuilder();
-                                StringBuilder htmlSb = new StringBuilder();
-                                htmlSb.append("<section class=\"chapter\" epub:type=\"chapter\">\n");
-
-                                for (Element child : sectionElement.children()) {
-                                    if (child.id().equals(firstSubAnchor)) {
-                                        break;
-                                    }
-                                    if (child.getElementById(firstSubAnchor) != null) {
-                                        break;
-                                    }
-                                    sb.append(child.text()).append("\n");
-                                    htmlSb.append(child.outerHtml()).append("\n");
-                                }
-
-                                htmlSb.append("</section>");
-                                content = sb.toString().trim();
-                                htmlContentStr = htmlSb.toString();
-                            } else {
-                                content = doc.body().text().trim();
-                                htmlContentStr = doc.body().html();
-                            }
-                        } else {
-                            content = doc.body().text().trim();
-                            htmlContentStr = doc.body().html();
-                        }
-                    } else {
-                        content = doc.body().text().trim();
-                        htmlContentStr = doc.body().html();
-                    }
-                }
-
-                int wordCount = fileUtil.countWords(content);
-
-                Long parentChapterId = null;
-                if (hierarchy.getParentHref() != null && !hierarchy.getParentHref().isEmpty()) {
-                    parentChapterId = hrefToChapterId.get(hierarchy.getParentHref());
-                }
-
-                // ✅ UPDATE OR INSERT LOGIC
-                BookChapter chapter = existingChapterMap.get(chapterNumber);
-
-                if (chapter != null) {
-                    // UPDATE existing chapter
-                    chapter.setTitle(fileUtil.toTitleCase(hierarchy.getTitle()));
-                    chapter.setSlug(fileUtil.sanitizeFilename(hierarchy.getTitle()));
-                    chapter.setContent(content);
-                    chapter.setHtmlContent(htmlContentStr);
-                    chapter.setWordCount(wordCount);
-                    chapter.setParentChapterId(parentChapterId);
-                    chapter.setChapterLevel(hierarchy.getLevel());
-                    chapter.setUpdatedAt(LocalDateTime.now());
-
-                    chapterMapper.updateChapter(chapter);
-                    log.info("✏️ Updated chapter {} (ID: {}): {}", chapter.getChapterNumber(), chapter.getId(), hierarchy.getTitle());
-                } else {
-                    // INSERT new chapter
-                    chapter = new BookChapter();
-                    chapter.setBookId(bookId);
-                    chapter.setChapterNumber(chapterNumber);
-                    chapter.setTitle(fileUtil.toTitleCase(hierarchy.getTitle()));
-                    chapter.setSlug(fileUtil.sanitizeFilename(hierarchy.getTitle()));
-                    chapter.setContent(content);
-                    chapter.setHtmlContent(htmlContentStr);
-                    chapter.setWordCount(wordCount);
-                    chapter.setParentChapterId(parentChapterId);
-                    chapter.setChapterLevel(hierarchy.getLevel());
-                    chapter.setCreatedAt(LocalDateTime.now());
-                    chapter.setUpdatedAt(LocalDateTime.now());
-
-                    chapterMapper.insertChapter(chapter);
-                    log.info("➕ Inserted new chapter {} (ID: {}): {}", chapter.getChapterNumber(), chapter.getId(), hierarchy.getTitle());
-                }
+                Document doc = Jsoup.parse(new String(resource.getData(), StandardCharsets.UTF_8));
+                ChapterSection section = extractChapterSection(doc, orderedToc, i, fileName, anchorId);
+                sections.add(new TocSection(chapterNumber, hierarchy, section, computeChapterFingerprint(hierarchy, section)));
+            } catch (Exception e) {
+                log.error("Failed to extract chapter '{}': {}", hierarchy.getTitle(), e.getMessage(), e);
+            }
+        }
+        return sections;
+    }
 
-                chapters.add(chapter);
-                hrefToChapterId.put(fullHref, chapter.getId());
+    /**
+     * Claim an unclaimed stored chapter with this fingerprint, preferring the one already at this number when
+     * several chapters share a fingerprint (identical sections)
+     */
+    private static BookChapter claimByFingerprint(List<BookChapter> candidates, int chapterNumber, Set<Long> claimedIds) {
+        if (candidates == null) {
+            return null;
+        }
 
-            } catch (Exception e) {
-                log.error("Failed to process chapter '{}': {}", hierarchy.getTitle(), e.getMessage(), e);
+        BookChapter match = null;
+        for (BookChapter candidate : candidates) {
+            if (claimedIds.contains(candidate.getId())) {
+                continue;
+            }
+            if (Objects.equals(candidate.getChapterNumber(), chapterNumber)) {
+                match = candidate;
+                break;
+            }
+            if (match == null) {
+                match = candidate;
             }
         }
 
-        log.info("Successfully processed {} chapters (updated/inserted)", chapters.size());
-        return chapters;
+        if (match != null) {
+            claimedIds.add(match.getId());
+        }
+        return match;
     }
-}
\ No newline at end of file
+}
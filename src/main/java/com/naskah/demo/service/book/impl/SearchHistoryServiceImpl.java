@@ -0,0 +1,178 @@
+package com.naskah.demo.service.book.impl;
+
+import com.naskah.demo.exception.custom.DataNotFoundException;
+import com.naskah.demo.exception.custom.InvalidDataException;
+import com.naskah.demo.mapper.BookMapper;
+import com.naskah.demo.mapper.SearchMapper;
+import com.naskah.demo.model.dto.SearchQueryStat;
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.model.dto.response.SearchQueryStatResponse;
+import com.naskah.demo.model.entity.Book;
+import com.naskah.demo.model.entity.SearchHistory;
+import com.naskah.demo.service.book.SearchHistoryService;
+import com.naskah.demo.util.SearchResultCache;
+import com.naskah.demo.util.interceptor.HeaderHolder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-book search history, buffered in memory and written in batches by a background flusher. Each flush
+ * also folds its searches into search_query_stats (per book and normalised query: how often it was
+ * searched, how often it found nothing), so query analytics never scan the raw history.
+ * <p>
+ * History rows are kept for signed-in users only, but anonymous searches still count in the rollup. A
+ * crash loses at most one flush interval; a full buffer drops new searches rather than slowing requests.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchHistoryServiceImpl implements SearchHistoryService {
+    private final SearchMapper searchMapper;
+    private final BookMapper bookMapper;
+    private final HeaderHolder headerHolder;
+    private static final String SUCCESS = "Success";
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    @Value("${search.history.buffer-capacity:20000}")
+    private int bufferCapacity;
+
+    @Value("${search.history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${search.history.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<SearchHistory> buffer;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flushSafely();
+    }
+
+    @Override
+    public void record(Long userId, Long bookId, String query, int resultsCount) {
+        SearchHistory history = new SearchHistory();
+        history.setUserId(userId);
+        history.setBookId(bookId);
+        history.setQuery(query);
+        history.setResultsCount(resultsCount);
+        history.setSearchType("in_book");
+        history.setCreatedAt(LocalDateTime.now());
+
+        if (!buffer.offer(history)) {
+            long total = dropped.incrementAndGet();
+            if (total % 1000 == 1) {
+                log.warn("Search history buffer full, {} searches dropped so far", total);
+            }
+            return;
+        }
+
+        // don't wait for the timer when a full batch is ready
+        if (buffer.size() == batchSize) {
+            flusher.execute(this::flushSafely);
+        }
+    }
+
+    /**
+     * Drain the buffer in batches: raw rows for signed-in users, plus one upsert of the aggregated deltas
+     */
+    @Override
+    public synchronized void flush() {
+        List<SearchHistory> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            List<SearchHistory> userHistory = new ArrayList<>(batch.size());
+            Map<String, SearchQueryStat> stats = new LinkedHashMap<>();
+
+            for (SearchHistory history : batch) {
+                if (history.getUserId() != null) {
+                    userHistory.add(history);
+                }
+                aggregate(stats, history);
+            }
+
+            if (!userHistory.isEmpty()) {
+                searchMapper.insertSearchHistoryBatch(userHistory);
+            }
+            if (!stats.isEmpty()) {
+                searchMapper.upsertQueryStats(new ArrayList<>(stats.values()));
+            }
+
+            log.debug("Flushed {} searches ({} history rows, {} query stats)", batch.size(), userHistory.size(), stats.size());
+            batch.clear();
+        }
+    }
+
+    @Override
+    public DataResponse<List<SearchQueryStatResponse>> getQueryAnalytics(String slug, boolean zeroResultsOnly, int limit) {
+        headerHolder.requireAdmin();
+
+        if (limit < 1 || limit > 100) {
+            throw new InvalidDataException();
+        }
+
+        Book book = bookMapper.findBookBySlug(slug);
+        if (book == null) {
+            throw new DataNotFoundException();
+        }
+
+        List<SearchQueryStatResponse> stats = searchMapper.findQueryStats(book.getId(), zeroResultsOnly, limit);
+
+        return new DataResponse<>(SUCCESS, "Search query analytics retrieved successfully", HttpStatus.OK.value(), stats);
+    }
+
+    private void aggregate(Map<String, SearchQueryStat> stats, SearchHistory history) {
+        String query = SearchResultCache.normalize(history.getQuery());
+        if (query == null || query.isEmpty()) {
+            return;
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            query = query.substring(0, MAX_QUERY_LENGTH);
+        }
+
+        String key = history.getBookId() + ":" + query;
+        SearchQueryStat stat = stats.get(key);
+        if (stat == null) {
+            stat = new SearchQueryStat();
+            stat.setBookId(history.getBookId());
+            stat.setQuery(query);
+            stats.put(key, stat);
+        }
+
+        int results = history.getResultsCount() != null ? history.getResultsCount() : 0;
+        stat.setSearchCount(stat.getSearchCount() + 1);
+        if (results == 0) {
+            stat.setZeroResultCount(stat.getZeroResultCount() + 1);
+        }
+        // buffer order is arrival order, so the last one seen is the latest
+        stat.setLastResultCount(results);
+        stat.setLastSearchedAt(history.getCreatedAt());
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush search history: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.naskah.demo.service.impl;
+
+import com.naskah.demo.mapper.*;
+import com.naskah.demo.model.dto.AchievementProgressRow;
+import com.naskah.demo.model.dto.response.AchievementResponse;
+import com.naskah.demo.model.enums.AchievementEvent;
+import com.naskah.demo.service.AchievementService;
+import com.naskah.demo.service.ActivityStreakService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * Achievements driven by domain events: each write path reports its event, which advances one per-user
+ * counter in {@code user_achievement_progress} and unlocks every achievement whose target the counter has
+ * reached. Unlocks are stored once with their date, so the achievements list is a single read of the
+ * counters and unlocks instead of re-running every rule's counts on each view.
+ * <p>
+ * A user's counters are seeded from the source tables on their first event or read, which also covers
+ * history from before the engine existed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AchievementServiceImpl implements AchievementService {
+    private final AchievementMapper achievementMapper;
+    private final ChapterProgressMapper chapterProgressMapper;
+    private final ReadingSessionMapper sessionMapper;
+    private final BookReviewMapper bookReviewMapper;
+    private final HighlightMapper highlightMapper;
+    private final ActivityStreakService activityStreakService;
+
+    private static final String READING = "reading";
+    private static final String BRONZE = "bronze";
+    private static final String SILVER = "silver";
+    private static final String GOLD = "gold";
+
+    /** {@code scale} converts the counter to the unit the target is shown in (minutes to hours) */
+    private record Definition(String id, String category, String title, String description, String tier,
+                              AchievementEvent event, int target, int scale, int points) {
+    }
+
+    private static final List<Definition> DEFINITIONS = List.of(
+            new Definition("first_book", READING, "First Book", "Complete your first book", BRONZE, AchievementEvent.BOOK_FINISHED, 1, 1, 1),
+            new Definition("bookworm", READING, "Bookworm", "Complete 10 books", SILVER, AchievementEvent.BOOK_FINISHED, 10, 1, 10),
+            new Definition("book_master", READING, "Book Master", "Complete 50 books", GOLD, AchievementEvent.BOOK_FINISHED, 50, 1, 20),
+            new Definition("10_hours", READING, "10 Hours", "Read for 10 hours", BRONZE, AchievementEvent.READING_TIME, 10, 60, 5),
+            new Definition("100_hours", READING, "Century Reader", "Read for 100 hours", SILVER, AchievementEvent.READING_TIME, 100, 60, 15),
+            new Definition("1000_hours", READING, "Millennium Reader", "Read for 1000 hours", GOLD, AchievementEvent.READING_TIME, 1000, 60, 30),
+            new Definition("streak_7", READING, "Week Warrior", "Read 7 days in a row", BRONZE, AchievementEvent.STREAK_EXTENDED, 7, 1, 5),
+            new Definition("streak_30", READING, "Monthly Master", "Read 30 days in a row", SILVER, AchievementEvent.STREAK_EXTENDED, 30, 1, 15),
+            new Definition("streak_100", READING, "Centurion", "Read 100 days in a row", GOLD, AchievementEvent.STREAK_EXTENDED, 100, 1, 25),
+            new Definition("first_review", "social", "Critic's Corner", "Write your first review", BRONZE, AchievementEvent.REVIEW_POSTED, 1, 1, 5),
+            new Definition("10_reviews", "social", "Book Critic", "Write 10 reviews", SILVER, AchievementEvent.REVIEW_POSTED, 10, 1, 10),
+            new Definition("highlighter", "contribution", "Highlighter", "Create 50 highlights", SILVER, AchievementEvent.HIGHLIGHT_CREATED, 50, 1, 10)
+    );
+
+    private static final Map<AchievementEvent, ToIntFunction<AchievementProgressRow>> COUNTERS = Map.of(
+            AchievementEvent.BOOK_FINISHED, AchievementProgressRow::getBooksCompleted,
+            AchievementEvent.READING_TIME, AchievementProgressRow::getReadingMinutes,
+            AchievementEvent.STREAK_EXTENDED, AchievementProgressRow::getStreakDays,
+            AchievementEvent.HIGHLIGHT_CREATED, AchievementProgressRow::getHighlights,
+            AchievementEvent.REVIEW_POSTED, AchievementProgressRow::getReviews
+    );
+
+    @Override
+    public void record(Long userId, AchievementEvent event, int value) {
+        if (event.isCumulative() && value <= 0) {
+            return;
+        }
+
+        Integer counter = event.isCumulative()
+                ? achievementMapper.increment(userId, event.getColumn(), value)
+                : achievementMapper.raise(userId, event.getColumn(), value);
+
+        if (counter == null) {
+            // ✅ first event of this user: the source tables already include it
+            seed(userId);
+            return;
+        }
+
+        List<String> reached = new ArrayList<>();
+        for (Definition definition : DEFINITIONS) {
+            if (definition.event() == event && counter >= definition.target() * definition.scale()) {
+                reached.add(definition.id());
+            }
+        }
+        if (!reached.isEmpty() && achievementMapper.unlock(userId, reached) > 0) {
+            log.info("User {} unlocked achievements on {}: {}", userId, event, reached);
+        }
+    }
+
+    @Override
+    public List<AchievementResponse> getAchievements(Long userId) {
+        List<AchievementProgressRow> rows = achievementMapper.findProgress(userId);
+        if (rows.isEmpty()) {
+            seed(userId);
+            rows = achievementMapper.findProgress(userId);
+        }
+
+        AchievementProgressRow progress = rows.get(0);
+        Map<String, LocalDateTime> unlocked = new HashMap<>();
+        for (AchievementProgressRow row : rows) {
+            if (row.getAchievementId() != null) {
+                unlocked.put(row.getAchievementId(), row.getUnlockedAt());
+            }
+        }
+
+        List<AchievementResponse> achievements = new ArrayList<>(DEFINITIONS.size());
+        for (Definition definition : DEFINITIONS) {
+            int current = COUNTERS.get(definition.event()).applyAsInt(progress) / definition.scale();
+            achievements.add(toResponse(definition, current, unlocked.get(definition.id())));
+        }
+        return achievements;
+    }
+
+    private void seed(Long userId) {
+        AchievementProgressRow row = new AchievementProgressRow();
+        row.setUserId(userId);
+        row.setBooksCompleted(Objects.requireNonNullElse(chapterProgressMapper.countCompletedBooks(userId), 0));
+        // ✅ straight from the sessions: user_daily_stats is empty for history the backfill hasn't reached yet
+        row.setReadingMinutes(sessionMapper.sumMinutesByUser(userId));
+        row.setStreakDays(activityStreakService.getBitmap(userId).longestStreak());
+        row.setHighlights(Objects.requireNonNullElse(highlightMapper.countByUser(userId), 0));
+        row.setReviews(Objects.requireNonNullElse(bookReviewMapper.countByUser(userId), 0));
+        achievementMapper.insertProgress(row);
+
+        List<String> reached = new ArrayList<>();
+        for (Definition definition : DEFINITIONS) {
+            if (COUNTERS.get(definition.event()).applyAsInt(row) >= definition.target() * definition.scale()) {
+                reached.add(definition.id());
+            }
+        }
+        if (!reached.isEmpty()) {
+            achievementMapper.unlock(userId, reached);
+        }
+        log.info("Seeded achievement progress of user {}: {} unlocked", userId, reached.size());
+    }
+
+    private AchievementResponse toResponse(Definition definition, int current, LocalDateTime unlockedAt) {
+        AchievementResponse achievement = new AchievementResponse();
+
+        achievement.setAchievementId(definition.id());
+        achievement.setCategory(definition.category());
+        achievement.setTitle(definition.title());
+        achievement.setDescription(definition.description());
+        achievement.setTier(definition.tier());
+        achievement.setPoints(definition.points());
+        achievement.setTargetProgress(definition.target());
+        achievement.setCurrentProgress(Math.min(current, definition.target()));
+        achievement.setProgressPercentage((current * 100.0) / definition.target());
+        achievement.setIsUnlocked(unlockedAt != null);
+        achievement.setUnlockedAt(unlockedAt);
+
+        // Badge URL
+        achievement.setBadgeUrl(String.format("/badges/%s_%s.png", definition.id(), definition.tier()));
+
+        // Rarity (simplified)
+        achievement.setRarityPercentage(switch (definition.tier()) {
+            case BRONZE -> 60;
+            case SILVER -> 30;
+            default -> 10;
+        });
+
+        return achievement;
+    }
+}
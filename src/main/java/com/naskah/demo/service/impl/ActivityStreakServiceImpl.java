@@ -0,0 +1,74 @@
+package com.naskah.demo.service.impl;
+
+import com.naskah.demo.mapper.UserActivityBitmapMapper;
+import com.naskah.demo.mapper.UserMapper;
+import com.naskah.demo.model.dto.UserActivityBitmapRow;
+import com.naskah.demo.model.entity.User;
+import com.naskah.demo.service.ActivityStreakService;
+import com.naskah.demo.util.ActivityBitmap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Keeps one reading-activity bit per user per day (see {@link ActivityBitmap}). A user's bitmap is built from
+ * their reading sessions the first time it is read, and a bit is set whenever a session starts after that.
+ * Both read {@code reading_sessions.started_at}, the source the old per-day {@code hasActivitySince} checks used.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActivityStreakServiceImpl implements ActivityStreakService {
+    private final UserActivityBitmapMapper bitmapMapper;
+    private final UserMapper userMapper;
+
+    @Override
+    public void markActive(Long userId, LocalDate day) {
+        // ✅ no row yet means the bitmap was never read; the first read builds it from sessions, this day included
+        if (bitmapMapper.setActiveDay(userId, day) == 0) {
+            log.debug("No activity bitmap yet for user {}, deferring to first read", userId);
+        }
+    }
+
+    @Override
+    public ActivityBitmap getBitmap(Long userId) {
+        UserActivityBitmapRow row = bitmapMapper.findByUserId(userId);
+        if (row == null) {
+            row = rebuild(userId);
+        }
+        return new ActivityBitmap(row.getOriginDate(), row.getBits());
+    }
+
+    private UserActivityBitmapRow rebuild(Long userId) {
+        List<LocalDate> days = bitmapMapper.findSessionDays(userId);
+
+        User user = userMapper.findUserById(userId);
+        LocalDate origin = user != null && user.getCreatedAt() != null
+                ? user.getCreatedAt().toLocalDate()
+                : LocalDate.now();
+        if (!days.isEmpty() && days.get(0).isBefore(origin)) {
+            origin = days.get(0); // imported history can predate the account
+        }
+
+        BitSet bits = new BitSet();
+        for (LocalDate day : days) {
+            bits.set((int) ChronoUnit.DAYS.between(origin, day));
+        }
+
+        UserActivityBitmapRow row = new UserActivityBitmapRow();
+        row.setUserId(userId);
+        row.setOriginDate(origin);
+        row.setBits(bits.toByteArray());
+        bitmapMapper.upsert(row);
+
+        log.info("Built activity bitmap for user {}: {} active days since {}", userId, days.size(), origin);
+        // ✅ the stored row may carry bits merged in from a concurrent markActive or build
+        UserActivityBitmapRow stored = bitmapMapper.findByUserId(userId);
+        return stored != null ? stored : row;
+    }
+}
@@ -1,6 +1,7 @@
 package com.naskah.demo.service.impl;
 
 import com.naskah.demo.exception.custom.DataNotFoundException;
+import com.naskah.demo.exception.custom.InvalidDataException;
 import com.naskah.demo.exception.custom.UnauthorizedException;
 import com.naskah.demo.mapper.BlogPostMapper;
 import com.naskah.demo.model.dto.request.*;
@@ -8,6 +9,9 @@ import com.naskah.demo.model.dto.response.*;
 import com.naskah.demo.model.entity.*;
 import com.naskah.demo.model.enums.*;
 import com.naskah.demo.service.BlogPostService;
+import com.naskah.demo.service.SuggestService;
+import com.naskah.demo.util.ApproximateCountCache;
+import com.naskah.demo.util.CursorUtil;
 import com.naskah.demo.util.file.FileUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -28,9 +33,14 @@ public class BlogPostServiceImpl implements BlogPostService {
 
     private final BlogPostMapper blogPostMapper;
     private final FileUtil fileUtil;
+    private final SuggestService suggestService;
 
     private static final String SUCCESS = "Success";
 
+    // rows without a created_at sort last under "newest"; must match the COALESCE in the cursor query
+    private static final LocalDateTime NO_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private final ApproximateCountCache blogPostCountCache = new ApproximateCountCache(Duration.ofMinutes(5).toMillis());
+
     @Value("${file.upload.directory:uploads}")
     private String uploadDirectory;
 
@@ -61,6 +71,67 @@ public class BlogPostServiceImpl implements BlogPostService {
         return new DatatableResponse<>(SUCCESS, ResponseMessage.DATA_FETCHED, HttpStatus.OK.value(), data);
     }
 
+    /**
+     * ✅ Keyset paging (sort: newest | popular), stable on id; total is optional and cached for a few minutes
+     */
+    @Override
+    public DataResponse<CursorPageResponse<BlogPostResponse>> getBlogPostsByCursor(String sort, String cursor, int limit, boolean includeTotal,
+                                                                                  String status, String category, String tag, String search, Long authorId) {
+        if (limit < 1 || limit > 100) {
+            throw new InvalidDataException();
+        }
+
+        String sortKey = "popular".equalsIgnoreCase(sort) ? "popular" : "newest";
+        LocalDateTime cursorTime = null;
+        Long cursorViews = null;
+        Long cursorId = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            List<String> parts = CursorUtil.decode(cursor, 3);
+            if (!sortKey.equals(parts.get(0))) {
+                throw new InvalidDataException();
+            }
+            try {
+                if ("popular".equals(sortKey)) {
+                    cursorViews = Long.valueOf(parts.get(1));
+                } else {
+                    cursorTime = LocalDateTime.parse(parts.get(1));
+                }
+                cursorId = Long.valueOf(parts.get(2));
+            } catch (RuntimeException e) {
+                throw new InvalidDataException();
+            }
+        }
+
+        List<BlogPostResponse> rows = blogPostMapper.getBlogPostsByCursor(
+                status, category, tag, search, authorId, sortKey, cursorTime, cursorViews, cursorId, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<BlogPostResponse> pageResult = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            BlogPostResponse last = pageResult.getLast();
+            Object key = "popular".equals(sortKey)
+                    ? (last.getViewCount() != null ? last.getViewCount() : 0L)
+                    : (last.getCreatedAt() != null ? last.getCreatedAt() : NO_CREATED_AT);
+            nextCursor = CursorUtil.encode(sortKey, key, last.getId());
+        }
+
+        Long currentUserId = getCurrentUserId();
+        for (BlogPostResponse blogPost : pageResult) {
+            enhanceBlogPostWithEngagementData(blogPost, currentUserId);
+        }
+
+        Integer approximateTotal = includeTotal
+                ? blogPostCountCache.get(String.join("|", String.valueOf(status), String.valueOf(category), String.valueOf(tag),
+                        String.valueOf(search), String.valueOf(authorId)),
+                () -> blogPostMapper.countBlogPostsWithFilters(status, category, tag, search, authorId))
+                : null;
+
+        CursorPageResponse<BlogPostResponse> data = new CursorPageResponse<>(limit, nextCursor, hasMore, approximateTotal, pageResult);
+        return new DataResponse<>(SUCCESS, ResponseMessage.DATA_FETCHED, HttpStatus.OK.value(), data);
+    }
+
     @Override
     public DataResponse<BlogPostDetailResponse> getBlogPostBySlug(String slug) {
         BlogPostDetailResponse blogPost = blogPostMapper.getBlogPostBySlug(slug);
@@ -117,6 +188,8 @@ public class BlogPostServiceImpl implements BlogPostService {
 
             // Insert blog post FIRST to get the ID
             blogPostMapper.insertBlogPost(blogPost);
+            blogPostMapper.refreshSearchVector(blogPost.getId());
+            suggestService.refreshBlogPost(blogPost.getId());
             log.info("Created blog post with ID: {}", blogPost.getId());
 
             // Process featured image AFTER insertion (now we have the ID)
@@ -241,6 +314,8 @@ public class BlogPostServiceImpl implements BlogPostService {
             }
 
             blogPostMapper.updateBlogPost(updatePost);
+            blogPostMapper.refreshSearchVector(id);
+            suggestService.refreshBlogPost(id);
 
             // Update categories
             if (request.getCategoryIds() != null) {
@@ -308,6 +383,7 @@ public class BlogPostServiceImpl implements BlogPostService {
 
             // Delete the blog post
             blogPostMapper.deleteBlogPost(id);
+            suggestService.removeBlogPost(id);
 
             return new DataResponse<>(SUCCESS, "Blog post deleted successfully", HttpStatus.OK.value(), "Blog post deleted");
 
@@ -501,19 +577,28 @@ public class BlogPostServiceImpl implements BlogPostService {
     public DatatableResponse<BlogPostResponse> searchBlogPosts(String query, int page, int limit,
                                                                String sortField, String sortOrder,
                                                                String category, String tag) {
-        String sortColumn = sortField.equals("createdAt") ? "CREATED_AT" : "CREATED_AT";
+        if (query == null || query.isBlank()) {
+            throw new InvalidDataException();
+        }
+
+        String sortColumn = switch (sortField == null ? "" : sortField) {
+            case "createdAt" -> "CREATED_AT";
+            case "title" -> "TITLE";
+            default -> "RELEVANCE";
+        };
         String sortType = Objects.equals(sortOrder, "DESC") ? "DESC" : "ASC";
         int offset = (page - 1) * limit;
 
         List<BlogPostResponse> posts = blogPostMapper.searchBlogPosts(
                 query, category, tag, offset, limit, sortColumn, sortType);
+        int total = blogPostMapper.countSearchBlogPosts(query, category, tag);
 
         Long currentUserId = getCurrentUserId();
         for (BlogPostResponse blogPost : posts) {
             enhanceBlogPostWithEngagementData(blogPost, currentUserId);
         }
 
-        PageDataResponse<BlogPostResponse> data = new PageDataResponse<>(page, limit, posts.size(), posts);
+        PageDataResponse<BlogPostResponse> data = new PageDataResponse<>(page, limit, total, posts);
         return new DatatableResponse<>(SUCCESS, ResponseMessage.DATA_FETCHED, HttpStatus.OK.value(), data);
     }
 
@@ -1,20 +1,34 @@
 package com.naskah.demo.service.impl;
 
+import com.naskah.demo.exception.custom.InvalidDataException;
 import com.naskah.demo.exception.custom.UnauthorizedException;
 import com.naskah.demo.mapper.*;
+import com.naskah.demo.model.dto.DailyActivityRow;
+import com.naskah.demo.model.dto.DailyStatsSummaryRow;
+import com.naskah.demo.model.dto.GenreBreakdownRow;
+import com.naskah.demo.model.dto.ReadingHistoryRow;
+import com.naskah.demo.model.dto.WeeklyActivityRow;
 import com.naskah.demo.model.dto.response.*;
 import com.naskah.demo.model.entity.*;
+import com.naskah.demo.service.AchievementService;
+import com.naskah.demo.service.ActivityStreakService;
 import com.naskah.demo.service.DashboardService;
+import com.naskah.demo.service.ReadingStatsCacheService;
+import com.naskah.demo.service.UserLibraryService;
+import com.naskah.demo.util.CursorUtil;
 import com.naskah.demo.util.interceptor.HeaderHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.*;
-import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -25,7 +39,6 @@ public class DashboardServiceImpl implements DashboardService {
     private final BookMapper bookMapper;
     private final ChapterProgressMapper chapterProgressMapper;
     private final ReadingSessionMapper sessionMapper;
-    private final ReadingActivityMapper activityMapper;
     private final BookmarkMapper bookmarkMapper;
     private final HighlightMapper highlightMapper;
     private final NoteMapper noteMapper;
@@ -33,13 +46,29 @@ public class DashboardServiceImpl implements DashboardService {
     private final BookReviewMapper bookReviewMapper;
     private final UserReadingPatternMapper patternMapper;
     private final GenreMapper genreMapper;
+    private final DailyActivityMapper dailyActivityMapper;
+    private final ActivityStreakService activityStreakService;
+    private final UserLibraryMapper userLibraryMapper;
+    private final UserLibraryService userLibraryService;
+    private final ReadingStatsCacheService readingStatsCacheService;
+    private final UserDailyStatsMapper dailyStatsMapper;
+    private final AchievementService achievementService;
+    private final ReadingHistoryMapper historyMapper;
+    private final SessionSettingsMapper sessionSettingsMapper;
+    private final TransactionTemplate transactionTemplate;
     private static final String SUCCESS = "Success";
     private static final String READING = "reading";
     private static final String COMPLETED = "completed";
     private static final String STABLE = "stable";
     private static final String NOT_ENOUGH_DATA = "Not enough data";
-    private static final String BRONZE = "bronze";
-    private static final String SILVER = "silver";
+
+    @Value("${dashboard.section-deadline-ms:2000}")
+    private long sectionDeadlineMs;
+
+    @Value("${dashboard.max-concurrent-sections:4}")
+    private int maxConcurrentSections;
+
+    private final ExecutorService dashboardExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     // ═══════════════════════════════════════════════════════════
     // MAIN DASHBOARD
@@ -49,15 +78,39 @@ public class DashboardServiceImpl implements DashboardService {
     public DataResponse<UserReadingDashboardResponse> getUserReadingDashboard() {
         try {
             User user = getCurrentUser();
-
+            Long userId = user.getId();
+
+            // ✅ build a first-time library here, once, rather than in two sections racing each other
+            userLibraryService.ensureBuilt(userId);
+
+            // ✅ sections are independent: run them on virtual threads, at most maxConcurrentSections at a
+            // time (each holds a pooled connection while it queries), and answer at the deadline with
+            // whatever has finished
+            Semaphore permits = new Semaphore(maxConcurrentSections);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionDeadlineMs);
+
+            Future<UserReadingDashboardResponse.OverviewStats> overview = submitSection(permits, deadline, () -> buildOverviewStats(userId));
+            Future<List<UserReadingDashboardResponse.BookInProgressItem>> inProgress = submitSection(permits, deadline, () -> getBooksInProgress(userId));
+            Future<List<UserReadingDashboardResponse.RecentlyReadItem>> recentlyRead = submitSection(permits, deadline, () -> getRecentlyRead(userId));
+            Future<UserReadingDashboardResponse.ReadingPatternSummary> pattern = submitSection(permits, deadline, () -> buildReadingPatternSummary(userId));
+            Future<UserReadingDashboardResponse.AnnotationsSummary> annotations = submitSection(permits, deadline, () -> buildAnnotationsSummary(userId));
+            Future<UserReadingDashboardResponse.QuickAccessLinks> quickLinks = submitSection(permits, deadline, () -> buildQuickAccessLinks(userId));
+            Future<List<UserReadingDashboardResponse.RecentAchievement>> achievements = submitSection(permits, deadline, () -> getRecentAchievements(userId));
+
+            List<String> unavailable = new ArrayList<>();
             UserReadingDashboardResponse response = new UserReadingDashboardResponse();
-            response.setOverviewStats(buildOverviewStats(user.getId()));
-            response.setBooksInProgress(getBooksInProgress(user.getId()));
-            response.setRecentlyRead(getRecentlyRead(user.getId()));
-            response.setReadingPattern(buildReadingPatternSummary(user.getId()));
-            response.setAnnotationsSummary(buildAnnotationsSummary(user.getId()));
-            response.setQuickLinks(buildQuickAccessLinks(user.getId()));
-            response.setRecentAchievements(getRecentAchievements(user.getId()));
+            response.setOverviewStats(awaitSection("overviewStats", overview, deadline, unavailable));
+            response.setBooksInProgress(awaitSection("booksInProgress", inProgress, deadline, unavailable));
+            response.setRecentlyRead(awaitSection("recentlyRead", recentlyRead, deadline, unavailable));
+            response.setReadingPattern(awaitSection("readingPattern", pattern, deadline, unavailable));
+            response.setAnnotationsSummary(awaitSection("annotationsSummary", annotations, deadline, unavailable));
+            response.setQuickLinks(awaitSection("quickLinks", quickLinks, deadline, unavailable));
+            response.setRecentAchievements(awaitSection("recentAchievements", achievements, deadline, unavailable));
+            response.setUnavailableSections(unavailable);
+
+            if (!unavailable.isEmpty()) {
+                log.warn("Dashboard for user {} returned without {}", userId, unavailable);
+            }
 
             log.info("Dashboard data retrieved for user {}", user.getId());
 
@@ -69,6 +122,45 @@ public class DashboardServiceImpl implements DashboardService {
         }
     }
 
+    /**
+     * Runs a section in its own transaction whose statements time out at the deadline. Cancelling the future
+     * only interrupts the thread, and pgjdbc does not abort a running query on interrupt, so without the
+     * server-side timeout a late section would keep its connection busy after the dashboard has answered.
+     */
+    private <T> Future<T> submitSection(Semaphore permits, long deadline, Supplier<T> section) {
+        return dashboardExecutor.submit(() -> {
+            permits.acquire();
+            try {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    throw new TimeoutException("Dashboard deadline passed before the section started");
+                }
+                return transactionTemplate.execute(status -> {
+                    sessionSettingsMapper.setLocalStatementTimeout(remainingMs);
+                    return section.get();
+                });
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private <T> T awaitSection(String name, Future<T> section, long deadline, List<String> unavailable) {
+        try {
+            return section.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            section.cancel(true);
+            log.warn("Dashboard section {} missed the {} ms deadline", name, sectionDeadlineMs);
+        } catch (ExecutionException e) {
+            log.error("Dashboard section {} failed: {}", name, e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            section.cancel(true);
+        }
+        unavailable.add(name);
+        return null;
+    }
+
     // ═══════════════════════════════════════════════════════════
     // HELPER METHODS - Building Response Components
     // ═══════════════════════════════════════════════════════════
@@ -77,21 +169,17 @@ public class DashboardServiceImpl implements DashboardService {
         UserReadingDashboardResponse.OverviewStats stats = new UserReadingDashboardResponse.OverviewStats();
 
         // Total books (unique books user has interacted with)
-        List<Long> bookIds = getInteractedBookIds(userId, "all");
-        stats.setTotalBooks(bookIds.size());
+        stats.setTotalBooks(countLibrary(userId, null));
 
         // Books in progress
-        int inProgress = (int) bookIds.stream()
-                .filter(bookId -> isBookInProgress(userId, bookId))
-                .count();
-        stats.setBooksInProgress(inProgress);
+        stats.setBooksInProgress(countLibrary(userId, READING));
 
         // Books completed
         Integer completed = chapterProgressMapper.countCompletedBooks(userId);
         stats.setBooksCompleted(completed != null ? completed : 0);
 
         // Total reading time
-        Integer totalMinutes = activityMapper.getUserTotalReadingMinutes(userId);
+        Integer totalMinutes = dailyStatsMapper.sumMinutes(userId, null, null);
         int hours = totalMinutes != null ? totalMinutes / 60 : 0;
         stats.setTotalReadingTimeHours(hours);
 
@@ -117,10 +205,11 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     private List<UserReadingDashboardResponse.BookInProgressItem> getBooksInProgress(Long userId) {
-        List<Long> bookIds = getInteractedBookIds(userId, READING);
+        List<Long> bookIds = userLibraryMapper.findLibrary(userId, READING, "last_read", 0, 5).stream()
+                .map(BookLibraryItemResponse::getBookId)
+                .toList();
 
         return bookIds.stream()
-                .limit(5)
                 .map(bookId -> {
                     Book book = bookMapper.findById(bookId);
                     if (book == null) return null;
@@ -316,16 +405,9 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     private List<UserReadingDashboardResponse.RecentAchievement> getRecentAchievements(Long userId) {
-        List<UserReadingDashboardResponse.RecentAchievement> achievements = new ArrayList<>();
-
-        // Calculate recent achievements
-        List<AchievementResponse> all = new ArrayList<>();
-        all.addAll(calculateReadingAchievements(userId));
-        all.addAll(calculateStreakAchievements(userId));
-
-        // Filter unlocked and sort by date
-        return all.stream()
-                .filter(AchievementResponse::getIsUnlocked)
+        // Filter unlocked reading achievements and sort by date
+        return achievementService.getAchievements(userId).stream()
+                .filter(a -> READING.equals(a.getCategory()) && Boolean.TRUE.equals(a.getIsUnlocked()))
                 .sorted((a, b) -> b.getUnlockedAt().compareTo(a.getUnlockedAt()))
                 .limit(3)
                 .map(this::mapToRecentAchievement)
@@ -342,16 +424,13 @@ public class DashboardServiceImpl implements DashboardService {
             User user = getCurrentUser();
             int offset = (page - 1) * limit;
 
-            List<Long> bookIds = getInteractedBookIds(user.getId(), filter);
-            List<BookLibraryItemResponse> items = bookIds.stream()
-                    .skip(offset)
-                    .limit(limit)
-                    .map(bookId -> buildLibraryItem(user.getId(), bookId))
-                    .filter(Objects::nonNull)
-                    .sorted(getComparator(sortBy))
-                    .toList();
+            // ✅ one indexed, paginated query over the materialised library
+            int total = countLibrary(user.getId(), filter);
+            List<BookLibraryItemResponse> items = total > offset
+                    ? userLibraryMapper.findLibrary(user.getId(), filter, sortBy, offset, limit)
+                    : new ArrayList<>();
 
-            PageDataResponse<BookLibraryItemResponse> pageData = new PageDataResponse<>(page, limit, bookIds.size(), items);
+            PageDataResponse<BookLibraryItemResponse> pageData = new PageDataResponse<>(page, limit, total, items);
 
             return new DatatableResponse<>(SUCCESS, "Library retrieved", HttpStatus.OK.value(), pageData);
 
@@ -374,32 +453,72 @@ public class DashboardServiceImpl implements DashboardService {
             LocalDateTime since = LocalDateTime.now().minusDays(days);
             int offset = (page - 1) * limit;
 
-            // Get all activity types
-            List<ReadingActivityResponse> activities = new ArrayList<>();
+            // ✅ merged and paged in the database: each source contributes at most offset + limit rows
+            List<ReadingActivityResponse> paged = historyMapper
+                    .findHistoryPage(user.getId(), since, null, null, null, offset, limit).stream()
+                    .map(this::mapHistoryRow)
+                    .toList();
+            int total = historyMapper.countHistory(user.getId(), since);
 
-            // 1. Reading sessions
-            List<ReadingSession> sessions = sessionMapper.findUserSessionsSince(user.getId(), since, offset, limit);
-            activities.addAll(sessions.stream()
-                    .map(this::mapSessionToActivity)
-                    .toList());
+            PageDataResponse<ReadingActivityResponse> pageData = new PageDataResponse<>(page, limit, total, paged);
 
-            // 2. Annotations
-            activities.addAll(getAnnotationActivities(user.getId(), since));
+            return new DatatableResponse<>(SUCCESS, "History retrieved", HttpStatus.OK.value(), pageData);
 
-            // 3. Reviews & Ratings
-            activities.addAll(getReviewActivities(user.getId(), since));
+        } catch (Exception e) {
+            log.error("Error getting history: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
 
-            // Sort by timestamp descending
-            activities.sort((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()));
+    /**
+     * ✅ Keyset pagination over (timestamp, type, id): every page starts strictly after the previous page's
+     * last item, so deep pages cost the same as the first and items added meanwhile do not shift the feed.
+     */
+    @Override
+    public DataResponse<CursorPageResponse<ReadingActivityResponse>> getReadingHistoryByCursor(
+            int days, String cursor, int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new InvalidDataException();
+        }
 
-            // Paginate
-            int start = Math.min(offset, activities.size());
-            int end = Math.min(start + limit, activities.size());
-            List<ReadingActivityResponse> paged = activities.subList(start, end);
+        try {
+            User user = getCurrentUser();
+            LocalDateTime since = LocalDateTime.now().minusDays(days);
 
-            PageDataResponse<ReadingActivityResponse> pageData = new PageDataResponse<>(page, limit, activities.size(), paged);
+            LocalDateTime cursorTime = null;
+            String cursorType = null;
+            Long cursorId = null;
+            if (cursor != null && !cursor.isBlank()) {
+                List<String> parts = CursorUtil.decode(cursor, 3);
+                try {
+                    cursorTime = LocalDateTime.parse(parts.get(0));
+                    cursorType = parts.get(1);
+                    cursorId = Long.valueOf(parts.get(2));
+                } catch (RuntimeException e) {
+                    throw new InvalidDataException();
+                }
+            }
 
-            return new DatatableResponse<>(SUCCESS, "History retrieved", HttpStatus.OK.value(), pageData);
+            // one extra row tells us whether there is a next page
+            List<ReadingHistoryRow> rows = historyMapper.findHistoryPage(
+                    user.getId(), since, cursorTime, cursorType, cursorId, 0, limit + 1);
+            boolean hasMore = rows.size() > limit;
+            List<ReadingHistoryRow> pageRows = hasMore ? rows.subList(0, limit) : rows;
+
+            String nextCursor = null;
+            if (hasMore) {
+                ReadingHistoryRow last = pageRows.getLast();
+                nextCursor = CursorUtil.encode(last.getTimestamp(), last.getActivityType(), last.getActivityId());
+            }
+
+            List<ReadingActivityResponse> activities = pageRows.stream()
+                    .map(this::mapHistoryRow)
+                    .toList();
+
+            CursorPageResponse<ReadingActivityResponse> data =
+                    new CursorPageResponse<>(limit, nextCursor, hasMore, null, activities);
+
+            return new DataResponse<>(SUCCESS, "History retrieved", HttpStatus.OK.value(), data);
 
         } catch (Exception e) {
             log.error("Error getting history: {}", e.getMessage(), e);
@@ -428,16 +547,15 @@ public class DashboardServiceImpl implements DashboardService {
             response.setWeeklyStats(buildWeeklyStats(user.getId(), since));
 
             // 3. Aggregate stats
-            Map<String, Object> aggregates = activityMapper.getUserActivitySummary(user.getId(), since, LocalDateTime.now());
+            DailyStatsSummaryRow aggregates = dailyStatsMapper.summarize(user.getId(), since.toLocalDate(), LocalDate.now());
 
-            response.setTotalBooksRead(getIntValue(aggregates.get("books_read")));
-            response.setTotalChaptersRead(getIntValue(aggregates.get("chapters_read")));
+            response.setTotalBooksRead(aggregates.getBooksRead());
+            response.setTotalChaptersRead(aggregates.getChaptersRead());
 
             // Konversi total_seconds ke total_minutes
-            int totalSeconds = getIntValue(aggregates.get("total_seconds"));
-            response.setTotalReadingMinutes(totalSeconds / 60);
+            response.setTotalReadingMinutes((int) (aggregates.getReadingSeconds() / 60));
 
-            response.setAverageReadingSpeedWpm(getDoubleValue(aggregates.get("avg_speed")));
+            response.setAverageReadingSpeedWpm(averageSpeed(aggregates));
 
             // 4. Trends - Perlu diperbaiki juga method-method ini
             response.setReadingTimeTrend(calculateTimeTrend(user.getId(), period));
@@ -445,7 +563,7 @@ public class DashboardServiceImpl implements DashboardService {
             response.setSpeedTrend(calculateSpeedTrend(user.getId(), period));
 
             // 5. Genre breakdown
-            response.setGenreBreakdown(buildGenreBreakdown(user.getId(), since));
+            response.setGenreBreakdown(buildGenreBreakdown(user.getId(), since, period));
 
             // 6. Peak times
             response.setPeakReadingTimes(buildPeakTimes(user.getId(), since));
@@ -621,11 +739,10 @@ public class DashboardServiceImpl implements DashboardService {
             QuickStatsResponse response = new QuickStatsResponse();
 
             // Get basic counts (fast queries)
-            List<Long> bookIds = getInteractedBookIds(user.getId(), "all");
-            response.setTotalBooks(bookIds.size());
+            response.setTotalBooks(countLibrary(user.getId(), null));
 
             // Total reading time
-            Integer totalMinutes = activityMapper.getUserTotalReadingMinutes(user.getId());
+            Integer totalMinutes = dailyStatsMapper.sumMinutes(user.getId(), null, null);
             response.setReadingTime(formatReadingTime(totalMinutes));
 
             // Completed books
@@ -641,8 +758,7 @@ public class DashboardServiceImpl implements DashboardService {
             response.setCurrentStreak(streak);
 
             // Has activity today
-            LocalDateTime todayStart = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
-            Boolean hasActivity = activityMapper.hasActivitySince(user.getId(), todayStart);
+            Boolean hasActivity = dailyStatsMapper.hasReadingOn(user.getId(), LocalDate.now());
             response.setHasActivityToday(hasActivity);
 
             return new DataResponse<>(SUCCESS, "Quick stats retrieved", HttpStatus.OK.value(), response);
@@ -676,11 +792,9 @@ public class DashboardServiceImpl implements DashboardService {
             // Build calendar days
             List<ReadingCalendarResponse.CalendarDay> days = new ArrayList<>();
 
-            for (LocalDate date = startDate; !date.isAfter(endDate);
-                 date = date.plusDays(1)) {
-
-                ReadingCalendarResponse.CalendarDay day = buildCalendarDay(user.getId(), date);
-                days.add(day);
+            // ✅ the whole month in one range query
+            for (DailyActivityRow row : dailyActivityMapper.findDailyActivity(user.getId(), startDate, endDate)) {
+                days.add(buildCalendarDay(row));
             }
 
             response.setDays(days);
@@ -700,7 +814,7 @@ public class DashboardServiceImpl implements DashboardService {
                     .sum());
 
             // Calculate longest streak in this period
-            stats.setLongestStreakInPeriod(calculateStreakInPeriod(days));
+            stats.setLongestStreakInPeriod(activityStreakService.getBitmap(user.getId()).longestStreak(startDate, endDate));
 
             response.setStats(stats);
 
@@ -721,12 +835,8 @@ public class DashboardServiceImpl implements DashboardService {
         try {
             User user = getCurrentUser();
 
-            List<AchievementResponse> achievements = new ArrayList<>();
-
-            // Calculate achievements dynamically
-            achievements.addAll(calculateReadingAchievements(user.getId()));
-            achievements.addAll(calculateStreakAchievements(user.getId()));
-            achievements.addAll(calculateSocialAchievements(user.getId()));
+            // ✅ counters and unlocks are kept up to date by the write paths
+            List<AchievementResponse> achievements = new ArrayList<>(achievementService.getAchievements(user.getId()));
 
             // Sort by unlocked status and date
             achievements.sort((a, b) -> {
@@ -783,336 +893,35 @@ public class DashboardServiceImpl implements DashboardService {
     // LIBRARY HELPERS
     // ═══════════════════════════════════════════════════════════
 
-    private List<Long> getInteractedBookIds(Long userId, String filter) {
-        Set<Long> bookIds = new HashSet<>();
-
-        // Books with reading progress
-        List<ChapterProgress> progress = chapterProgressMapper.findAllByUser(userId);
-        progress.forEach(p -> bookIds.add(p.getBookId()));
-
-        // Books with bookmarks
-        List<Bookmark> bookmarks = bookmarkMapper.findByUser(userId);
-        bookmarks.forEach(b -> bookIds.add(b.getBookId()));
-
-        // Books with highlights
-        List<Highlight> highlights = highlightMapper.findByUser(userId);
-        highlights.forEach(h -> bookIds.add(h.getBookId()));
-
-        // Books with notes
-        List<Note> notes = noteMapper.findByUser(userId);
-        notes.forEach(n -> bookIds.add(n.getBookId()));
-
-        // Books with ratings/reviews
-        List<BookRating> ratings = bookRatingMapper.findByUser(userId);
-        ratings.forEach(r -> bookIds.add(r.getBookId()));
-
-        // Apply filter
-        List<Long> filtered = new ArrayList<>(bookIds);
-
-        if (READING.equals(filter)) {
-            filtered.removeIf(bookId -> !isBookInProgress(userId, bookId));
-        } else if (COMPLETED.equals(filter)) {
-            filtered.removeIf(bookId -> !isBookCompleted(userId, bookId));
-        } else if ("bookmarked".equals(filter)) {
-            List<Long> bookmarkedIds = bookmarks.stream()
-                    .map(Bookmark::getBookId)
-                    .distinct()
-                    .toList();
-            filtered.retainAll(bookmarkedIds);
-        }
-
-        return filtered;
-    }
-
-    private BookLibraryItemResponse buildLibraryItem(Long userId, Long bookId) {
-        Book book = bookMapper.findById(bookId);
-        if (book == null) return null;
-
-        BookLibraryItemResponse item = new BookLibraryItemResponse();
-        item.setBookId(book.getId());
-        item.setBookTitle(book.getTitle());
-        item.setBookSlug(book.getSlug());
-        item.setCoverImageUrl(book.getCoverImageUrl());
-
-        // Author
-        List<Author> authors = bookMapper.getBookAuthors(book.getId());
-        item.setAuthorName(authors.getFirst().getName());
-
-        // Genre
-        List<Genre> genres = bookMapper.getBookGenres(book.getId());
-        item.setGenre(genres.getFirst().getName());
-
-        // Progress membaca
-        List<ChapterProgress> progress = chapterProgressMapper.findAllByUserAndBook(userId, book.getId());
-        long completed = progress.stream()
-                .filter(p -> p.getIsCompleted() != null && p.getIsCompleted())
-                .count();
-
-        item.setCurrentChapter((int) completed);
-        item.setTotalChapters(book.getTotalPages());
-
-        // Hitung persentase progress
-        if (book.getTotalPages() > 0) {
-            item.setProgressPercentage((completed * 100.0) / book.getTotalPages());
-        } else {
-            item.setProgressPercentage(0.0);
-        }
-
-        // Status membaca
-        if (completed == 0) {
-            item.setReadingStatus("not_started");
-        } else if (completed >= book.getTotalPages()) {
-            item.setReadingStatus(COMPLETED);
-        } else {
-            item.setReadingStatus(READING);
-        }
-
-        // Count engagement
-        item.setBookmarkCount(bookmarkMapper.countByUserAndBook(userId, bookId));
-        item.setHighlightCount(highlightMapper.countByUserAndBook(userId, bookId));
-        item.setNoteCount(noteMapper.countByUserAndBook(userId, bookId));
-
-        // Rating & review
-        BookRating rating = bookRatingMapper.findByUserAndBook(userId, bookId);
-        item.setMyRating(rating != null ? rating.getRating() : null);
-
-        BookReview review = bookReviewMapper.findByUserAndBook(userId, bookId);
-        item.setHasReview(review != null);
-
-        if (!progress.isEmpty()) {
-            item.setFirstReadAt(progress.stream()
-                    .map(p -> {
-                        if (p.getLastReadAt() != null) {
-                            return p.getLastReadAt();
-                        }
-                        return p.getCreatedAt();
-                    })
-                    .filter(Objects::nonNull)
-                    .min(Comparator.naturalOrder())
-                    .orElse(null));
-
-            item.setLastReadAt(progress.stream()
-                    .map(ChapterProgress::getLastReadAt)
-                    .filter(Objects::nonNull)
-                    .max(Comparator.naturalOrder())
-                    .orElse(null));
-            if (completed >= book.getTotalPages()) {
-                item.setCompletedAt(progress.stream()
-                        .filter(p -> p.getIsCompleted() != null && p.getIsCompleted())
-                        .map(ChapterProgress::getLastReadAt)
-                        .filter(Objects::nonNull)
-                        .max(Comparator.naturalOrder())
-                        .orElse(null));
-            }
-        }
-
-        List<ReadingSession> sessions = sessionMapper.findByUserAndBook(userId, bookId);
-        int totalMinutes = sessions.stream()
-                .mapToInt(s -> {
-                    if (s.getTotalDurationSeconds() != null) {
-                        return s.getTotalDurationSeconds() / 60;
-                    }
-                    return 0;
-                })
-                .sum();
-        item.setTotalReadingTimeMinutes(totalMinutes);
-
-        int totalReadingTimeFromProgress = progress.stream()
-                .mapToInt(p -> p.getReadingTimeSeconds() != null ? p.getReadingTimeSeconds() / 60 : 0)
-                .sum();
-
-        item.setTotalReadingTimeMinutes(Math.max(totalMinutes, totalReadingTimeFromProgress));
-
-        int remainingChapters = book.getTotalPages() - (int) completed;
-
-        final int avgTimePerChapter = getAvgTimePerChapter(completed, totalReadingTimeFromProgress, book);
-
-        item.setEstimatedTimeRemaining(remainingChapters * avgTimePerChapter);
-
-        return item;
-    }
-
-    private static int getAvgTimePerChapter(long completed, int totalReadingTimeFromProgress, Book book) {
-        int avgTimePerChapter = 0;
-        if (completed > 0 && totalReadingTimeFromProgress > 0) {
-            avgTimePerChapter = totalReadingTimeFromProgress / (int) completed;
-        } else if (book.getTotalPages() > 0 && book.getEstimatedReadTime() > 0) {
-            avgTimePerChapter = book.getEstimatedReadTime() / book.getTotalPages();
-        }
-        return avgTimePerChapter;
-    }
-
-    private Comparator<BookLibraryItemResponse> getComparator(String sortBy) {
-        return switch (sortBy) {
-            case "last_read" -> Comparator.comparing(
-                    BookLibraryItemResponse::getLastReadAt,
-                    Comparator.nullsLast(Comparator.reverseOrder())
-            );
-            case "progress" -> Comparator.comparingDouble(
-                    BookLibraryItemResponse::getProgressPercentage
-            ).reversed();
-            case "title" -> Comparator.comparing(
-                    BookLibraryItemResponse::getBookTitle,
-                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)
-            );
-            case "rating" -> Comparator.comparing(
-                    BookLibraryItemResponse::getMyRating,
-                    Comparator.nullsLast(Comparator.reverseOrder())
-            );
-            default -> (a, b) -> 0;
-        };
-    }
-
     // ═══════════════════════════════════════════════════════════
     // READING HISTORY HELPERS
     // ═══════════════════════════════════════════════════════════
 
-    private ReadingActivityResponse mapSessionToActivity(ReadingSession session) {
-        ReadingActivityResponse activity = new ReadingActivityResponse();
-
-        activity.setActivityId(session.getId());
-        activity.setActivityType("reading_session");
-        activity.setTimestamp(session.getStartedAt());
-        activity.setBookId(session.getBookId());
-
-        Book book = bookMapper.findById(session.getBookId());
-        if (book != null) {
-            activity.setBookTitle(book.getTitle());
-            activity.setBookSlug(book.getSlug());
-            activity.setBookCover(book.getCoverImageUrl());
-        }
-
-        activity.setChapterNumber(session.getEndChapter());
-
-        // Hitung durasi
-        int minutes = session.getTotalDurationSeconds() != null ? session.getTotalDurationSeconds() / 60 : 0;
-
-        activity.setDescription(String.format("Membaca selama %d menit", minutes));
-
-        return activity;
-    }
-
-    private List<ReadingActivityResponse> getAnnotationActivities(Long userId, LocalDateTime since) {
-        List<ReadingActivityResponse> activities = new ArrayList<>();
-
-        // Bookmarks
-        List<Bookmark> bookmarks = bookmarkMapper.findByUserSince(userId, since);
-        bookmarks.forEach(b -> activities.add(mapBookmarkToActivity(b)));
-
-        // Highlights
-        List<Highlight> highlights = highlightMapper.findByUserSince(userId, since);
-        highlights.forEach(h -> activities.add(mapHighlightToActivity(h)));
-
-        // Notes
-        List<Note> notes = noteMapper.findByUserSince(userId, since);
-        notes.forEach(n -> activities.add(mapNoteToActivity(n)));
-
-        return activities;
-    }
-
-    private List<ReadingActivityResponse> getReviewActivities(Long userId, LocalDateTime since) {
-        List<ReadingActivityResponse> activities = new ArrayList<>();
-
-        // Ratings
-        List<BookRating> ratings = bookRatingMapper.findByUserSince(userId, since);
-        ratings.forEach(r -> activities.add(mapRatingToActivity(r)));
-
-        // Reviews
-        List<BookReview> reviews = bookReviewMapper.findByUserSince(userId, since);
-        reviews.forEach(r -> activities.add(mapReviewToActivity(r)));
-
-        return activities;
-    }
-
-    private ReadingActivityResponse mapBookmarkToActivity(Bookmark bookmark) {
-        ReadingActivityResponse activity = new ReadingActivityResponse();
-        activity.setActivityId(bookmark.getId());
-        activity.setActivityType("add_bookmark");
-        activity.setTimestamp(bookmark.getCreatedAt());
-        activity.setBookId(bookmark.getBookId());
-        activity.setChapterNumber(bookmark.getChapterNumber());
-        activity.setDescription("Added a bookmark");
-
-        Book book = bookMapper.findById(bookmark.getBookId());
-        if (book != null) {
-            activity.setBookTitle(book.getTitle());
-            activity.setBookSlug(book.getSlug());
-            activity.setBookCover(book.getCoverImageUrl());
-        }
-
-        return activity;
-    }
-
-    private ReadingActivityResponse mapHighlightToActivity(Highlight highlight) {
-        ReadingActivityResponse activity = new ReadingActivityResponse();
-        activity.setActivityId(highlight.getId());
-        activity.setActivityType("add_highlight");
-        activity.setTimestamp(highlight.getCreatedAt());
-        activity.setBookId(highlight.getBookId());
-        activity.setChapterNumber(highlight.getChapterNumber());
-        activity.setDescription("Highlighted text");
-
-        Book book = bookMapper.findById(highlight.getBookId());
-        if (book != null) {
-            activity.setBookTitle(book.getTitle());
-            activity.setBookSlug(book.getSlug());
-            activity.setBookCover(book.getCoverImageUrl());
-        }
-
-        return activity;
-    }
-
-    private ReadingActivityResponse mapNoteToActivity(Note note) {
-        ReadingActivityResponse activity = new ReadingActivityResponse();
-        activity.setActivityId(note.getId());
-        activity.setActivityType("add_note");
-        activity.setTimestamp(note.getCreatedAt());
-        activity.setBookId(note.getBookId());
-        activity.setChapterNumber(note.getChapterNumber());
-        activity.setDescription("Added a note");
-
-        Book book = bookMapper.findById(note.getBookId());
-        if (book != null) {
-            activity.setBookTitle(book.getTitle());
-            activity.setBookSlug(book.getSlug());
-            activity.setBookCover(book.getCoverImageUrl());
-        }
-
-        return activity;
-    }
-
-    private ReadingActivityResponse mapRatingToActivity(BookRating rating) {
-        ReadingActivityResponse activity = new ReadingActivityResponse();
-        activity.setActivityId(rating.getId());
-        activity.setActivityType("add_rating");
-        activity.setTimestamp(rating.getCreatedAt());
-        activity.setBookId(rating.getBookId());
-        activity.setDescription(String.format("Rated %.1f stars", rating.getRating()));
-
-        Book book = bookMapper.findById(rating.getBookId());
-        if (book != null) {
-            activity.setBookTitle(book.getTitle());
-            activity.setBookSlug(book.getSlug());
-            activity.setBookCover(book.getCoverImageUrl());
-        }
-
-        return activity;
-    }
-
-    private ReadingActivityResponse mapReviewToActivity(BookReview review) {
+    private ReadingActivityResponse mapHistoryRow(ReadingHistoryRow row) {
         ReadingActivityResponse activity = new ReadingActivityResponse();
-        activity.setActivityId(review.getId());
-        activity.setActivityType("add_review");
-        activity.setTimestamp(review.getCreatedAt());
-        activity.setBookId(review.getBookId());
-        activity.setDescription("Wrote a review");
 
-        Book book = bookMapper.findById(review.getBookId());
-        if (book != null) {
-            activity.setBookTitle(book.getTitle());
-            activity.setBookSlug(book.getSlug());
-            activity.setBookCover(book.getCoverImageUrl());
-        }
+        activity.setActivityId(row.getActivityId());
+        activity.setActivityType(row.getActivityType());
+        activity.setTimestamp(row.getTimestamp());
+        activity.setBookId(row.getBookId());
+        activity.setBookTitle(row.getBookTitle());
+        activity.setBookSlug(row.getBookSlug());
+        activity.setBookCover(row.getBookCover());
+        activity.setChapterNumber(row.getChapterNumber());
+
+        activity.setDescription(switch (row.getActivityType()) {
+            case "reading_session" -> {
+                // Hitung durasi
+                int minutes = row.getDurationSeconds() != null ? row.getDurationSeconds() / 60 : 0;
+                yield String.format("Membaca selama %d menit", minutes);
+            }
+            case "add_bookmark" -> "Added a bookmark";
+            case "add_highlight" -> "Highlighted text";
+            case "add_note" -> "Added a note";
+            case "add_rating" -> String.format("Rated %.1f stars", row.getRating() != null ? row.getRating() : 0.0);
+            case "add_review" -> "Wrote a review";
+            default -> null;
+        });
 
         return activity;
     }
@@ -1125,42 +934,21 @@ public class DashboardServiceImpl implements DashboardService {
         List<ReadingStatisticsResponse.DailyReadingData> dailyStats = new ArrayList<>();
 
         LocalDate startDate = since.toLocalDate();
+        LocalDate endDate = startDate.plusDays(days - 1L);
         LocalDate today = LocalDate.now();
+        if (endDate.isAfter(today)) endDate = today;
+        if (endDate.isBefore(startDate)) return dailyStats;
 
-        for (int i = 0; i < days; i++) {
-            LocalDate date = startDate.plusDays(i);
-            if (date.isAfter(today)) break;
-
+        // ✅ one range query for every day, empty days included
+        for (DailyActivityRow row : dailyActivityMapper.findDailyActivity(userId, startDate, endDate)) {
             ReadingStatisticsResponse.DailyReadingData data =
                     new ReadingStatisticsResponse.DailyReadingData();
 
-            data.setDate(date.toString());
-
-            LocalDateTime dayStart = date.atStartOfDay();
-            LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
-
-            // Ambil sesi untuk hari ini
-            List<ReadingSession> sessions = sessionMapper.findUserSessionsBetween(userId, dayStart, dayEnd);
-
-            // Hitung total menit membaca
-            int totalMinutes = sessions.stream()
-                    .mapToInt(s -> {
-                        if (s.getTotalDurationSeconds() != null) {
-                            // Konversi detik ke menit
-                            return s.getTotalDurationSeconds() / 60;
-                        }
-                        return 0;
-                    })
-                    .sum();
-
-            data.setMinutesRead(totalMinutes);
-            data.setSessionsCount(sessions.size());
-            data.setHadActivity(totalMinutes > 0);
-
-            // Hitung bab yang selesai dibaca
-            List<ChapterProgress> completed = chapterProgressMapper
-                    .findCompletedBetween(userId, dayStart, dayEnd);
-            data.setChaptersCompleted(completed.size());
+            data.setDate(row.getDay().toString());
+            data.setMinutesRead(row.getMinutesRead());
+            data.setSessionsCount(row.getSessionsCount());
+            data.setHadActivity(row.getMinutesRead() > 0);
+            data.setChaptersCompleted(row.getChaptersCompleted());
 
             dailyStats.add(data);
         }
@@ -1171,45 +959,23 @@ public class DashboardServiceImpl implements DashboardService {
     private List<ReadingStatisticsResponse.WeeklyReadingData> buildWeeklyStats(Long userId, LocalDateTime since) {
         List<ReadingStatisticsResponse.WeeklyReadingData> weeklyStats = new ArrayList<>();
 
-        LocalDate startDate = since.toLocalDate();
+        LocalDate weekStart = since.toLocalDate().with(DayOfWeek.MONDAY);
         LocalDate today = LocalDate.now();
 
-        LocalDate weekStart = startDate.with(DayOfWeek.MONDAY);
-
-        while (!weekStart.isAfter(today)) {
-            LocalDate weekEnd = weekStart.plusDays(6);
-
+        // ✅ one range query for every week, empty weeks included
+        for (WeeklyActivityRow row : dailyActivityMapper.findWeeklyActivity(userId, weekStart, today)) {
             ReadingStatisticsResponse.WeeklyReadingData data = new ReadingStatisticsResponse.WeeklyReadingData();
 
-            data.setWeekStart(weekStart.toString());
-            data.setWeekEnd(weekEnd.toString());
-
-            // Ambil sesi untuk minggu ini
-            List<ReadingSession> sessions = sessionMapper.findUserSessionsBetween(userId, weekStart.atStartOfDay(), weekEnd.plusDays(1).atStartOfDay());
-
-            // Hitung total menit membaca
-            int totalMinutes = sessions.stream()
-                    .mapToInt(s -> {
-                        if (s.getTotalDurationSeconds() != null) {
-                            // Konversi detik ke menit
-                            return s.getTotalDurationSeconds() / 60;
-                        }
-                        return 0;
-                    })
-                    .sum();
-
-            data.setMinutesRead(totalMinutes);
+            data.setWeekStart(row.getWeekStart().toString());
+            data.setWeekEnd(row.getWeekStart().plusDays(6).toString());
+            data.setMinutesRead(row.getMinutesRead());
 
-            // Hitung rata-rata harian (dengan pengecekan untuk menghindari division by zero)
+            // Hitung rata-rata harian
             int daysInWeek = 7;
-            data.setAverageDailyMinutes(totalMinutes / daysInWeek);
-
-            // Hitung buku yang selesai dibaca minggu ini
-            int booksCompleted = chapterProgressMapper.countBooksCompletedBetween(userId, weekStart.atStartOfDay(), weekEnd.plusDays(1).atStartOfDay());
-            data.setBooksCompleted(booksCompleted);
+            data.setAverageDailyMinutes(row.getMinutesRead() / daysInWeek);
+            data.setBooksCompleted(row.getBooksCompleted());
 
             weeklyStats.add(data);
-            weekStart = weekStart.plusWeeks(1);
         }
 
         return weeklyStats;
@@ -1218,11 +984,12 @@ public class DashboardServiceImpl implements DashboardService {
     private ReadingStatisticsResponse.TrendData calculateTimeTrend(Long userId, int period) {
         ReadingStatisticsResponse.TrendData trend = new ReadingStatisticsResponse.TrendData();
 
-        LocalDateTime halfPoint = LocalDateTime.now().minusDays(period / 2);
-        LocalDateTime start = LocalDateTime.now().minusDays(period);
+        LocalDate today = LocalDate.now();
+        LocalDate halfPoint = today.minusDays(period / 2);
+        LocalDate start = today.minusDays(period);
 
-        Integer firstHalfMinutes = activityMapper.getTotalMinutesBetween(userId, start, halfPoint);
-        Integer secondHalfMinutes = activityMapper.getTotalMinutesBetween(userId, halfPoint, LocalDateTime.now());
+        int firstHalfMinutes = dailyStatsMapper.sumMinutes(userId, start, halfPoint.minusDays(1));
+        int secondHalfMinutes = dailyStatsMapper.sumMinutes(userId, halfPoint, today);
 
         if (firstHalfMinutes > 0) {
             double change = ((secondHalfMinutes - firstHalfMinutes) * 100.0) / firstHalfMinutes;
@@ -1250,11 +1017,12 @@ public class DashboardServiceImpl implements DashboardService {
     private ReadingStatisticsResponse.TrendData calculateCompletionTrend(Long userId, int period) {
         ReadingStatisticsResponse.TrendData trend = new ReadingStatisticsResponse.TrendData();
 
-        LocalDateTime halfPoint = LocalDateTime.now().minusDays(period / 2);
-        LocalDateTime start = LocalDateTime.now().minusDays(period);
+        LocalDate today = LocalDate.now();
+        LocalDate halfPoint = today.minusDays(period / 2);
+        LocalDate start = today.minusDays(period);
 
-        int firstHalf = chapterProgressMapper.countBooksCompletedBetween(userId, start, halfPoint);
-        int secondHalf = chapterProgressMapper.countBooksCompletedBetween(userId, halfPoint, LocalDateTime.now());
+        int firstHalf = dailyStatsMapper.summarize(userId, start, halfPoint.minusDays(1)).getBooksCompleted();
+        int secondHalf = dailyStatsMapper.summarize(userId, halfPoint, today).getBooksCompleted();
 
         if (firstHalf > 0) {
             double change = ((secondHalf - firstHalf) * 100.0) / firstHalf;
@@ -1282,16 +1050,15 @@ public class DashboardServiceImpl implements DashboardService {
     private ReadingStatisticsResponse.TrendData calculateSpeedTrend(Long userId, int period) {
         ReadingStatisticsResponse.TrendData trend = new ReadingStatisticsResponse.TrendData();
 
-        LocalDateTime halfPoint = LocalDateTime.now().minusDays(period / 2);
-        LocalDateTime start = LocalDateTime.now().minusDays(period);
+        LocalDate today = LocalDate.now();
+        LocalDate halfPoint = today.minusDays(period / 2);
+        LocalDate start = today.minusDays(period);
 
         // Get speed for first half
-        Map<String, Object> firstHalf = activityMapper.getUserActivitySummary(userId, start, halfPoint);
-        double firstHalfSpeed = getDoubleValue(firstHalf.get("avg_speed"));
+        double firstHalfSpeed = averageSpeed(dailyStatsMapper.summarize(userId, start, halfPoint.minusDays(1)));
 
         // Get speed for second half
-        Map<String, Object> secondHalf = activityMapper.getUserActivitySummary(userId, halfPoint, LocalDateTime.now());
-        double secondHalfSpeed = getDoubleValue(secondHalf.get("avg_speed"));
+        double secondHalfSpeed = averageSpeed(dailyStatsMapper.summarize(userId, halfPoint, today));
 
         if (firstHalfSpeed > 0) {
             double change = ((secondHalfSpeed - firstHalfSpeed) * 100.0) / firstHalfSpeed;
@@ -1316,112 +1083,22 @@ public class DashboardServiceImpl implements DashboardService {
         return trend;
     }
 
-    private List<ReadingStatisticsResponse.GenreStats> buildGenreBreakdown(Long userId, LocalDateTime since) {
-        Map<String, ReadingStatisticsResponse.GenreStats> genreMap = new HashMap<>();
-
-        // Ambil semua sesi membaca sejak tanggal tertentu
-        List<ReadingSession> sessions = sessionMapper.findUserSessionsSince(userId, since, 0, Integer.MAX_VALUE);
-
-        // Set untuk melacak buku yang sudah dihitung (hindari duplikasi)
-        Set<Long> countedBooks = new HashSet<>();
-
-        for (ReadingSession session : sessions) {
-            Book book = bookMapper.findById(session.getBookId());
-            if (book == null) continue;
-
-            // Hindari menghitung buku yang sama berulang kali
-            if (!countedBooks.contains(book.getId())) {
-                countedBooks.add(book.getId());
-
-                List<Genre> genres = bookMapper.getBookGenres(book.getId());
-                if (genres.isEmpty()) continue;
-
-                // Ambil genre pertama (atau bisa diubah untuk menangani multiple genres)
-                String genreName = genres.getFirst().getName();
-
-                ReadingStatisticsResponse.GenreStats stats = genreMap.computeIfAbsent(
-                        genreName, k -> {
-                            ReadingStatisticsResponse.GenreStats s = new ReadingStatisticsResponse.GenreStats();
-                            s.setGenreName(genreName);
-                            s.setBooksRead(0);
-                            s.setMinutesSpent(0);
-                            s.setAverageRating(0.0);
-                            return s;
-                        });
-
-                stats.setBooksRead(stats.getBooksRead() + 1);
-            }
-
-            // Tambahkan waktu membaca (setiap sesi dihitung)
-            String genreName;
-            Book bookForSession = bookMapper.findById(session.getBookId());
-            if (bookForSession != null) {
-                List<Genre> genres = bookMapper.getBookGenres(bookForSession.getId());
-                if (!genres.isEmpty()) {
-                    genreName = genres.getFirst().getName();
-
-                    ReadingStatisticsResponse.GenreStats stats = genreMap.get(genreName);
-                    if (stats != null) {
-                        int minutesSpent = (session.getTotalDurationSeconds() != null) ? session.getTotalDurationSeconds() / 60 : 0;
-                        stats.setMinutesSpent(stats.getMinutesSpent() + minutesSpent);
-                    }
-                }
-            }
-        }
-
-        // Hitung persentase
-        int totalMinutes = genreMap.values().stream()
-                .mapToInt(ReadingStatisticsResponse.GenreStats::getMinutesSpent)
-                .sum();
-
-        genreMap.values().forEach(stats -> {
-            if (totalMinutes > 0) {
-                stats.setPercentage((stats.getMinutesSpent() * 100.0) / totalMinutes);
-            } else {
-                stats.setPercentage(0.0);
-            }
-
-            // Hitung rata-rata rating untuk genre ini
-            Double avgRating = calculateAverageRatingForGenre(userId, stats.getGenreName(), since);
-            stats.setAverageRating(avgRating != null ? avgRating : 0.0);
-        });
-
-        // Urutkan berdasarkan persentase (dari terbesar)
-        return genreMap.values().stream()
-                .sorted((g1, g2) -> Double.compare(g2.getPercentage(), g1.getPercentage()))
-                .toList();
-    }
-
-    private Double calculateAverageRatingForGenre(Long userId, String genreName, LocalDateTime since) {
-        try {
-            // Ambil semua buku dengan genre tertentu yang telah dibaca user
-            List<Book> booksInGenre = bookMapper.findBooksByGenreAndUser(userId, genreName, since);
-
-            if (booksInGenre.isEmpty()) {
-                return null;
-            }
-
-            // Hitung total rating
-            double totalRating = 0;
-            int ratedBooks = 0;
-
-            for (Book book : booksInGenre) {
-                BookRating rating = bookRatingMapper.findByUserAndBook(userId, book.getId());
-                if (rating != null && rating.getRating() != null) {
-                    totalRating += rating.getRating();
-                    ratedBooks++;
-                }
-            }
-
-            if (ratedBooks > 0) {
-                return totalRating / ratedBooks;
-            }
-
-            return null;
-        } catch (Exception e) {
-            // Log error jika diperlukan
-            return null;
+    private List<ReadingStatisticsResponse.GenreStats> buildGenreBreakdown(Long userId, LocalDateTime since, int period) {
+        // ✅ one aggregate query, cached until the user's next session completes
+        List<GenreBreakdownRow> rows = readingStatsCacheService.get(userId, "genres:" + period,
+                () -> sessionMapper.findGenreBreakdown(userId, since));
+
+        List<ReadingStatisticsResponse.GenreStats> breakdown = new ArrayList<>(rows.size());
+        for (GenreBreakdownRow row : rows) {
+            ReadingStatisticsResponse.GenreStats stats = new ReadingStatisticsResponse.GenreStats();
+            stats.setGenreName(row.getGenreName());
+            stats.setBooksRead(row.getBooksRead());
+            stats.setMinutesSpent(row.getMinutesSpent());
+            stats.setPercentage(row.getPercentage());
+            stats.setAverageRating(row.getAverageRating());
+            breakdown.add(stats);
         }
+        return breakdown;
     }
 
     private List<ReadingStatisticsResponse.TimeSlotStats> buildPeakTimes(Long userId, LocalDateTime since) {
@@ -1673,28 +1350,12 @@ public class DashboardServiceImpl implements DashboardService {
     // CALENDAR HELPERS
     // ═══════════════════════════════════════════════════════════
 
-    private ReadingCalendarResponse.CalendarDay buildCalendarDay(Long userId, LocalDate date) {
+    private ReadingCalendarResponse.CalendarDay buildCalendarDay(DailyActivityRow row) {
         ReadingCalendarResponse.CalendarDay day = new ReadingCalendarResponse.CalendarDay();
 
-        day.setDate(date.toString());
-
-        LocalDateTime dayStart = date.atStartOfDay();
-        LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
-
-        // Ambil sesi untuk hari ini
-        List<ReadingSession> sessions = sessionMapper.findUserSessionsBetween(userId, dayStart, dayEnd);
-
-        // Hitung total menit membaca
-        int totalMinutes = sessions.stream()
-                .mapToInt(s -> {
-                    if (s.getTotalDurationSeconds() != null) {
-                        // Konversi detik ke menit
-                        return s.getTotalDurationSeconds() / 60;
-                    }
-                    return 0;
-                })
-                .sum();
+        day.setDate(row.getDay().toString());
 
+        int totalMinutes = row.getMinutesRead();
         day.setMinutesRead(totalMinutes);
         day.setHasActivity(totalMinutes > 0);
 
@@ -1717,62 +1378,25 @@ public class DashboardServiceImpl implements DashboardService {
             activities.add(String.format("Membaca %d menit", totalMinutes));
 
             // Tambahkan info jumlah bab yang dibaca jika tersedia
-            int totalChapters = sessions.stream()
-                    .mapToInt(s -> s.getChaptersRead() != null ? s.getChaptersRead() : 0)
-                    .sum();
-            if (totalChapters > 0) {
-                activities.add(String.format("%d bab", totalChapters));
+            if (row.getChaptersRead() > 0) {
+                activities.add(String.format("%d bab", row.getChaptersRead()));
             }
         }
 
-        // Cek aktivitas lain (bookmark, highlight, dll)
-        // Bookmark
-        List<Bookmark> bookmarks = bookmarkMapper.findByUserSince(userId, dayStart);
-        if (bookmarks != null) {
-            long bookmarkCount = bookmarks.stream()
-                    .filter(b -> b != null && b.getCreatedAt() != null)
-                    .filter(b -> b.getCreatedAt().isAfter(dayStart) &&
-                            b.getCreatedAt().isBefore(dayEnd))
-                    .count();
-            if (bookmarkCount > 0) {
-                activities.add(String.format("%d bookmark", bookmarkCount));
-            }
+        // Aktivitas lain (bookmark, highlight, catatan)
+        if (row.getBookmarksCount() > 0) {
+            activities.add(String.format("%d bookmark", row.getBookmarksCount()));
         }
-
-        // Highlight (jika ada)
-        if (highlightMapper != null) {
-            List<Highlight> highlights = highlightMapper.findByUserSince(userId, dayStart);
-            if (highlights != null) {
-                long highlightCount = highlights.stream()
-                        .filter(h -> h != null && h.getCreatedAt() != null)
-                        .filter(h -> h.getCreatedAt().isAfter(dayStart) &&
-                                h.getCreatedAt().isBefore(dayEnd))
-                        .count();
-                if (highlightCount > 0) {
-                    activities.add(String.format("%d highlight", highlightCount));
-                }
-            }
+        if (row.getHighlightsCount() > 0) {
+            activities.add(String.format("%d highlight", row.getHighlightsCount()));
         }
-
-        // Note (jika ada)
-        if (noteMapper != null) {
-            List<Note> notes = noteMapper.findByUserSince(userId, dayStart);
-            if (notes != null) {
-                long noteCount = notes.stream()
-                        .filter(n -> n != null && n.getCreatedAt() != null)
-                        .filter(n -> n.getCreatedAt().isAfter(dayStart) &&
-                                n.getCreatedAt().isBefore(dayEnd))
-                        .count();
-                if (noteCount > 0) {
-                    activities.add(String.format("%d catatan", noteCount));
-                }
-            }
+        if (row.getNotesCount() > 0) {
+            activities.add(String.format("%d catatan", row.getNotesCount()));
         }
 
         // Hitung jumlah sesi membaca
-        int sessionCount = sessions.size();
-        if (sessionCount > 0) {
-            activities.add(String.format("%d sesi", sessionCount));
+        if (row.getSessionsCount() > 0) {
+            activities.add(String.format("%d sesi", row.getSessionsCount()));
         }
 
         day.setActivities(activities);
@@ -1780,159 +1404,10 @@ public class DashboardServiceImpl implements DashboardService {
         return day;
     }
 
-    private Integer calculateStreakInPeriod(List<ReadingCalendarResponse.CalendarDay> days) {
-
-        int maxStreak = 0;
-        int currentStreak = 0;
-
-        for (ReadingCalendarResponse.CalendarDay day : days) {
-            if (Boolean.TRUE.equals(day.getHasActivity())) {
-                currentStreak++;
-                maxStreak = Math.max(maxStreak, currentStreak);
-            } else {
-                currentStreak = 0;
-            }
-        }
-
-        return maxStreak;
-    }
-
     // ═══════════════════════════════════════════════════════════
     // ACHIEVEMENT HELPERS
     // ═══════════════════════════════════════════════════════════
 
-    private List<AchievementResponse> calculateReadingAchievements(Long userId) {
-        List<AchievementResponse> achievements = new ArrayList<>();
-
-        int totalBooks = chapterProgressMapper.countCompletedBooks(userId);
-        Integer totalMinutes = activityMapper.getUserTotalReadingMinutes(userId);
-        int totalHours = totalMinutes != null ? totalMinutes / 60 : 0;
-
-        // First Book
-        achievements.add(createAchievement(
-                "first_book", READING, "First Book",
-                "Complete your first book", BRONZE,
-                1, totalBooks, 1));
-
-        // Bookworm - 10 books
-        achievements.add(createAchievement(
-                "bookworm", READING, "Bookworm",
-                "Complete 10 books", SILVER,
-                10, totalBooks, 10));
-
-        // Book Master - 50 books
-        achievements.add(createAchievement(
-                "book_master", READING, "Book Master",
-                "Complete 50 books", "gold",
-                50, totalBooks, 20));
-
-        // 10 Hours
-        achievements.add(createAchievement(
-                "10_hours", READING, "10 Hours",
-                "Read for 10 hours", BRONZE,
-                10, totalHours, 5));
-
-        // 100 Hours
-        achievements.add(createAchievement(
-                "100_hours", READING, "Century Reader",
-                "Read for 100 hours", SILVER,
-                100, totalHours, 15));
-
-        // 1000 Hours
-        achievements.add(createAchievement(
-                "1000_hours", READING, "Millennium Reader",
-                "Read for 1000 hours", "gold",
-                1000, totalHours, 30));
-
-        return achievements;
-    }
-
-    private List<AchievementResponse> calculateStreakAchievements(Long userId) {
-        List<AchievementResponse> achievements = new ArrayList<>();
-
-        Integer currentStreak = calculateCurrentStreak(userId);
-        Integer longestStreak = calculateLongestStreak(userId);
-
-        // 7-day streak
-        achievements.add(createAchievement(
-                "streak_7", READING, "Week Warrior",
-                "Read 7 days in a row", BRONZE,
-                7, currentStreak, 5));
-
-        // 30-day streak
-        achievements.add(createAchievement(
-                "streak_30", READING, "Monthly Master",
-                "Read 30 days in a row", SILVER,
-                30, currentStreak, 15));
-
-        // 100-day streak
-        achievements.add(createAchievement(
-                "streak_100", READING, "Centurion",
-                "Read 100 days in a row", "gold",
-                100, longestStreak, 25));
-
-        return achievements;
-    }
-
-    private List<AchievementResponse> calculateSocialAchievements(Long userId) {
-        List<AchievementResponse> achievements = new ArrayList<>();
-
-        int reviewCount = bookReviewMapper.countByUser(userId);
-        int highlightCount = highlightMapper.countByUser(userId);
-
-        // First Review
-        achievements.add(createAchievement(
-                "first_review", "social", "Critic's Corner",
-                "Write your first review", BRONZE,
-                1, reviewCount, 5));
-
-        // 10 Reviews
-        achievements.add(createAchievement(
-                "10_reviews", "social", "Book Critic",
-                "Write 10 reviews", SILVER,
-                10, reviewCount, 10));
-
-        // Highlighter
-        achievements.add(createAchievement(
-                "highlighter", "contribution", "Highlighter",
-                "Create 50 highlights", SILVER,
-                50, highlightCount, 10));
-
-        return achievements;
-    }
-
-    private AchievementResponse createAchievement(String id, String category, String title, String description, String tier, int target, int current, int points) {
-        AchievementResponse achievement = new AchievementResponse();
-
-        achievement.setAchievementId(id);
-        achievement.setCategory(category);
-        achievement.setTitle(title);
-        achievement.setDescription(description);
-        achievement.setTier(tier);
-        achievement.setPoints(points);
-        achievement.setTargetProgress(target);
-        achievement.setCurrentProgress(Math.min(current, target));
-        achievement.setProgressPercentage((current * 100.0) / target);
-        achievement.setIsUnlocked(current >= target);
-
-        if (current >= target) {
-            // Would normally get from database
-            achievement.setUnlockedAt(LocalDateTime.now());
-        }
-
-        // Badge URL
-        achievement.setBadgeUrl(String.format("/badges/%s_%s.png", id, tier));
-
-        // Rarity (simplified)
-        achievement.setRarityPercentage(switch (tier.toLowerCase()) {
-            case BRONZE -> 60;
-            case SILVER -> 30;
-            default -> 10;
-        });
-
-        return achievement;
-    }
-
     private UserReadingDashboardResponse.RecentAchievement mapToRecentAchievement(AchievementResponse achievement) {
         UserReadingDashboardResponse.RecentAchievement recent = new UserReadingDashboardResponse.RecentAchievement();
 
@@ -2008,94 +1483,24 @@ public class DashboardServiceImpl implements DashboardService {
     // ═══════════════════════════════════════════════════════════
 
     private Integer calculateCurrentStreak(Long userId) {
-        LocalDate today = LocalDate.now();
-        int streak = 0;
-
-        // Check if user has activity today
-        LocalDateTime todayStart = today.atStartOfDay();
-        Boolean hasToday = activityMapper.hasActivitySince(userId, todayStart);
-
-        if (Boolean.FALSE.equals(hasToday)) {
-            // Check yesterday
-            LocalDateTime yesterdayStart = today.minusDays(1).atStartOfDay();
-            Boolean hasYesterday = activityMapper.hasActivitySince(userId, yesterdayStart);
-            if (Boolean.FALSE.equals(hasYesterday)) {
-                return 0; // Streak broken
-            }
-        }
-
-        // Count backwards from today
-        LocalDate checkDate = today;
-        while (true) {
-            LocalDateTime dayStart = checkDate.atStartOfDay();
-            LocalDateTime dayEnd = checkDate.plusDays(1).atStartOfDay();
-
-            List<ReadingSession> sessions = sessionMapper.findUserSessionsBetween(userId, dayStart, dayEnd);
-
-            if (sessions.isEmpty()) {
-                break;
-            }
-
-            streak++;
-            checkDate = checkDate.minusDays(1);
-
-            // Limit to reasonable check (e.g., 365 days)
-            if (streak > 365) break;
-        }
-
-        return streak;
+        return activityStreakService.getBitmap(userId).currentStreak(LocalDate.now());
     }
 
     private Integer calculateLongestStreak(Long userId) {
-        // Simplified - would need more efficient query in production
-        List<ReadingSession> allSessions = sessionMapper.findUserSessionsSince(userId, LocalDateTime.now().minusYears(2), 0, Integer.MAX_VALUE);
-
-        if (allSessions.isEmpty()) return 0;
-
-        // Group by date
-        Map<LocalDate, Boolean> activityMap = new HashMap<>();
-        allSessions.forEach(session -> activityMap.put(session.getStartedAt().toLocalDate(), true));
-
-        // Find longest streak
-        int maxStreak = 0;
-        int currentStreak = 0;
-
-        LocalDate startDate = allSessions.stream()
-                .map(s -> s.getStartedAt().toLocalDate())
-                .min(Comparator.naturalOrder())
-                .orElse(LocalDate.now());
-
-        for (LocalDate date = startDate; !date.isAfter(LocalDate.now());
-             date = date.plusDays(1)) {
-
-            if (activityMap.containsKey(date)) {
-                currentStreak++;
-                maxStreak = Math.max(maxStreak, currentStreak);
-            } else {
-                currentStreak = 0;
-            }
-        }
-
-        return maxStreak;
+        return activityStreakService.getBitmap(userId).longestStreak();
     }
 
     // ═══════════════════════════════════════════════════════════
     // UTILITY HELPERS
     // ═══════════════════════════════════════════════════════════
 
-    private boolean isBookInProgress(Long userId, Long bookId) {
-        List<ChapterProgress> progress = chapterProgressMapper.findAllByUserAndBook(userId, bookId);
-
-        if (progress.isEmpty()) return false;
-
-        long completed = progress.stream()
-                .filter(ChapterProgress::getIsCompleted)
-                .count();
-
-        Book book = bookMapper.findById(bookId);
-        if (book == null) return false;
-
-        return completed > 0 && completed < book.getTotalPages();
+    /**
+     * Library size for a filter; a user whose library was never built (first visit, or history that predates
+     * user_library) gets it materialised once here.
+     */
+    private int countLibrary(Long userId, String filter) {
+        userLibraryService.ensureBuilt(userId);
+        return userLibraryMapper.countLibrary(userId, filter);
     }
 
     private boolean isBookCompleted(Long userId, Long bookId) {
@@ -2136,22 +1541,12 @@ public class DashboardServiceImpl implements DashboardService {
         return String.format("%dm", mins);
     }
 
-    private Integer getIntValue(Object value) {
-        return switch (value) {
-            case Integer i -> i;
-            case Long l -> l.intValue();
-            case Double v -> v.intValue();
-            case null, default -> 0;
-        };
-    }
-
-    private Double getDoubleValue(Object value) {
-        return switch (value) {
-            case Double v -> v;
-            case Integer i -> i.doubleValue();
-            case Long l -> l.doubleValue();
-            case null, default -> 0.0;
-        };
+    /** Words per minute over the summarised days; 200 wpm when nothing was read yet */
+    private Double averageSpeed(DailyStatsSummaryRow summary) {
+        if (summary.getReadingSeconds() == null || summary.getReadingSeconds() == 0) {
+            return 200.0;
+        }
+        return Math.round(summary.getWordsRead() * 6000.0 / summary.getReadingSeconds()) / 100.0;
     }
 
     // ═══════════════════════════════════════════════════════════
@@ -7,6 +7,8 @@ import com.naskah.demo.model.dto.response.*;
 import com.naskah.demo.model.entity.*;
 import com.naskah.demo.service.KiosService;
 import com.naskah.demo.model.dto.FileStorageResult;
+import com.naskah.demo.util.ApproximateCountCache;
+import com.naskah.demo.util.CursorUtil;
 import com.naskah.demo.util.file.FileUtil;
 import com.naskah.demo.util.interceptor.HeaderHolder;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +21,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -40,6 +43,10 @@ public class KiosServiceImpl implements KiosService {
 
     private static final String SUCCESS = "Success";
 
+    // rows without a created_at sort last under "newest"; must match the COALESCE in the cursor query
+    private static final LocalDateTime NO_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private final ApproximateCountCache productCountCache = new ApproximateCountCache(Duration.ofMinutes(5).toMillis());
+
     // ============ PRODUCT MANAGEMENT ============
 
     @Override
@@ -132,6 +139,69 @@ public class KiosServiceImpl implements KiosService {
         }
     }
 
+    /**
+     * ✅ Keyset paging (sort: newest | price | bestselling), stable on id; total is optional and cached for a few minutes
+     */
+    @Override
+    public DataResponse<CursorPageResponse<KiosProductResponse>> getProductsByCursor(String sort, String cursor, int limit, boolean includeTotal,
+                                                                                    String search, String category, String productType, Boolean inStock) {
+        if (limit < 1 || limit > 100) {
+            throw new InvalidDataException();
+        }
+
+        String sortKey = switch (sort == null ? "" : sort.toLowerCase()) {
+            case "price" -> "price";
+            case "bestselling" -> "bestselling";
+            default -> "newest";
+        };
+
+        LocalDateTime cursorTime = null;
+        BigDecimal cursorNumber = null;
+        Long cursorId = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            List<String> parts = CursorUtil.decode(cursor, 3);
+            if (!sortKey.equals(parts.get(0))) {
+                throw new InvalidDataException();
+            }
+            try {
+                if ("newest".equals(sortKey)) {
+                    cursorTime = LocalDateTime.parse(parts.get(1));
+                } else {
+                    cursorNumber = new BigDecimal(parts.get(1));
+                }
+                cursorId = Long.valueOf(parts.get(2));
+            } catch (RuntimeException e) {
+                throw new InvalidDataException();
+            }
+        }
+
+        List<KiosProductResponse> rows = productMapper.getProductsByCursor(
+                search, category, productType, inStock, sortKey, cursorTime, cursorNumber, cursorId, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<KiosProductResponse> products = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            KiosProductResponse last = products.getLast();
+            Object key = switch (sortKey) {
+                case "price" -> last.getFinalPrice();
+                case "bestselling" -> last.getSoldCount() != null ? last.getSoldCount() : 0;
+                default -> last.getCreatedAt() != null ? last.getCreatedAt() : NO_CREATED_AT;
+            };
+            nextCursor = CursorUtil.encode(sortKey, key, last.getId());
+        }
+
+        Integer approximateTotal = includeTotal
+                ? productCountCache.get(String.join("|", String.valueOf(search), String.valueOf(category),
+                        String.valueOf(productType), String.valueOf(inStock)),
+                () -> productMapper.countProductsWithFilters(search, category, productType, inStock))
+                : null;
+
+        CursorPageResponse<KiosProductResponse> data = new CursorPageResponse<>(limit, nextCursor, hasMore, approximateTotal, products);
+        return new DataResponse<>(SUCCESS, ResponseMessage.DATA_FETCHED, HttpStatus.OK.value(), data);
+    }
+
     @Override
     public DataResponse<KiosProductResponse> getProductBySlug(String slug) {
         try {
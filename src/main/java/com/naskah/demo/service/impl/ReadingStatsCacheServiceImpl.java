@@ -0,0 +1,78 @@
+package com.naskah.demo.service.impl;
+
+import com.naskah.demo.service.ReadingStatsCacheService;
+import com.naskah.demo.util.SearchResultCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache for derived reading statistics. Entries are keyed by the user's generation, which is
+ * bumped when one of their reading sessions completes, so evicting a user is O(1) and their stale
+ * entries simply age out of the LRU.
+ * <p>
+ * Generations come from one global sequence and are never reused, so a user's generation can be forgotten
+ * once every entry cached before its last bump has expired: that user falls back to generation 0, whose
+ * entries are older still.
+ */
+@Slf4j
+@Service
+public class ReadingStatsCacheServiceImpl implements ReadingStatsCacheService {
+
+    private record Generation(long value, long bumpedAt) {
+    }
+
+    @Value("${reading-stats.cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${reading-stats.cache.max-entries:5000}")
+    private int maxEntries;
+
+    private final Map<Long, Generation> generations = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong nextPruneAt = new AtomicLong();
+    private SearchResultCache cache;
+    private long ttlMillis;
+
+    @PostConstruct
+    void init() {
+        ttlMillis = ttlMinutes * 60_000;
+        cache = new SearchResultCache(ttlMillis, maxEntries);
+    }
+
+    @Override
+    public <T> T get(Long userId, String key, Supplier<T> loader) {
+        Generation generation = generations.get(userId);
+        return cache.get(userId + ":" + (generation != null ? generation.value() : 0L) + ":" + key, loader);
+    }
+
+    @Override
+    public void evict(Long userId) {
+        long now = System.currentTimeMillis();
+        generations.put(userId, new Generation(sequence.incrementAndGet(), now));
+        log.debug("Reading stats cache evicted for user {}", userId);
+        prune(now);
+    }
+
+    /**
+     * Forgets generations bumped more than two TTLs ago (the second covers a load that was still running at
+     * the bump) once the map outgrows the cache, at most once a minute so a burst of evictions doesn't
+     * rescan it every time.
+     */
+    private void prune(long now) {
+        long due = nextPruneAt.get();
+        if (generations.size() <= maxEntries || now < due || !nextPruneAt.compareAndSet(due, now + 60_000)) {
+            return;
+        }
+
+        int before = generations.size();
+        generations.values().removeIf(g -> g.bumpedAt() <= now - 2 * ttlMillis);
+        log.debug("Pruned {} reading stats cache generations", before - generations.size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.naskah.demo.service.impl;
+
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.model.dto.response.SearchCacheStatsResponse;
+import com.naskah.demo.model.enums.SearchCacheRegion;
+import com.naskah.demo.service.SearchCacheService;
+import com.naskah.demo.util.SearchResultCache;
+import com.naskah.demo.util.TransactionUtil;
+import com.naskah.demo.util.interceptor.HeaderHolder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Result cache in front of the search queries, one {@link SearchResultCache} per region so an article
+ * write does not throw away cached book searches and vice versa.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchCacheServiceImpl implements SearchCacheService {
+    private final HeaderHolder headerHolder;
+    private static final String SUCCESS = "Success";
+
+    @Value("${search.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${search.cache.max-entries:2000}")
+    private int maxEntries;
+
+    private final Map<SearchCacheRegion, SearchResultCache> caches = new EnumMap<>(SearchCacheRegion.class);
+
+    @PostConstruct
+    void init() {
+        for (SearchCacheRegion region : SearchCacheRegion.values()) {
+            caches.put(region, new SearchResultCache(ttlSeconds * 1000, maxEntries));
+        }
+    }
+
+    @Override
+    public <T> T get(SearchCacheRegion region, String key, Supplier<T> loader) {
+        return caches.get(region).get(key, loader);
+    }
+
+    /**
+     * Bumps the region's generation once the caller's transaction has finished. Bumping before the commit
+     * would let a concurrent search re-cache the pre-write rows under the new generation.
+     */
+    @Override
+    public void invalidate(SearchCacheRegion region) {
+        TransactionUtil.afterCompletion(() -> {
+            caches.get(region).invalidateAll();
+            log.debug("Search cache region {} invalidated", region);
+        });
+    }
+
+    @Override
+    public DataResponse<List<SearchCacheStatsResponse>> getStats() {
+        headerHolder.requireAdmin();
+
+        List<SearchCacheStatsResponse> stats = new ArrayList<>();
+        for (Map.Entry<SearchCacheRegion, SearchResultCache> entry : caches.entrySet()) {
+            SearchResultCache cache = entry.getValue();
+            stats.add(new SearchCacheStatsResponse(entry.getKey().name(), cache.size(), cache.getGeneration(),
+                    cache.getHits(), cache.getMisses(), cache.getHitRatio()));
+        }
+
+        return new DataResponse<>(SUCCESS, "Search cache statistics retrieved successfully", HttpStatus.OK.value(), stats);
+    }
+}
@@ -0,0 +1,265 @@
+package com.naskah.demo.service.impl;
+
+import com.naskah.demo.exception.custom.InvalidDataException;
+import com.naskah.demo.mapper.SuggestMapper;
+import com.naskah.demo.model.dto.SuggestRow;
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.model.dto.response.SuggestionResponse;
+import com.naskah.demo.service.SuggestService;
+import com.naskah.demo.util.TransactionUtil;
+import com.naskah.demo.util.search.SuggestTrie;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Typeahead over book titles, author names, newspaper headlines and blog titles, served entirely from an
+ * in-memory {@link SuggestTrie}. Writes patch the trie in place; popularity weights drift with views, so
+ * the whole trie is rebuilt in the background once it is older than the configured interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SuggestServiceImpl implements SuggestService {
+    private final SuggestMapper suggestMapper;
+    private static final String SUCCESS = "Success";
+
+    private static final String BOOK = "book";
+    private static final String AUTHOR = "author";
+    private static final String ARTICLE = "article";
+    private static final String POST = "post";
+    private static final Set<String> TYPES = Set.of(BOOK, AUTHOR, ARTICLE, POST);
+
+    @Value("${suggest.top-k:10}")
+    private int topK;
+
+    @Value("${suggest.rebuild-interval-minutes:60}")
+    private long rebuildIntervalMinutes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService rebuildRunner = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Set<String> refreshedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile SuggestTrie trie;
+    private volatile long builtAt;
+
+    @Override
+    public DataResponse<List<SuggestionResponse>> suggest(String query, int limit, String types) {
+        if (limit < 1 || limit > topK) {
+            throw new InvalidDataException();
+        }
+
+        Set<String> typeFilter = parseTypes(types);
+        ensureLoaded();
+
+        List<SuggestTrie.Entry> entries;
+        lock.readLock().lock();
+        try {
+            entries = trie.suggest(query, limit, typeFilter);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<SuggestionResponse> suggestions = new ArrayList<>(entries.size());
+        for (SuggestTrie.Entry entry : entries) {
+            suggestions.add(new SuggestionResponse(entry.type(), entry.id(), entry.label(), entry.slug()));
+        }
+
+        return new DataResponse<>(SUCCESS, "Suggestions retrieved successfully", HttpStatus.OK.value(), suggestions);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildRunner.shutdownNow();
+    }
+
+    // writes patch the trie once their transaction has committed, so it never holds rolled-back rows
+
+    @Override
+    public void refreshBook(Long bookId) {
+        TransactionUtil.afterCommit(() -> applyBook(bookId));
+    }
+
+    @Override
+    public void removeBook(Long bookId) {
+        TransactionUtil.afterCommit(() -> remove(BOOK, bookId));
+    }
+
+    @Override
+    public void refreshArticle(Long articleId) {
+        TransactionUtil.afterCommit(() -> refresh(ARTICLE, articleId, suggestMapper::findArticles));
+    }
+
+    @Override
+    public void refreshBlogPost(Long postId) {
+        TransactionUtil.afterCommit(() -> refresh(POST, postId, suggestMapper::findBlogPosts));
+    }
+
+    @Override
+    public void removeBlogPost(Long postId) {
+        TransactionUtil.afterCommit(() -> remove(POST, postId));
+    }
+
+    private void applyBook(Long bookId) {
+        if (trie == null) {
+            return; // not loaded yet, the first lookup loads everything
+        }
+
+        List<SuggestRow> books = suggestMapper.findBooks(bookId);
+        List<SuggestRow> authors = suggestMapper.findAuthors(bookId);
+
+        lock.writeLock().lock();
+        try {
+            if (books.isEmpty()) {
+                trie.remove(BOOK, bookId);
+            } else {
+                trie.put(toEntry(BOOK, books.getFirst()));
+            }
+            for (SuggestRow author : authors) {
+                trie.put(toEntry(AUTHOR, author));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        markRefreshed(BOOK, bookId);
+    }
+
+    private void refresh(String type, Long id, Function<Long, List<SuggestRow>> loader) {
+        if (trie == null) {
+            return;
+        }
+
+        List<SuggestRow> rows = loader.apply(id);
+
+        lock.writeLock().lock();
+        try {
+            if (rows.isEmpty()) {
+                trie.remove(type, id);
+            } else {
+                trie.put(toEntry(type, rows.getFirst()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        markRefreshed(type, id);
+    }
+
+    private void remove(String type, Long id) {
+        if (trie == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            trie.remove(type, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        markRefreshed(type, id);
+    }
+
+    private void ensureLoaded() {
+        if (trie == null) {
+            synchronized (this) {
+                if (trie == null) {
+                    trie = buildTrie();
+                    builtAt = System.currentTimeMillis();
+                }
+            }
+            return;
+        }
+
+        long age = System.currentTimeMillis() - builtAt;
+        if (age > rebuildIntervalMinutes * 60_000 && rebuilding.compareAndSet(false, true)) {
+            rebuildRunner.submit(this::rebuildInBackground);
+        }
+    }
+
+    /**
+     * Build a fresh trie next to the live one, swap it in, then replay the writes that raced the build
+     */
+    private void rebuildInBackground() {
+        try {
+            refreshedDuringRebuild.clear();
+            SuggestTrie rebuilt = buildTrie();
+
+            lock.writeLock().lock();
+            try {
+                trie = rebuilt;
+                builtAt = System.currentTimeMillis();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            for (String key : refreshedDuringRebuild) {
+                String[] parts = key.split(":", 2);
+                Long id = Long.valueOf(parts[1]);
+                switch (parts[0]) {
+                    case BOOK -> applyBook(id);
+                    case ARTICLE -> refresh(ARTICLE, id, suggestMapper::findArticles);
+                    case POST -> refresh(POST, id, suggestMapper::findBlogPosts);
+                    default -> { }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to rebuild suggestion trie", e);
+        } finally {
+            refreshedDuringRebuild.clear();
+            rebuilding.set(false);
+        }
+    }
+
+    private SuggestTrie buildTrie() {
+        long start = System.currentTimeMillis();
+        SuggestTrie built = new SuggestTrie(topK);
+
+        for (SuggestRow row : suggestMapper.findBooks(null)) built.putDeferred(toEntry(BOOK, row));
+        for (SuggestRow row : suggestMapper.findAuthors(null)) built.putDeferred(toEntry(AUTHOR, row));
+        for (SuggestRow row : suggestMapper.findArticles(null)) built.putDeferred(toEntry(ARTICLE, row));
+        for (SuggestRow row : suggestMapper.findBlogPosts(null)) built.putDeferred(toEntry(POST, row));
+        built.rebuildTops();
+
+        log.info("Built suggestion trie: {} entries in {} ms", built.size(), System.currentTimeMillis() - start);
+        return built;
+    }
+
+    private void markRefreshed(String type, Long id) {
+        if (rebuilding.get()) {
+            refreshedDuringRebuild.add(type + ":" + id);
+        }
+    }
+
+    /** Views span orders of magnitude across content types, so weights are log-scaled */
+    private SuggestTrie.Entry toEntry(String type, SuggestRow row) {
+        long popularity = row.getPopularity() != null ? row.getPopularity() : 0;
+        return new SuggestTrie.Entry(type, row.getId(), row.getLabel(), row.getSlug(), Math.log1p(popularity));
+    }
+
+    private Set<String> parseTypes(String types) {
+        if (types == null || types.isBlank()) {
+            return null;
+        }
+
+        Set<String> parsed = new HashSet<>();
+        for (String type : types.split(",")) {
+            String trimmed = type.trim().toLowerCase();
+            if (!TYPES.contains(trimmed)) {
+                throw new InvalidDataException();
+            }
+            parsed.add(trimmed);
+        }
+        return parsed;
+    }
+}
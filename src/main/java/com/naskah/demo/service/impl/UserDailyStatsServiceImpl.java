@@ -0,0 +1,107 @@
+package com.naskah.demo.service.impl;
+
+import com.naskah.demo.exception.custom.DataConflictException;
+import com.naskah.demo.exception.custom.ServiceUnavailableException;
+import com.naskah.demo.mapper.UserDailyStatsMapper;
+import com.naskah.demo.model.dto.response.DataResponse;
+import com.naskah.demo.service.UserDailyStatsService;
+import com.naskah.demo.util.interceptor.HeaderHolder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@code user_daily_stats}, one row per user per day with reading time, sessions, chapters, words and
+ * annotation counts, so dashboard series and totals cost O(days) instead of scanning the raw event tables.
+ * The write paths re-derive the affected day from the source tables (idempotent, so a retried or racing
+ * refresh converges); history is filled in by the admin backfill, one user at a time in the background.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserDailyStatsServiceImpl implements UserDailyStatsService {
+    private final UserDailyStatsMapper dailyStatsMapper;
+    private final HeaderHolder headerHolder;
+    private static final String SUCCESS = "Success";
+
+    @Value("${reading-stats.backfill.batch-size:200}")
+    private int backfillBatchSize;
+
+    private final ExecutorService backfillRunner = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean backfillRunning = new AtomicBoolean(false);
+
+    @Override
+    @Transactional
+    public void refreshDay(Long userId, LocalDate day) {
+        // ✅ nothing left on that day (last annotation deleted): the upsert writes no row, so clear it first
+        dailyStatsMapper.delete(userId, day, day);
+        dailyStatsMapper.refresh(userId, day, day);
+    }
+
+    @Override
+    public DataResponse<Void> backfill() {
+        headerHolder.requireAdmin();
+
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new DataConflictException();
+        }
+
+        try {
+            backfillRunner.submit(this::runBackfill);
+        } catch (RejectedExecutionException e) {
+            backfillRunning.set(false);
+            throw new ServiceUnavailableException();
+        }
+
+        return new DataResponse<>(SUCCESS, "Daily stats backfill started", HttpStatus.ACCEPTED.value(), null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillRunner.shutdownNow();
+    }
+
+    private void runBackfill() {
+        long start = System.currentTimeMillis();
+        long afterUserId = 0;
+        int users = 0;
+        int failed = 0;
+
+        try {
+            List<Long> batch = dailyStatsMapper.findUserIdsAfter(afterUserId, backfillBatchSize);
+            while (!batch.isEmpty() && !Thread.currentThread().isInterrupted()) {
+                for (Long userId : batch) {
+                    try {
+                        // ✅ upsert only: days the hooks already maintain stay readable while history fills in
+                        dailyStatsMapper.refresh(userId, null, null);
+                        users++;
+                    } catch (Exception e) {
+                        failed++;
+                        log.error("Failed to backfill daily stats of user {}: {}", userId, e.getMessage(), e);
+                    }
+                }
+
+                afterUserId = batch.get(batch.size() - 1);
+                log.info("Daily stats backfill: {} users done, up to user {}", users, afterUserId);
+                batch = dailyStatsMapper.findUserIdsAfter(afterUserId, backfillBatchSize);
+            }
+
+            log.info("Daily stats backfill finished: {} users, {} failed, {} ms", users, failed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Daily stats backfill stopped after user {}: {}", afterUserId, e.getMessage(), e);
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.naskah.demo.service.impl;
+
+import com.naskah.demo.mapper.UserLibraryMapper;
+import com.naskah.demo.service.UserLibraryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps {@code user_library}, one summary row per (user, book) the user has interacted with, in step with
+ * the progress, annotation, rating and review write paths so the library listing is a single query.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserLibraryServiceImpl implements UserLibraryService {
+    private final UserLibraryMapper userLibraryMapper;
+
+    @Override
+    public void refresh(Long userId, Long bookId) {
+        // ✅ nothing left to summarise (last annotation deleted, rating removed): drop the row
+        if (userLibraryMapper.refresh(userId, bookId) == 0) {
+            userLibraryMapper.delete(userId, bookId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void rebuild(Long userId) {
+        userLibraryMapper.delete(userId, null);
+        int rows = userLibraryMapper.refresh(userId, null);
+        userLibraryMapper.markBuilt(userId);
+        log.info("Rebuilt library of user {}: {} books", userId, rows);
+    }
+
+    /**
+     * Builds the library from the user's history the first time it is read. The marker row, not the row count,
+     * decides: a user with an empty library would otherwise be rebuilt on every read.
+     */
+    @Override
+    @Transactional
+    public void ensureBuilt(Long userId) {
+        if (!userLibraryMapper.isBuilt(userId)) {
+            rebuild(userId);
+        }
+    }
+
+    /** Recomputes every reader's row of a book whose chapter count may have changed (re-upload) */
+    @Override
+    public void refreshBook(Long bookId) {
+        int rows = userLibraryMapper.refresh(null, bookId);
+        log.info("Refreshed {} library rows of book {}", rows, bookId);
+    }
+
+    @Override
+    public void removeBook(Long bookId) {
+        userLibraryMapper.delete(null, bookId);
+    }
+}
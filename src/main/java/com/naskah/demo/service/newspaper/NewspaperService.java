@@ -27,6 +27,14 @@ public interface NewspaperService {
             String sortOrder,
             NewspaperSearchCriteria criteria);
 
+    DataResponse<CursorPageResponse<NewspaperArticleResponse>> getArticlesByCategoryCursor(
+            String categorySlug,
+            String sortBy,
+            String cursor,
+            int limit,
+            boolean includeTotal,
+            NewspaperSearchCriteria criteria);
+
     DatatableResponse<NewspaperArticleResponse> getArticlesByDate(
             LocalDate date,
             int page,
@@ -53,6 +61,11 @@ public interface NewspaperService {
             int page,
             int limit);
 
+    DataResponse<NewspaperFacetedSearchResponse> searchArticlesWithFacets(
+            NewspaperSearchCriteria criteria,
+            int page,
+            int limit);
+
     DatatableResponse<NewspaperArticleResponse> getArticlesOnThisDay(
             int month,
             int day,
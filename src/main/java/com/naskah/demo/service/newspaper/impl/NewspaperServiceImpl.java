@@ -2,13 +2,21 @@ package com.naskah.demo.service.newspaper.impl;
 
 import com.naskah.demo.exception.custom.*;
 import com.naskah.demo.mapper.*;
+import com.naskah.demo.model.dto.NewspaperFacetRow;
 import com.naskah.demo.model.dto.newspaper.*;
 import com.naskah.demo.model.dto.response.*;
 import com.naskah.demo.model.entity.User;
 import com.naskah.demo.model.entity.newspaper.*;
+import com.naskah.demo.model.enums.SearchCacheRegion;
+import com.naskah.demo.service.SearchCacheService;
+import com.naskah.demo.service.SuggestService;
 import com.naskah.demo.service.newspaper.NewspaperService;
+import com.naskah.demo.util.ApproximateCountCache;
+import com.naskah.demo.util.CursorUtil;
 import com.naskah.demo.util.HashUtil;
 import com.naskah.demo.util.IPUtil;
+import com.naskah.demo.util.SearchResultCache;
+import com.naskah.demo.util.file.TextCounter;
 import com.naskah.demo.util.interceptor.HeaderHolder;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +25,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -30,8 +39,15 @@ public class NewspaperServiceImpl implements NewspaperService {
     private final ArticleRatingMapper articleRatingMapper;
     private final UserMapper userMapper;
     private final HeaderHolder headerHolder;
+    private final SuggestService suggestService;
+    private final SearchCacheService searchCacheService;
 
     private static final String SUCCESS = "Success";
+
+    // articles without a publish_date sort last under "date"; must match the COALESCE in the cursor query
+    private static final LocalDate NO_PUBLISH_DATE = LocalDate.of(1970, 1, 1);
+
+    private final ApproximateCountCache articleCountCache = new ApproximateCountCache(Duration.ofMinutes(5).toMillis());
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMMM yyyy", new Locale("id", "ID"));
 
     private static final Map<String, String> CATEGORY_NAMES = Map.of(
@@ -147,6 +163,68 @@ public class NewspaperServiceImpl implements NewspaperService {
         }
     }
 
+    /**
+     * ✅ Keyset paging through a category archive (sortBy: date | views). Deep archive pages cost the same as
+     * the first one; the total is optional and cached for a few minutes.
+     */
+    @Override
+    public DataResponse<CursorPageResponse<NewspaperArticleResponse>> getArticlesByCategoryCursor(
+            String categorySlug, String sortBy, String cursor, int limit,
+            boolean includeTotal, NewspaperSearchCriteria criteria) {
+        validateCategory(categorySlug);
+        if (limit < 1 || limit > 100) {
+            throw new InvalidDataException();
+        }
+
+        String sortKey = "views".equalsIgnoreCase(sortBy) ? "views" : "date";
+        LocalDate cursorDate = null;
+        Long cursorViews = null;
+        Long cursorId = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            List<String> parts = CursorUtil.decode(cursor, 3);
+            if (!sortKey.equals(parts.get(0))) {
+                throw new InvalidDataException();
+            }
+            try {
+                if ("views".equals(sortKey)) {
+                    cursorViews = Long.valueOf(parts.get(1));
+                } else {
+                    cursorDate = LocalDate.parse(parts.get(1));
+                }
+                cursorId = Long.valueOf(parts.get(2));
+            } catch (RuntimeException e) {
+                throw new InvalidDataException();
+            }
+        }
+
+        List<NewspaperArticleResponse> rows = newspaperMapper.getArticlesByCategoryCursor(
+                categorySlug, sortKey, cursorDate, cursorViews, cursorId, limit + 1, criteria);
+        boolean hasMore = rows.size() > limit;
+        List<NewspaperArticleResponse> articles = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            NewspaperArticleResponse last = articles.getLast();
+            Object key = "views".equals(sortKey)
+                    ? (last.getViewCount() != null ? last.getViewCount() : 0L)
+                    : (last.getPublishDate() != null ? last.getPublishDate() : NO_PUBLISH_DATE);
+            nextCursor = CursorUtil.encode(sortKey, key, last.getId());
+        }
+
+        Long currentUserId = getCurrentUserId();
+        articles.forEach(article -> enrichArticleResponse(article, currentUserId));
+
+        Integer approximateTotal = includeTotal
+                ? articleCountCache.get(categorySlug + "|" + criteria, () -> newspaperMapper.countArticlesByCategory(categorySlug, criteria))
+                : null;
+
+        CursorPageResponse<NewspaperArticleResponse> data =
+                new CursorPageResponse<>(limit, nextCursor, hasMore, approximateTotal, articles);
+
+        return new DataResponse<>(SUCCESS, "Articles retrieved successfully", HttpStatus.OK.value(), data);
+    }
+
     // ============================================
     // BROWSE BY DATE
     // ============================================
@@ -267,14 +345,22 @@ public class NewspaperServiceImpl implements NewspaperService {
             }
 
             int offset = (page - 1) * limit;
+            criteria.setSearchQuery(SearchResultCache.normalize(criteria.getSearchQuery()));
 
-            List<NewspaperArticleResponse> articles = newspaperMapper.searchArticles(
-                    criteria, offset, limit);
-
-            int totalCount = newspaperMapper.countSearchArticles(criteria);
+            // ✅ ranking and count are cached per query; per-user fields are filled on copies
+            PageDataResponse<NewspaperArticleResponse> cached = searchCacheService.get(SearchCacheRegion.ARTICLES,
+                    SearchResultCache.key("search", criteria, page, limit), () -> new PageDataResponse<>(page, limit,
+                            newspaperMapper.countSearchArticles(criteria),
+                            newspaperMapper.searchArticles(criteria, offset, limit)));
+            int totalCount = cached.getTotal();
 
             Long currentUserId = getCurrentUserId();
-            articles.forEach(article -> enrichArticleResponse(article, currentUserId));
+            List<NewspaperArticleResponse> articles = new ArrayList<>(cached.getList().size());
+            for (NewspaperArticleResponse article : cached.getList()) {
+                NewspaperArticleResponse copy = article.toBuilder().build();
+                enrichArticleResponse(copy, currentUserId);
+                articles.add(copy);
+            }
 
             PageDataResponse<NewspaperArticleResponse> pageData =
                     new PageDataResponse<>(page, limit, totalCount, articles);
@@ -292,6 +378,103 @@ public class NewspaperServiceImpl implements NewspaperService {
         }
     }
 
+    @Override
+    public DataResponse<NewspaperFacetedSearchResponse> searchArticlesWithFacets(
+            NewspaperSearchCriteria criteria, int page, int limit) {
+        if (page < 1 || limit < 1 || limit > 100) {
+            throw new InvalidDataException();
+        }
+
+        if (criteria.getSearchQuery() != null) {
+            String query = SearchResultCache.normalize(criteria.getSearchQuery());
+            criteria.setSearchQuery(query.isEmpty() ? null : query);
+        }
+
+        // ✅ hits and facets are cached together; per-user fields are filled on copies
+        NewspaperFacetedSearchResponse cached = searchCacheService.get(SearchCacheRegion.ARTICLES,
+                SearchResultCache.key("faceted", criteria, page, limit), () -> loadFacetedSearch(criteria, page, limit));
+
+        Long currentUserId = getCurrentUserId();
+        List<NewspaperArticleResponse> articles = new ArrayList<>(cached.getList().size());
+        for (NewspaperArticleResponse article : cached.getList()) {
+            NewspaperArticleResponse copy = article.toBuilder().build();
+            enrichArticleResponse(copy, currentUserId);
+            articles.add(copy);
+        }
+
+        NewspaperFacetedSearchResponse response = new NewspaperFacetedSearchResponse();
+        response.setQuery(cached.getQuery());
+        response.setPage(page);
+        response.setLimit(limit);
+        response.setTotal(cached.getTotal());
+        response.setList(articles);
+        response.setYears(cached.getYears());
+        response.setSources(cached.getSources());
+
+        log.info("Faceted search '{}' returned {} results (page {})", criteria.getSearchQuery(), cached.getTotal(), page);
+
+        return new DataResponse<>(SUCCESS, "Search completed successfully", HttpStatus.OK.value(), response);
+    }
+
+    private NewspaperFacetedSearchResponse loadFacetedSearch(NewspaperSearchCriteria criteria, int page, int limit) {
+        // ✅ plain archive browsing reads the precomputed counters instead of scanning the articles
+        List<NewspaperFacetRow> rows = canUseFacetCounts(criteria)
+                ? newspaperMapper.findArticleFacetCounts(criteria, yearOf(criteria.getDateFrom()), yearOf(criteria.getDateTo()))
+                : newspaperMapper.countArticleFacets(criteria);
+
+        NewspaperFacetedSearchResponse response = new NewspaperFacetedSearchResponse();
+        response.setQuery(criteria.getSearchQuery());
+        response.setPage(page);
+        response.setLimit(limit);
+        response.setTotal(0);
+        response.setYears(new ArrayList<>());
+        response.setSources(new ArrayList<>());
+
+        for (NewspaperFacetRow row : rows) {
+            switch (row.getFacet()) {
+                case "total" -> response.setTotal(row.getArticleCount());
+                case "year" -> response.getYears().add(toFacetCount(row, String.valueOf(row.getFacetKey())));
+                case "source" -> response.getSources().add(toFacetCount(row, row.getLabel()));
+                default -> { }
+            }
+        }
+
+        response.getYears().sort(Comparator.comparing(FacetCountResponse::getId));
+        response.getSources().sort(Comparator.comparing(FacetCountResponse::getCount).reversed()
+                .thenComparing(FacetCountResponse::getName));
+
+        int offset = (page - 1) * limit;
+        response.setList(offset < response.getTotal()
+                ? newspaperMapper.searchArticlesFaceted(criteria, offset, limit)
+                : new ArrayList<>());
+        return response;
+    }
+
+    /**
+     * The counters are kept per source, category and publish year, so they answer a query only when
+     * every filter lines up with those keys
+     */
+    private boolean canUseFacetCounts(NewspaperSearchCriteria criteria) {
+        return criteria.getSearchQuery() == null
+                && criteria.getImportance() == null
+                && (criteria.getDateFrom() == null || criteria.getDateFrom().getDayOfYear() == 1)
+                && (criteria.getDateTo() == null
+                    || criteria.getDateTo().getDayOfYear() == criteria.getDateTo().lengthOfYear());
+    }
+
+    private Integer yearOf(LocalDate date) {
+        return date != null ? date.getYear() : null;
+    }
+
+    private FacetCountResponse toFacetCount(NewspaperFacetRow row, String name) {
+        FacetCountResponse facet = new FacetCountResponse();
+        facet.setId(row.getFacetKey());
+        facet.setCode(String.valueOf(row.getFacetKey()));
+        facet.setName(name);
+        facet.setCount(row.getArticleCount());
+        return facet;
+    }
+
     // ============================================
     // ON THIS DAY
     // ============================================
@@ -415,6 +598,10 @@ public class NewspaperServiceImpl implements NewspaperService {
                     .build();
 
             newspaperMapper.insertArticle(article);
+            newspaperMapper.incrementArticleFacetCount(article.getSourceId(), article.getCategory(),
+                    article.getPublishDate().getYear());
+            suggestService.refreshArticle(article.getId());
+            searchCacheService.invalidate(SearchCacheRegion.ARTICLES);
             NewspaperArticleDetailResponse detail = newspaperMapper.getArticleDetailBySlug(article.getSlug());
 
             log.info("Article created: {} (ID: {})", article.getTitle(), article.getId());
@@ -467,6 +654,8 @@ public class NewspaperServiceImpl implements NewspaperService {
             existing.setImageUrl(request.getImageUrl());
 
             newspaperMapper.updateArticle(existing);
+            suggestService.refreshArticle(id);
+            searchCacheService.invalidate(SearchCacheRegion.ARTICLES);
 
             NewspaperArticleDetailResponse detail = newspaperMapper.getArticleDetailBySlug(existing.getSlug());
 
@@ -595,10 +784,7 @@ public class NewspaperServiceImpl implements NewspaperService {
     }
 
     private int calculateWordCount(String content) {
-        if (content == null || content.trim().isEmpty()) {
-            return 0;
-        }
-        return content.trim().split("\\s+").length;
+        return TextCounter.countWords(content);
     }
 
     private String getCategoryIcon(String category) {
@@ -0,0 +1,80 @@
+package com.naskah.demo.util;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * One bit per day since {@code origin}: bit n is set when the user read on {@code origin + n days}.
+ * <p>
+ * The byte layout is the one PostgreSQL {@code set_bit}/{@code get_bit} use on {@code bytea} (bit n is bit
+ * {@code n % 8}, counted from the least significant end, of byte {@code n / 8}), which is also what
+ * {@link BitSet#valueOf(byte[])} expects, so the stored column maps straight onto a {@link BitSet}.
+ * Streaks are runs of set bits and are found with {@code nextSetBit}/{@code nextClearBit} word scans.
+ */
+public final class ActivityBitmap {
+
+    private final LocalDate origin;
+    private final BitSet days;
+
+    public ActivityBitmap(LocalDate origin, byte[] bits) {
+        this.origin = origin;
+        this.days = BitSet.valueOf(bits != null ? bits : new byte[0]);
+    }
+
+    public LocalDate getOrigin() {
+        return origin;
+    }
+
+    public boolean isActive(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 && days.get(index);
+    }
+
+    public int activeDays(LocalDate from, LocalDate to) {
+        int start = Math.max(indexOf(from), 0);
+        int end = indexOf(to) + 1;
+        return end > start ? days.get(start, end).cardinality() : 0;
+    }
+
+    /**
+     * Consecutive active days ending today, or ending yesterday when today has no activity yet.
+     */
+    public int currentStreak(LocalDate today) {
+        int last = indexOf(today);
+        if (last < 0) {
+            return 0;
+        }
+        if (!days.get(last)) {
+            last--;
+            if (last < 0 || !days.get(last)) {
+                return 0;
+            }
+        }
+        return last - days.previousClearBit(last);
+    }
+
+    public int longestStreak() {
+        return longestStreak(0, days.length());
+    }
+
+    /** Longest run of active days inside [from, to] */
+    public int longestStreak(LocalDate from, LocalDate to) {
+        return longestStreak(Math.max(indexOf(from), 0), indexOf(to) + 1);
+    }
+
+    private int longestStreak(int fromIndex, int toIndex) {
+        int longest = 0;
+        int start = fromIndex < toIndex ? days.nextSetBit(fromIndex) : -1;
+        while (start >= 0 && start < toIndex) {
+            int end = Math.min(days.nextClearBit(start), toIndex);
+            longest = Math.max(longest, end - start);
+            start = days.nextSetBit(end);
+        }
+        return longest;
+    }
+
+    private int indexOf(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(origin, date);
+    }
+}
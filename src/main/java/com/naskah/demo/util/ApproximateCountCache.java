@@ -0,0 +1,48 @@
+package com.naskah.demo.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Short-lived cache of COUNT(*) results keyed by the filter that produced them, so cursor-paginated
+ * listings can show a total without re-running the full count on every page. Totals may lag recent
+ * writes by up to the TTL, hence "approximate".
+ */
+public final class ApproximateCountCache {
+
+    private record Entry(int count, long expiresAt) {
+    }
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ApproximateCountCache(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    public int get(String key, IntSupplier counter) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.count();
+        }
+
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(e -> e.expiresAt() <= now);
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+        }
+
+        int count = counter.getAsInt();
+        entries.put(key, new Entry(count, now + ttlMillis));
+        return count;
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+}
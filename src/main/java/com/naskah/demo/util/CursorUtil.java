@@ -0,0 +1,52 @@
+package com.naskah.demo.util;
+
+import com.naskah.demo.exception.custom.InvalidDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque keyset pagination cursors. A cursor is the URL-safe Base64 of its parts (sort name, sort key,
+ * id ...); clients only pass it back, they never build or read it.
+ */
+public final class CursorUtil {
+
+    private static final char SEPARATOR = '\u001F';
+
+    private CursorUtil() {
+    }
+
+    /**
+     * Cursor for the given parts. Every part must be present: an empty part couldn't be parsed back into the
+     * sort key, so callers coalesce nullable keys the same way their query does.
+     */
+    public static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i] == null) {
+                throw new IllegalArgumentException("Cursor part " + i + " is null");
+            }
+            if (i > 0) raw.append(SEPARATOR);
+            raw.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parts of a cursor; throws {@link InvalidDataException} if it isn't one of ours or has the wrong arity.
+     */
+    public static List<String> decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            List<String> parts = Arrays.asList(raw.split(String.valueOf(SEPARATOR), -1));
+            if (parts.size() != expectedParts) {
+                throw new InvalidDataException();
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.naskah.demo.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * MinHash signatures over word shingles, plus LSH band keys for finding near-duplicate books without
+ * comparing against every book in the catalogue.
+ * <p>
+ * 128 hash functions split into 16 bands of 8 rows: two books with Jaccard similarity s share at least one
+ * band with probability 1 - (1 - s^8)^16, i.e. ~99% at s = 0.8 and under 1% at s = 0.3.
+ */
+public class MinHashUtil {
+
+    public static final int NUM_HASHES = 128;
+    public static final int BANDS = 16;
+    public static final int ROWS_PER_BAND = NUM_HASHES / BANDS;
+    public static final int SHINGLE_SIZE = 5;
+
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            seed = mix64(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private MinHashUtil() {
+    }
+
+    /**
+     * Signature of the text's word 5-shingles. Words are lower-cased runs of letters/digits, so punctuation,
+     * casing and whitespace differences between editions don't matter. Returns null if the text is shorter
+     * than one shingle.
+     */
+    public static int[] computeSignature(CharSequence text) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        long[] window = new long[SHINGLE_SIZE];
+        int wordsSeen = 0;
+        long wordHash = 0xCBF29CE484222325L;
+        boolean inWord = false;
+        int shingles = 0;
+
+        int length = text.length();
+        for (int i = 0; i <= length; ) {
+            int cp = i < length ? Character.codePointAt(text, i) : ' ';
+            i += i < length ? Character.charCount(cp) : 1;
+
+            if (Character.isLetterOrDigit(cp)) {
+                wordHash = (wordHash ^ Character.toLowerCase(cp)) * 0x100000001B3L;
+                inWord = true;
+                continue;
+            }
+
+            if (!inWord) continue;
+
+            window[wordsSeen % SHINGLE_SIZE] = mix64(wordHash);
+            wordsSeen++;
+            wordHash = 0xCBF29CE484222325L;
+            inWord = false;
+
+            if (wordsSeen >= SHINGLE_SIZE) {
+                long shingle = 0;
+                for (int k = 0; k < SHINGLE_SIZE; k++) {
+                    shingle = shingle * 31 + window[(wordsSeen + k) % SHINGLE_SIZE];
+                }
+                updateSignature(signature, shingle);
+                shingles++;
+            }
+        }
+
+        return shingles == 0 ? null : signature;
+    }
+
+    public static double estimateSimilarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    /**
+     * One key per band; band index is mixed in so equal rows in different bands don't collide.
+     */
+    public static long[] bandKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = mix64(band + 1L);
+            for (int row = 0; row < ROWS_PER_BAND; row++) {
+                key = mix64(key ^ (signature[band * ROWS_PER_BAND + row] & 0xFFFFFFFFL));
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        for (int value : signature) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        for (int i = 0; i < signature.length; i++) {
+            signature[i] = buffer.getInt();
+        }
+        return signature;
+    }
+
+    private static void updateSignature(int[] signature, long shingle) {
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int h = (int) mix64(shingle ^ SEEDS[i]);
+            if (h < signature[i]) {
+                signature[i] = h;
+            }
+        }
+    }
+
+    // SplitMix64 finalizer
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
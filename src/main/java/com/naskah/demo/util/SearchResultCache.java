@@ -0,0 +1,123 @@
+package com.naskah.demo.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived LRU cache of search results with generation-based invalidation: every entry remembers the
+ * generation it was loaded under, and {@link #invalidateAll()} just bumps the generation, so a write makes
+ * every older entry a miss in O(1). A load that raced a write is stored under the old generation and is
+ * never served.
+ */
+public final class SearchResultCache {
+
+    private record Entry(Object value, long generation, long expiresAt) {
+    }
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SearchResultCache(long ttlMillis, int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true);
+    }
+
+    /**
+     * Cached value for the key, or the loader's result (cached unless a write happened while it ran).
+     * Values are shared between callers and must not be mutated.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        long now = System.currentTimeMillis();
+        long currentGeneration = generation.get();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.generation() == currentGeneration && entry.expiresAt() > now) {
+                hits.incrementAndGet();
+                return (T) entry.value();
+            }
+        }
+
+        misses.incrementAndGet();
+        T value = loader.get();
+
+        if (value != null && generation.get() == currentGeneration) {
+            synchronized (entries) {
+                entries.put(key, new Entry(value, currentGeneration, now + ttlMillis));
+                evict(now);
+            }
+        }
+        return value;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Cache key from its parts; text parts are trimmed, lowercased and whitespace-collapsed so trivially
+     * different spellings of the same query share an entry.
+     */
+    public static String key(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (Object part : parts) {
+            if (!sb.isEmpty()) sb.append('\u001F');
+            sb.append(part instanceof String text ? normalize(text) : String.valueOf(part));
+        }
+        return sb.toString();
+    }
+
+    public static String normalize(String text) {
+        return text == null ? null : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /** Drop stale generations and expired entries first, then least recently used ones */
+    private void evict(long now) {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+
+        long currentGeneration = generation.get();
+        entries.values().removeIf(e -> e.generation() != currentGeneration || e.expiresAt() <= now);
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
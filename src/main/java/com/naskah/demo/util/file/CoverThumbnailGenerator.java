@@ -0,0 +1,145 @@
+package com.naskah.demo.util.file;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Fixed-width cover thumbnails (list / card / detail) rendered with the JDK imaging stack.
+ * <p>
+ * Covers are only ever scaled down, keeping the aspect ratio. Large reductions are done in halving
+ * steps before the final bilinear pass so small thumbnails don't come out aliased.
+ * <p>
+ * The JDK ships no WebP encoder, so {@link #toWebp} only works when an ImageIO WebP plugin is on the
+ * classpath and returns null otherwise; callers then let the upload target transcode the JPEG.
+ */
+public final class CoverThumbnailGenerator {
+
+    public enum Variant {
+        LIST(160),
+        CARD(320),
+        DETAIL(640);
+
+        private final int width;
+
+        Variant(int width) {
+            this.width = width;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final float WEBP_QUALITY = 0.80f;
+
+    private CoverThumbnailGenerator() {
+    }
+
+    /**
+     * Decode the cover, or null if ImageIO can't read the format (e.g. SVG covers).
+     */
+    public static BufferedImage decode(byte[] imageData) throws IOException {
+        if (imageData == null || imageData.length == 0) {
+            return null;
+        }
+        return ImageIO.read(new ByteArrayInputStream(imageData));
+    }
+
+    public static BufferedImage resize(BufferedImage source, Variant variant) {
+        int targetWidth = Math.min(variant.getWidth(), source.getWidth());
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+
+        // JPEG has no alpha: flatten transparent covers onto white
+        BufferedImage current = toRgb(source);
+        int width = current.getWidth();
+        int height = current.getHeight();
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    public static byte[] toJpeg(BufferedImage image) throws IOException {
+        byte[] encoded = encode(image, "jpeg", JPEG_QUALITY);
+        if (encoded == null) {
+            throw new IOException("No JPEG writer available");
+        }
+        return encoded;
+    }
+
+    public static byte[] toWebp(BufferedImage image) throws IOException {
+        return encode(image, "webp", WEBP_QUALITY);
+    }
+
+    private static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, source.getWidth(), source.getHeight());
+            g.drawImage(source, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    private static byte[] encode(BufferedImage image, String format, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            return null;
+        }
+
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -29,11 +29,16 @@ public class EpubMetadataExtractor {
     private static final String CONTRIBUTOR = "Contributor";
 
     public static CompleteEpubMetadata extractCompleteMetadata(InputStream epubInputStream) throws IOException {
+        return extractCompleteMetadata(new EpubReader().readEpub(epubInputStream));
+    }
+
+    /**
+     * Metadata of an already parsed EPUB, for callers that also need its content and should only read it once
+     */
+    public static CompleteEpubMetadata extractCompleteMetadata(Book book) {
         CompleteEpubMetadata metadata = new CompleteEpubMetadata();
 
         try {
-            EpubReader reader = new EpubReader();
-            Book book = reader.readEpub(epubInputStream);
             Metadata epubMetadata = book.getMetadata();
 
             extractTitleAndSubtitle(book, metadata);
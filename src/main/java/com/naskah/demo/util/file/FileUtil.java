@@ -128,14 +128,7 @@ public class FileUtil {
     // ==================== TEXT UTILITIES ====================
 
     public int countWords(String text) {
-        if (text == null || text.trim().isEmpty()) {
-            return 0;
-        }
-
-        String cleanText = text.trim().replaceAll("\\s+", " ");
-        String[] words = cleanText.split("\\s+");
-
-        return (int) Arrays.stream(words).filter(word -> !word.isEmpty() && word.matches(".*[\\p{L}\\p{N}].*")).count();
+        return TextCounter.countWords(text);
     }
 
     public String generatePreviewText(String content, int maxLength) {
@@ -385,6 +378,19 @@ public class FileUtil {
         return uploadBytesToCloudinary(imageData, publicId, "book_covers", transformations);
     }
 
+    /**
+     * Upload a pre-sized cover thumbnail as-is (no server-side resize). When the JDK had no WebP encoder
+     * the JPEG bytes are passed with format=webp so Cloudinary stores the WebP rendition itself.
+     */
+    public String uploadBookCoverThumbnail(byte[] imageData, Long bookId, String variant, String format) throws IOException {
+        String publicId = String.format("books/%d/cover-%s-%s", bookId, variant, format);
+
+        Map<String, Object> transformations = new HashMap<>();
+        transformations.put("format", format);
+
+        return uploadBytesToCloudinary(imageData, publicId, "book_covers", transformations);
+    }
+
     public String uploadBookFile(MultipartFile bookFile, String bookTitle) throws IOException {
         String originalFilename = bookFile.getOriginalFilename();
         String fileExtension = originalFilename != null ?
@@ -463,18 +469,8 @@ public class FileUtil {
         }
 
         try {
-            if (filePathOrUrl.contains("cloudinary.com") || filePathOrUrl.contains("res.cloudinary.com")) {
-                String publicId = null;
-                String pattern = "cloudinary.com/[^/]+/(?:image|raw)/upload/(?:v\\d+/)?(.*?)(?:\\.[^.]+)?$";
-                java.util.regex.Pattern r = java.util.regex.Pattern.compile(pattern);
-                java.util.regex.Matcher m = r.matcher(filePathOrUrl);
-
-                if (m.find()) {
-                    publicId = m.group(1);
-                    if (publicId.contains(".")) {
-                        publicId = publicId.substring(0, publicId.lastIndexOf('.'));
-                    }
-                }
+            if (StorageKeyUtil.isCloudinaryUrl(filePathOrUrl)) {
+                String publicId = StorageKeyUtil.cloudinaryPublicId(filePathOrUrl);
 
                 if (publicId != null) {
                     String resourceType = filePathOrUrl.contains("/book_files/") ? "raw" : IMAGE;
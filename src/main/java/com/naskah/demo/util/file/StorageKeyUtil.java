@@ -0,0 +1,78 @@
+package com.naskah.demo.util.file;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Identity of a stored file independent of the URL it was delivered under.
+ * <p>
+ * Cloudinary uploads with {@code overwrite=true} keep their public id but come back with a new
+ * {@code /v<version>/} segment, so two URLs of the same asset differ as strings. Comparing storage keys
+ * tells a re-upload in place (nothing to delete) from a file that moved (the old one is stale).
+ */
+public final class StorageKeyUtil {
+
+    private static final Pattern CLOUDINARY_URL =
+            Pattern.compile("cloudinary.com/[^/]+/(image|raw)/upload/(?:v\\d+/)?(.*?)(?:\\.[^.]+)?$");
+
+    private StorageKeyUtil() {
+    }
+
+    public static boolean isCloudinaryUrl(String filePathOrUrl) {
+        return filePathOrUrl != null && filePathOrUrl.contains("cloudinary.com");
+    }
+
+    /**
+     * Public id of a Cloudinary delivery URL with the version and extension stripped, as passed to
+     * {@code destroy}; null when the URL doesn't match
+     */
+    public static String cloudinaryPublicId(String url) {
+        Matcher m = CLOUDINARY_URL.matcher(url);
+        if (!m.find()) {
+            return null;
+        }
+
+        String publicId = m.group(2);
+        return publicId.contains(".") ? publicId.substring(0, publicId.lastIndexOf('.')) : publicId;
+    }
+
+    /** Resource type and public id for a Cloudinary URL, the trimmed path for anything else; null for no file */
+    public static String storageKey(String filePathOrUrl) {
+        if (filePathOrUrl == null || filePathOrUrl.trim().isEmpty()) {
+            return null;
+        }
+
+        if (isCloudinaryUrl(filePathOrUrl)) {
+            Matcher m = CLOUDINARY_URL.matcher(filePathOrUrl);
+            if (m.find()) {
+                return m.group(1) + ":" + cloudinaryPublicId(filePathOrUrl);
+            }
+        }
+        return filePathOrUrl.trim();
+    }
+
+    /**
+     * The old files none of the current ones occupies: safe to delete once the current ones are committed.
+     * A file re-uploaded over the same public id is not stale, whatever its version.
+     */
+    public static List<String> staleFiles(Collection<String> oldFiles, Collection<String> currentFiles) {
+        Set<String> currentKeys = new HashSet<>();
+        for (String current : currentFiles) {
+            String key = storageKey(current);
+            if (key != null) {
+                currentKeys.add(key);
+            }
+        }
+
+        List<String> stale = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String old : oldFiles) {
+            String key = storageKey(old);
+            if (key != null && !currentKeys.contains(key) && seen.add(key)) {
+                stale.add(old);
+            }
+        }
+        return stale;
+    }
+}
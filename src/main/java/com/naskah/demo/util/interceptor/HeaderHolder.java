@@ -1,8 +1,12 @@
 package com.naskah.demo.util.interceptor;
 
+import com.naskah.demo.exception.custom.ForbiddenException;
+import com.naskah.demo.exception.custom.UnauthorizedException;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Arrays;
+
 @Getter
 @Setter
 public class HeaderHolder {
@@ -17,4 +21,17 @@ public class HeaderHolder {
     private String os;
     private String layoutEngine;
     private String deviceCpu;
+
+    /**
+     * Throws UnauthorizedException when no user is signed in and ForbiddenException unless they have the ADMIN role.
+     */
+    public void requireAdmin() {
+        if (username == null || username.isEmpty()) {
+            throw new UnauthorizedException();
+        }
+
+        if (roles == null || !Arrays.asList(roles).contains("ADMIN")) {
+            throw new ForbiddenException();
+        }
+    }
 }
@@ -0,0 +1,289 @@
+package com.naskah.demo.util.search;
+
+import java.util.*;
+
+/**
+ * Immutable positional inverted index over the chapters of one book.
+ * <p>
+ * Terms are kept in a sorted array so exact, inflected and prefix lookups are a binary search plus a
+ * range scan. Each term's postings are packed (chapter, position) pairs; each chapter keeps the char
+ * offsets of its tokens so snippets are cut straight from the stored text without re-scanning it.
+ * <p>
+ * Query syntax: plain words must all occur (like {@code plainto_tsquery}), {@code "quoted words"} must
+ * occur as a phrase, and a trailing {@code *} makes the (last) word a prefix.
+ */
+public final class BookSearchIndex {
+
+    public record IndexedChapter(Long id, int number, String title, String slug, Integer level,
+                                 String parentSlug, String content, int[] tokenStarts, int[] tokenEnds) {
+    }
+
+    /** One matched occurrence, as token positions [startToken, endToken] inside the chapter */
+    public record Span(int startToken, int endToken) {
+    }
+
+    public record Hit(IndexedChapter chapter, float score, int matchCount, List<Span> spans) {
+    }
+
+    private record Clause(List<String> terms, boolean prefix) {
+    }
+
+    private final List<IndexedChapter> chapters;
+    private final String[] terms;
+    private final int[][] postings;
+    private final long estimatedBytes;
+
+    private BookSearchIndex(List<IndexedChapter> chapters, String[] terms, int[][] postings, long estimatedBytes) {
+        this.chapters = chapters;
+        this.terms = terms;
+        this.postings = postings;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public int getChapterCount() {
+        return chapters.size();
+    }
+
+    /**
+     * Chapters matching every clause of the query, best first (ties by chapter number).
+     */
+    public List<Hit> search(String query, Integer chapterFrom, Integer chapterTo) {
+        List<Clause> clauses = parse(query);
+        if (clauses.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // chapter index -> spans, intersected clause by clause
+        Map<Integer, List<Span>> matched = null;
+        Map<Integer, float[]> scores = new HashMap<>();
+
+        for (Clause clause : clauses) {
+            Map<Integer, List<Span>> clauseHits = matchClause(clause);
+            if (clauseHits.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            float idf = (float) Math.log(1.0 + (double) chapters.size() / clauseHits.size());
+            if (matched == null) {
+                matched = new HashMap<>();
+                for (Map.Entry<Integer, List<Span>> entry : clauseHits.entrySet()) {
+                    matched.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+                }
+            } else {
+                matched.keySet().retainAll(clauseHits.keySet());
+                for (Map.Entry<Integer, List<Span>> entry : matched.entrySet()) {
+                    entry.getValue().addAll(clauseHits.get(entry.getKey()));
+                }
+            }
+
+            for (Integer chapterIdx : matched.keySet()) {
+                float tf = (float) (1.0 + Math.log(clauseHits.get(chapterIdx).size()));
+                scores.computeIfAbsent(chapterIdx, k -> new float[1])[0] += tf * idf;
+            }
+
+            if (matched.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(matched.size());
+        for (Map.Entry<Integer, List<Span>> entry : matched.entrySet()) {
+            IndexedChapter chapter = chapters.get(entry.getKey());
+            if (chapterFrom != null && chapter.number() < chapterFrom) continue;
+            if (chapterTo != null && chapter.number() > chapterTo) continue;
+
+            List<Span> spans = entry.getValue();
+            spans.sort(Comparator.comparingInt(Span::startToken));
+
+            float lengthNorm = (float) (1.0 + Math.log(1.0 + chapter.tokenStarts().length));
+            hits.add(new Hit(chapter, scores.get(entry.getKey())[0] / lengthNorm, spans.size(), spans));
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparingInt(h -> h.chapter().number()));
+        return hits;
+    }
+
+    /**
+     * Occurrences of a clause per chapter. Single words also match their inflected forms; phrases
+     * require consecutive token positions.
+     */
+    private Map<Integer, List<Span>> matchClause(Clause clause) {
+        List<String> words = clause.terms();
+        int last = words.size() - 1;
+
+        // chapter index -> sorted positions, per word of the clause
+        List<Map<Integer, int[]>> positionsPerWord = new ArrayList<>(words.size());
+        for (int i = 0; i <= last; i++) {
+            Map<Integer, int[]> positions = collectPositions(words.get(i), clause.prefix() && i == last);
+            if (positions.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            positionsPerWord.add(positions);
+        }
+
+        Map<Integer, List<Span>> result = new HashMap<>();
+        for (Map.Entry<Integer, int[]> entry : positionsPerWord.getFirst().entrySet()) {
+            Integer chapterIdx = entry.getKey();
+            List<Span> spans = null;
+
+            for (int position : entry.getValue()) {
+                boolean phraseMatches = true;
+                for (int k = 1; k <= last && phraseMatches; k++) {
+                    int[] next = positionsPerWord.get(k).get(chapterIdx);
+                    phraseMatches = next != null && Arrays.binarySearch(next, position + k) >= 0;
+                }
+
+                if (phraseMatches) {
+                    if (spans == null) spans = new ArrayList<>();
+                    spans.add(new Span(position, position + last));
+                }
+            }
+
+            if (spans != null) {
+                result.put(chapterIdx, spans);
+            }
+        }
+        return result;
+    }
+
+    private Map<Integer, int[]> collectPositions(String word, boolean prefix) {
+        int from = lowerBound(word);
+        Map<Integer, IntList> collected = new HashMap<>();
+
+        for (int t = from; t < terms.length && terms[t].startsWith(word); t++) {
+            if (!prefix && !IndonesianTextNormalizer.isInflectionOf(terms[t], word)) {
+                continue;
+            }
+
+            int[] packed = postings[t];
+            for (int i = 0; i < packed.length; i += 2) {
+                collected.computeIfAbsent(packed[i], k -> new IntList()).add(packed[i + 1]);
+            }
+        }
+
+        Map<Integer, int[]> positions = new HashMap<>(collected.size() * 2);
+        for (Map.Entry<Integer, IntList> entry : collected.entrySet()) {
+            int[] sorted = entry.getValue().toArray();
+            Arrays.sort(sorted);
+            positions.put(entry.getKey(), sorted);
+        }
+        return positions;
+    }
+
+    private int lowerBound(String word) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(word) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static List<Clause> parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            boolean quoted = i % 2 == 1 && i < parts.length - 1;
+            if (quoted) {
+                addClause(clauses, parts[i]);
+            } else {
+                for (String word : parts[i].trim().split("\\s+")) {
+                    addClause(clauses, word);
+                }
+            }
+        }
+        return clauses;
+    }
+
+    private static void addClause(List<Clause> clauses, String text) {
+        boolean prefix = text.trim().endsWith("*");
+        List<String> words = new ArrayList<>();
+        IndonesianTextNormalizer.tokenize(text, (term, start, end) -> words.add(term));
+        if (!words.isEmpty()) {
+            clauses.add(new Clause(words, prefix));
+        }
+    }
+
+    public static final class Builder {
+        private final List<IndexedChapter> chapters = new ArrayList<>();
+        private final Map<String, IntList> postingsByTerm = new HashMap<>();
+        private long estimatedBytes;
+
+        private Builder() {
+        }
+
+        public Builder addChapter(Long id, int number, String title, String slug, Integer level,
+                                  String parentSlug, String content) {
+            String text = content != null ? content : "";
+            int chapterIdx = chapters.size();
+            IntList starts = new IntList();
+            IntList ends = new IntList();
+
+            IndonesianTextNormalizer.tokenize(text, (term, start, end) -> {
+                postingsByTerm.computeIfAbsent(term, k -> new IntList()).add(chapterIdx).add(starts.size());
+                starts.add(start);
+                ends.add(end);
+            });
+
+            chapters.add(new IndexedChapter(id, number, title, slug, level, parentSlug, text,
+                    starts.toArray(), ends.toArray()));
+
+            // chars + token offsets + postings pairs
+            estimatedBytes += 2L * text.length() + 16L * starts.size() + 128;
+            return this;
+        }
+
+        public BookSearchIndex build() {
+            String[] terms = postingsByTerm.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+
+            int[][] postings = new int[terms.length][];
+            long bytes = estimatedBytes;
+            for (int t = 0; t < terms.length; t++) {
+                postings[t] = postingsByTerm.get(terms[t]).toArray();
+                bytes += 64 + 2L * terms[t].length();
+            }
+
+            return new BookSearchIndex(List.copyOf(chapters), terms, postings, bytes);
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        IntList add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            return this;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
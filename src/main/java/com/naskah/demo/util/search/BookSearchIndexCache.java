@@ -0,0 +1,72 @@
+package com.naskah.demo.util.search;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-book search indexes held within a memory budget (by {@link BookSearchIndex#getEstimatedBytes()}),
+ * evicting the least recently used books once it is exceeded. An index larger than the whole budget is
+ * never cached.
+ */
+public final class BookSearchIndexCache {
+
+    private final long budgetBytes;
+    private final LinkedHashMap<Long, BookSearchIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    public BookSearchIndexCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public synchronized BookSearchIndex get(Long bookId) {
+        return indexes.get(bookId);
+    }
+
+    /**
+     * Cache the index, evicting least recently used books (never this one) until the budget holds again.
+     * Returns the evicted book ids, or null when the index alone exceeds the budget and was not cached.
+     */
+    public synchronized List<Long> put(Long bookId, BookSearchIndex index) {
+        if (index.getEstimatedBytes() > budgetBytes) {
+            return null;
+        }
+
+        BookSearchIndex previous = indexes.put(bookId, index);
+        if (previous != null) {
+            cachedBytes -= previous.getEstimatedBytes();
+        }
+        cachedBytes += index.getEstimatedBytes();
+
+        List<Long> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Long, BookSearchIndex>> eldest = indexes.entrySet().iterator();
+        while (cachedBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<Long, BookSearchIndex> entry = eldest.next();
+            if (entry.getKey().equals(bookId)) {
+                continue;
+            }
+            cachedBytes -= entry.getValue().getEstimatedBytes();
+            eldest.remove();
+            evicted.add(entry.getKey());
+        }
+        return evicted;
+    }
+
+    public synchronized BookSearchIndex remove(Long bookId) {
+        BookSearchIndex removed = indexes.remove(bookId);
+        if (removed != null) {
+            cachedBytes -= removed.getEstimatedBytes();
+        }
+        return removed;
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized int size() {
+        return indexes.size();
+    }
+}
@@ -0,0 +1,65 @@
+package com.naskah.demo.util.search;
+
+import java.util.*;
+
+/**
+ * Per-facet-value bitmaps over book ids, used to count facets for a set of matching books without
+ * touching the database. Book ids index straight into {@link BitSet}s (ids are dense serials).
+ * <p>
+ * Not thread-safe on its own; the owner guards reads and writes.
+ */
+public final class FacetBitmaps {
+
+    private final Map<String, Map<Long, BitSet>> facets = new HashMap<>();
+    private final BitSet active = new BitSet();
+
+    public void setActive(int bookId, boolean isActive) {
+        active.set(bookId, isActive);
+    }
+
+    public BitSet active() {
+        return (BitSet) active.clone();
+    }
+
+    public void add(String facet, Long value, int bookId) {
+        if (value == null) {
+            return;
+        }
+        facets.computeIfAbsent(facet, k -> new HashMap<>())
+                .computeIfAbsent(value, k -> new BitSet())
+                .set(bookId);
+    }
+
+    public void removeBook(int bookId) {
+        active.clear(bookId);
+        for (Map<Long, BitSet> values : facets.values()) {
+            for (BitSet bitmap : values.values()) {
+                bitmap.clear(bookId);
+            }
+        }
+    }
+
+    /**
+     * Books having the given facet value (empty if none)
+     */
+    public BitSet valueBitmap(String facet, Long value) {
+        BitSet bitmap = facets.getOrDefault(facet, Collections.emptyMap()).get(value);
+        return bitmap != null ? (BitSet) bitmap.clone() : new BitSet();
+    }
+
+    /**
+     * Count of {@code base} books per value of {@code facet}; values with zero books are left out.
+     */
+    public Map<Long, Integer> counts(String facet, BitSet base) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Map.Entry<Long, BitSet> entry : facets.getOrDefault(facet, Collections.emptyMap()).entrySet()) {
+            BitSet intersection = (BitSet) entry.getValue().clone();
+            intersection.and(base);
+            int count = intersection.cardinality();
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+}
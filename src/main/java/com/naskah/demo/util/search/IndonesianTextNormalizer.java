@@ -0,0 +1,156 @@
+package com.naskah.demo.util.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizing and normalisation shared by the in-book search index and its queries.
+ * <p>
+ * Tokens are runs of letters / digits; hyphens and apostrophes split, so reduplications such as
+ * "anak-anak" become two consecutive tokens and still match as a phrase. Terms are lowercased and
+ * diacritics are folded ("é" -> "e"). Inflected forms with Indonesian particles and possessive
+ * pronouns (bukunya, dialah, rumahku ...) are matched at query time via {@link #isInflectionOf}
+ * instead of being stemmed away, so prefix queries keep working on the surface form.
+ */
+public final class IndonesianTextNormalizer {
+
+    @FunctionalInterface
+    public interface TokenConsumer {
+        void accept(String term, int start, int end);
+    }
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /** Particles (-lah, -kah, -tah, -pun) and possessives (-ku, -mu, -nya), alone or combined */
+    private static final Set<String> INFLECTION_SUFFIXES = Set.of(
+            "nya", "ku", "mu",
+            "lah", "kah", "tah", "pun",
+            "nyalah", "nyakah", "nyapun",
+            "kulah", "kukah", "kupun",
+            "mulah", "mukah", "mupun"
+    );
+
+    private static final int MIN_INFLECTABLE_LENGTH = 3;
+
+    /**
+     * Ejaan Lama (pre-1972) spellings and their EYD equivalents: Soekarno / Sukarno, Djakarta / Jakarta,
+     * Tjerita / Cerita, Sjahrir / Syahrir. Old "j" = modern "y" is left out on purpose, it would collide with
+     * every modern "j"; trigram similarity covers those. So are "nj" and "ch": modern words keep them
+     * (menjadi, tanjung, cache), and "menjanjikan" must not become "menyanyikan".
+     */
+    private static final String[][] OLD_SPELLINGS = {
+            {"oe", "u"}, {"dj", "j"}, {"tj", "c"}, {"sj", "sy"}
+    };
+
+    /** Old "nj" / "ch" spellings only rewritten as whole words, for common words and names in the collection */
+    private static final Map<String, String> OLD_WORDS = Map.of(
+            "njonja", "nyonya",
+            "njai", "nyai",
+            "njata", "nyata",
+            "achmad", "akhmad",
+            "machmud", "makhmud",
+            "chairul", "khairul"
+    );
+
+    private IndonesianTextNormalizer() {
+    }
+
+    public static String normalize(String token) {
+        String lower = token.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7F) {
+                return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * Emit every token of {@code text} with its normalised term and [start, end) char offsets.
+     */
+    public static void tokenize(String text, TokenConsumer consumer) {
+        if (text == null) {
+            return;
+        }
+
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i < length; ) {
+            int cp = text.codePointAt(i);
+            boolean wordChar = Character.isLetterOrDigit(cp) || Character.getType(cp) == Character.NON_SPACING_MARK;
+
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                consumer.accept(normalize(text.substring(start, i)), start, i);
+                start = -1;
+            }
+            i += Character.charCount(cp);
+        }
+
+        if (start >= 0) {
+            consumer.accept(normalize(text.substring(start)), start, length);
+        }
+    }
+
+    /**
+     * A normalised term rewritten to EYD spelling, in one left-to-right pass so replacements never chain.
+     */
+    public static String toEyd(String term) {
+        String word = OLD_WORDS.get(term);
+        if (word != null) {
+            return word;
+        }
+
+        StringBuilder sb = null;
+        int length = term.length();
+        for (int i = 0; i < length; i++) {
+            String replacement = null;
+            if (i + 1 < length) {
+                for (String[] spelling : OLD_SPELLINGS) {
+                    if (term.charAt(i) == spelling[0].charAt(0) && term.charAt(i + 1) == spelling[0].charAt(1)) {
+                        replacement = spelling[1];
+                        break;
+                    }
+                }
+            }
+
+            if (replacement != null) {
+                if (sb == null) sb = new StringBuilder(length).append(term, 0, i);
+                sb.append(replacement);
+                i++;
+            } else if (sb != null) {
+                sb.append(term.charAt(i));
+            }
+        }
+        return sb != null ? sb.toString() : term;
+    }
+
+    /**
+     * Text reduced to its comparison form: tokens lowercased, diacritics folded, old spellings rewritten to EYD,
+     * joined by single spaces. Applied to both the indexed text and the query so either spelling matches.
+     */
+    public static String canonicalize(String text) {
+        StringBuilder sb = new StringBuilder();
+        tokenize(text, (term, start, end) -> {
+            if (!sb.isEmpty()) sb.append(' ');
+            sb.append(toEyd(term));
+        });
+        return sb.toString();
+    }
+
+    /**
+     * True if {@code term} is {@code base} or {@code base} followed by a particle / possessive suffix.
+     */
+    public static boolean isInflectionOf(String term, String base) {
+        if (term.equals(base)) {
+            return true;
+        }
+        return base.length() >= MIN_INFLECTABLE_LENGTH
+                && term.startsWith(base)
+                && INFLECTION_SUFFIXES.contains(term.substring(base.length()));
+    }
+}
@@ -0,0 +1,406 @@
+package com.naskah.demo.util.search;
+
+import java.util.*;
+
+/**
+ * Prefix trie for typeahead over short labels (titles, names), with popularity weights.
+ * <p>
+ * Every entry is indexed under its normalised label and under the label starting at each later word, so
+ * "manusia" finds "Bumi Manusia". Keys and queries are spelled EYD, so "soekarno" also finds "Sukarno".
+ * Each node caches the best {@code topK} entries of its subtree per entry type, so a lookup is a walk down
+ * the prefix plus a merge of at most {@code topK} items from each requested type; a type filter never
+ * loses its matches to more popular entries of other types. Matches that start at a later word score a
+ * little lower than matches on the start of the label.
+ * <p>
+ * Not thread-safe: callers guard writes (put / remove / rebuildTops) against concurrent reads.
+ */
+public final class SuggestTrie {
+
+    public record Entry(String type, long id, String label, String slug, double weight) {
+        String key() {
+            return type + ':' + id;
+        }
+    }
+
+    private record Scored(Entry entry, double score) {
+    }
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Scored[] NO_SCORED = new Scored[0];
+    private static final Scored[][] NO_TOPS = new Scored[0][];
+    private static final Comparator<Scored> BY_SCORE = Comparator.comparingDouble(Scored::score).reversed()
+            .thenComparing(s -> s.entry().label());
+
+    /** Words of a label that get their own index key (the label start plus the next few words) */
+    private static final int MAX_INDEXED_WORDS = 6;
+    private static final double LATER_WORD_FACTOR = 0.8;
+
+    /** Radix node: single-child chains are collapsed into the edge label, so nodes stay at most twice the key count */
+    private static final class Node {
+        String edge;
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        Scored[] terminal = NO_SCORED;
+        /** Best entries of the subtree, one sorted list per type index (shorter than the type count until refreshed) */
+        Scored[][] tops = NO_TOPS;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Scored[] top(int type) {
+            return type < tops.length ? tops[type] : NO_SCORED;
+        }
+
+        void putChild(Node child) {
+            char c = child.edge.charAt(0);
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                children[i] = child;
+                return;
+            }
+
+            int at = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = child;
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+
+    private final Node root = new Node("");
+    private final int topK;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final List<String> typeNames = new ArrayList<>();
+
+    public SuggestTrie(int topK) {
+        this.topK = topK;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Add or replace an entry and refresh the cached top lists on its paths.
+     */
+    public void put(Entry entry) {
+        remove(entry.type(), entry.id());
+        registerType(entry.type());
+        for (Map.Entry<String, Double> key : indexKeys(entry).entrySet()) {
+            List<Node> path = insertKey(key.getKey(), new Scored(entry, key.getValue()));
+            refreshPath(path);
+        }
+        entries.put(entry.key(), entry);
+    }
+
+    /**
+     * Add an entry without refreshing top lists; call {@link #rebuildTops()} once after a bulk load.
+     */
+    public void putDeferred(Entry entry) {
+        remove(entry.type(), entry.id());
+        registerType(entry.type());
+        for (Map.Entry<String, Double> key : indexKeys(entry).entrySet()) {
+            insertKey(key.getKey(), new Scored(entry, key.getValue()));
+        }
+        entries.put(entry.key(), entry);
+    }
+
+    public void remove(String type, long id) {
+        Entry existing = entries.remove(type + ':' + id);
+        if (existing == null) {
+            return;
+        }
+
+        for (String key : indexKeys(existing).keySet()) {
+            List<Node> path = pathOf(key);
+            if (path == null) {
+                continue;
+            }
+
+            int last = path.size() - 1;
+            Node end = path.get(last);
+            end.terminal = without(end.terminal, existing);
+
+            // keep the tree compressed: drop an emptied leaf, fold a pass-through node into its only child
+            if (last > 0 && end.terminal.length == 0) {
+                Node parent = path.get(last - 1);
+                if (end.keys.length == 0) {
+                    parent.removeChild(end.edge.charAt(0));
+                    path.remove(last);
+                    if (last > 1 && parent.terminal.length == 0 && parent.keys.length == 1) {
+                        foldIntoChild(path.get(last - 2), parent);
+                        path.remove(last - 1);
+                    }
+                } else if (end.keys.length == 1) {
+                    foldIntoChild(parent, end);
+                    path.remove(last);
+                }
+            }
+            refreshPath(path);
+        }
+    }
+
+    /** Recompute every node's top list (post-order), after {@link #putDeferred} bulk loads */
+    public void rebuildTops() {
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Node> postOrder = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            postOrder.push(node);
+            for (Node child : node.children) {
+                stack.push(child);
+            }
+        }
+        while (!postOrder.isEmpty()) {
+            recomputeTop(postOrder.pop());
+        }
+    }
+
+    /**
+     * Best entries whose label (or a later word of it) starts with the query, optionally of the given types only.
+     */
+    public List<Entry> suggest(String query, int limit, Set<String> types) {
+        String prefix = normalizeLabel(query);
+        if (prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            node = node.child(prefix.charAt(i));
+            if (node == null) {
+                return Collections.emptyList();
+            }
+
+            // the prefix may end inside an edge label
+            int matched = Math.min(node.edge.length(), prefix.length() - i);
+            if (!node.edge.regionMatches(0, prefix, i, matched)) {
+                return Collections.emptyList();
+            }
+            i += matched;
+        }
+
+        List<Scored[]> lists = new ArrayList<>();
+        for (int t = 0; t < typeNames.size(); t++) {
+            if (types == null || types.contains(typeNames.get(t))) {
+                lists.add(node.top(t));
+            }
+        }
+
+        Scored[] best = merge(lists.toArray(new Scored[0][]), limit);
+        List<Entry> result = new ArrayList<>(best.length);
+        for (Scored scored : best) {
+            result.add(scored.entry());
+        }
+        return result;
+    }
+
+    /**
+     * Lowercased, diacritic-free, EYD-spelled words joined by single spaces; a trailing partial word is kept.
+     */
+    public static String normalizeLabel(String text) {
+        return IndonesianTextNormalizer.canonicalize(text);
+    }
+
+    private Map<String, Double> indexKeys(Entry entry) {
+        List<String> words = new ArrayList<>();
+        IndonesianTextNormalizer.tokenize(entry.label(), (term, start, end) -> words.add(IndonesianTextNormalizer.toEyd(term)));
+
+        Map<String, Double> keys = new LinkedHashMap<>();
+        for (int i = 0; i < words.size() && i < MAX_INDEXED_WORDS; i++) {
+            String key = String.join(" ", words.subList(i, words.size()));
+            keys.putIfAbsent(key, i == 0 ? entry.weight() : entry.weight() * LATER_WORD_FACTOR);
+        }
+        return keys;
+    }
+
+    private List<Node> insertKey(String key, Scored scored) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.putChild(child);
+                node = child;
+                path.add(node);
+                break;
+            }
+
+            int common = commonPrefixLength(child.edge, key, i);
+            if (common < child.edge.length()) {
+                // split the edge: node -> mid (shared part) -> child (rest)
+                Node mid = new Node(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                mid.putChild(child);
+                node.putChild(mid);
+                child = mid;
+            }
+
+            node = child;
+            path.add(node);
+            i += common;
+        }
+
+        Scored[] terminal = Arrays.copyOf(node.terminal, node.terminal.length + 1);
+        terminal[terminal.length - 1] = scored;
+        node.terminal = terminal;
+        return path;
+    }
+
+    private List<Node> pathOf(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+
+        int i = 0;
+        while (i < key.length()) {
+            node = node.child(key.charAt(i));
+            if (node == null || !key.startsWith(node.edge, i)) {
+                return null;
+            }
+            path.add(node);
+            i += node.edge.length();
+        }
+        return path;
+    }
+
+    private static int commonPrefixLength(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && edge.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static void foldIntoChild(Node parent, Node node) {
+        Node only = node.children[0];
+        only.edge = node.edge + only.edge;
+        parent.putChild(only);
+    }
+
+    private void refreshPath(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            recomputeTop(path.get(i));
+        }
+    }
+
+    /**
+     * A node's top list for each type is the best of its own terminal entries of that type and its
+     * children's lists for the type.
+     */
+    private void recomputeTop(Node node) {
+        Scored[] terminal = node.terminal.clone();
+        Arrays.sort(terminal, BY_SCORE);
+
+        Scored[][] tops = new Scored[typeNames.size()][];
+        Scored[][] lists = new Scored[node.children.length + 1][];
+        for (int t = 0; t < tops.length; t++) {
+            lists[0] = ofType(terminal, typeNames.get(t));
+            for (int c = 0; c < node.children.length; c++) {
+                lists[c + 1] = node.children[c].top(t);
+            }
+            tops[t] = merge(lists, topK);
+        }
+        node.tops = tops;
+    }
+
+    /**
+     * Lists are already sorted, so this is a k-way merge that stops after {@code limit} distinct entries
+     */
+    private static Scored[] merge(Scored[][] lists, int limit) {
+        int available = 0;
+        for (Scored[] list : lists) {
+            available += list.length;
+        }
+
+        Scored[] top = new Scored[Math.min(limit, available)];
+        int[] heads = new int[lists.length];
+        int size = 0;
+
+        while (size < top.length) {
+            int bestSource = -1;
+            for (int src = 0; src < lists.length; src++) {
+                if (heads[src] < lists[src].length
+                        && (bestSource < 0 || BY_SCORE.compare(lists[src][heads[src]], lists[bestSource][heads[bestSource]]) < 0)) {
+                    bestSource = src;
+                }
+            }
+            if (bestSource < 0) break;
+
+            Scored candidate = lists[bestSource][heads[bestSource]++];
+            boolean seen = false;
+            // an entry reaches a node through a handful of keys at most, so a linear dedupe is enough
+            for (int j = 0; j < size && !seen; j++) {
+                seen = top[j].entry() == candidate.entry();
+            }
+            if (!seen) {
+                top[size++] = candidate;
+            }
+        }
+
+        return size == 0 ? NO_SCORED : size == top.length ? top : Arrays.copyOf(top, size);
+    }
+
+    private static Scored[] ofType(Scored[] sorted, String type) {
+        int kept = 0;
+        Scored[] result = new Scored[sorted.length];
+        for (Scored scored : sorted) {
+            if (scored.entry().type().equals(type)) {
+                result[kept++] = scored;
+            }
+        }
+        return kept == 0 ? NO_SCORED : kept == sorted.length ? result : Arrays.copyOf(result, kept);
+    }
+
+    private void registerType(String type) {
+        if (!typeNames.contains(type)) {
+            typeNames.add(type);
+        }
+    }
+
+    private static Scored[] without(Scored[] scoredEntries, Entry entry) {
+        int kept = 0;
+        Scored[] result = new Scored[scoredEntries.length];
+        for (Scored scored : scoredEntries) {
+            if (scored.entry() != entry) {
+                result[kept++] = scored;
+            }
+        }
+        return kept == 0 ? NO_SCORED : Arrays.copyOf(result, kept);
+    }
+}
@@ -0,0 +1,85 @@
+package com.naskah.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivityBitmapTest {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void readsPostgresSetBitLayout() {
+        // set_bit(bits, n, 1) sets bit n % 8 (least significant first) of byte n / 8
+        byte[] stored = {0b0000_0001, 0b0000_0010, (byte) 0b1000_0000};
+
+        ActivityBitmap bitmap = new ActivityBitmap(ORIGIN, stored);
+
+        assertTrue(bitmap.isActive(ORIGIN));
+        assertTrue(bitmap.isActive(ORIGIN.plusDays(9)));
+        assertTrue(bitmap.isActive(ORIGIN.plusDays(23)));
+        assertFalse(bitmap.isActive(ORIGIN.plusDays(1)));
+        assertFalse(bitmap.isActive(ORIGIN.plusDays(8)));
+        assertEquals(3, bitmap.activeDays(ORIGIN, ORIGIN.plusDays(30)));
+    }
+
+    @Test
+    void matchesTheBytesTheServiceWrites() {
+        BitSet bits = new BitSet();
+        bits.set(0);
+        bits.set(9);
+        bits.set(23);
+
+        assertArrayEquals(new byte[]{0b0000_0001, 0b0000_0010, (byte) 0b1000_0000}, bits.toByteArray());
+    }
+
+    @Test
+    void daysOutsideTheBitmapAreInactive() {
+        ActivityBitmap bitmap = new ActivityBitmap(ORIGIN, new byte[]{0b0000_0001});
+
+        assertFalse(bitmap.isActive(ORIGIN.minusDays(1)));
+        assertFalse(bitmap.isActive(ORIGIN.plusDays(400)));
+        assertEquals(1, bitmap.activeDays(ORIGIN.minusDays(10), ORIGIN.plusDays(400)));
+        assertEquals(0, new ActivityBitmap(ORIGIN, null).longestStreak());
+    }
+
+    @Test
+    void currentStreakEndsTodayOrYesterday() {
+        LocalDate today = ORIGIN.plusDays(20);
+        ActivityBitmap bitmap = bitmap(15, 16, 17, 18, 19, 20);
+
+        assertEquals(6, bitmap.currentStreak(today));
+        // today not read yet: the streak through yesterday still counts
+        assertEquals(6, bitmap.currentStreak(today.plusDays(1)));
+        // a whole day missed breaks it
+        assertEquals(0, bitmap.currentStreak(today.plusDays(2)));
+        assertEquals(0, bitmap.currentStreak(ORIGIN.minusDays(1)));
+    }
+
+    @Test
+    void currentStreakStartingAtTheOrigin() {
+        assertEquals(3, bitmap(0, 1, 2).currentStreak(ORIGIN.plusDays(2)));
+    }
+
+    @Test
+    void longestStreakOverAllAndInARange() {
+        ActivityBitmap bitmap = bitmap(0, 1, 2, 10, 11, 12, 13, 14, 30, 31);
+
+        assertEquals(5, bitmap.longestStreak());
+        assertEquals(3, bitmap.longestStreak(ORIGIN, ORIGIN.plusDays(9)));
+        // a range cutting through a run only counts its part
+        assertEquals(2, bitmap.longestStreak(ORIGIN.plusDays(13), ORIGIN.plusDays(20)));
+        assertEquals(0, bitmap.longestStreak(ORIGIN.plusDays(20), ORIGIN.plusDays(25)));
+    }
+
+    private static ActivityBitmap bitmap(int... activeDays) {
+        BitSet bits = new BitSet();
+        for (int day : activeDays) {
+            bits.set(day);
+        }
+        return new ActivityBitmap(ORIGIN, bits.toByteArray());
+    }
+}
@@ -0,0 +1,58 @@
+package com.naskah.demo.util;
+
+import com.naskah.demo.exception.custom.InvalidDataException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorUtilTest {
+
+    @Test
+    void roundTripsEveryPart() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 5, 14, 30, 15, 123_000_000);
+
+        String cursor = CursorUtil.encode("newest", createdAt, 42L);
+
+        assertEquals(List.of("newest", createdAt.toString(), "42"), CursorUtil.decode(cursor, 3));
+        assertEquals(createdAt, LocalDateTime.parse(CursorUtil.decode(cursor, 3).get(1)));
+    }
+
+    @Test
+    void keepsTextWithSpacesAndCommas() {
+        String cursor = CursorUtil.encode("title", "Bumi Manusia, Jilid 1", 7L);
+
+        assertEquals("Bumi Manusia, Jilid 1", CursorUtil.decode(cursor, 3).get(1));
+    }
+
+    @Test
+    void isUrlSafe() {
+        String cursor = CursorUtil.encode("rating", 4.75, Long.MAX_VALUE, "???>>>");
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(InvalidDataException.class, () -> CursorUtil.decode("not base64!", 3));
+        assertThrows(InvalidDataException.class, () -> CursorUtil.decode("%%%", 3));
+    }
+
+    @Test
+    void rejectsWrongArity() {
+        String twoParts = CursorUtil.encode("popular", 10.0);
+        String foreign = Base64.getUrlEncoder().encodeToString("just some text".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidDataException.class, () -> CursorUtil.decode(twoParts, 3));
+        assertThrows(InvalidDataException.class, () -> CursorUtil.decode(foreign, 3));
+    }
+
+    @Test
+    void refusesToEncodeMissingParts() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtil.encode("newest", null, 1L));
+    }
+}
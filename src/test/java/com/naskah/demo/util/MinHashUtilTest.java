@@ -0,0 +1,84 @@
+package com.naskah.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashUtilTest {
+
+    private static final String[] VOCABULARY = {
+            "bumi", "manusia", "minke", "annelies", "nyai", "ontosoroh", "surabaya", "wonokromo", "sekolah",
+            "belanda", "pribumi", "tulisan", "koran", "cinta", "hukum", "pengadilan", "ibu", "ayah", "kuda",
+            "kereta", "rumah", "malam", "pagi", "jalan", "kota", "desa", "sungai", "surat", "buku", "guru"
+    };
+
+    @Test
+    void identicalTextHasIdenticalSignatureAndBands() {
+        String text = randomText(1, 2000);
+
+        int[] a = MinHashUtil.computeSignature(text);
+        int[] b = MinHashUtil.computeSignature(text);
+
+        assertArrayEquals(a, b);
+        assertEquals(1.0, MinHashUtil.estimateSimilarity(a, b));
+        assertArrayEquals(MinHashUtil.bandKeys(a), MinHashUtil.bandKeys(b));
+    }
+
+    @Test
+    void casingPunctuationAndWhitespaceAreIgnored() {
+        String plain = "bumi manusia adalah roman pertama dari tetralogi buru karya pramoedya";
+        String noisy = "  Bumi, MANUSIA adalah roman — pertama dari\n\ttetralogi Buru karya Pramoedya!";
+
+        assertArrayEquals(MinHashUtil.computeSignature(plain), MinHashUtil.computeSignature(noisy));
+    }
+
+    @Test
+    void nearDuplicateScoresHighAndUnrelatedScoresLow() {
+        String original = randomText(7, 3000);
+        String edited = editWords(original, 30, 99);
+        String unrelated = randomText(8, 3000);
+
+        int[] signature = MinHashUtil.computeSignature(original);
+
+        assertTrue(MinHashUtil.estimateSimilarity(signature, MinHashUtil.computeSignature(edited)) > 0.75);
+        assertTrue(MinHashUtil.estimateSimilarity(signature, MinHashUtil.computeSignature(unrelated)) < 0.2);
+    }
+
+    @Test
+    void textShorterThanOneShingleHasNoSignature() {
+        assertNull(MinHashUtil.computeSignature("satu dua tiga empat"));
+        assertNull(MinHashUtil.computeSignature(""));
+        assertNotNull(MinHashUtil.computeSignature("satu dua tiga empat lima"));
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        int[] signature = MinHashUtil.computeSignature(randomText(3, 500));
+        byte[] bytes = MinHashUtil.toBytes(signature);
+
+        assertEquals(MinHashUtil.NUM_HASHES * Integer.BYTES, bytes.length);
+        assertArrayEquals(signature, MinHashUtil.fromBytes(bytes));
+    }
+
+    private static String randomText(long seed, int words) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    /** Replace {@code count} words spread evenly through the text with a word outside the vocabulary */
+    private static String editWords(String text, int count, long seed) {
+        String[] words = text.trim().split(" ");
+        Random random = new Random(seed);
+        int step = words.length / count;
+        for (int i = 0; i < count; i++) {
+            words[i * step + random.nextInt(step)] = "suntingan" + i;
+        }
+        return String.join(" ", words);
+    }
+}
@@ -0,0 +1,92 @@
+package com.naskah.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    @Test
+    void servesCachedValueUntilInvalidated() {
+        SearchResultCache cache = new SearchResultCache(60_000, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get("q", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get("q", () -> "v" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+
+        cache.invalidateAll();
+
+        assertEquals("v2", cache.get("q", () -> "v" + loads.incrementAndGet()));
+        assertEquals(1, cache.getGeneration());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void loadThatRacedAnInvalidationIsReturnedButNotCached() {
+        SearchResultCache cache = new SearchResultCache(60_000, 100);
+
+        // a write commits while the load is still reading
+        String raced = cache.get("q", () -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+
+        assertEquals("stale", raced);
+        assertEquals(0, cache.size());
+        assertEquals("fresh", cache.get("q", () -> "fresh"));
+        assertEquals("fresh", cache.get("q", () -> "unused"));
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        SearchResultCache cache = new SearchResultCache(50, 100);
+        cache.get("q", () -> "old");
+
+        Thread.sleep(80);
+
+        assertEquals("new", cache.get("q", () -> "new"));
+    }
+
+    @Test
+    void nullResultsAreNotCached() {
+        SearchResultCache cache = new SearchResultCache(60_000, 100);
+
+        assertNull(cache.get("q", () -> null));
+        assertEquals("loaded", cache.get("q", () -> "loaded"));
+    }
+
+    @Test
+    void evictsStaleGenerationsBeforeLeastRecentlyUsed() {
+        SearchResultCache cache = new SearchResultCache(60_000, 2);
+        cache.get("a", () -> "a");
+        cache.invalidateAll();
+        cache.get("b", () -> "b");
+        cache.get("c", () -> "c");
+
+        assertEquals(2, cache.size());
+        assertEquals("b", cache.get("b", () -> "reloaded"));
+        assertEquals("c", cache.get("c", () -> "reloaded"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenFull() {
+        SearchResultCache cache = new SearchResultCache(60_000, 2);
+        cache.get("a", () -> "a");
+        cache.get("b", () -> "b");
+        cache.get("a", () -> "unused");
+        cache.get("c", () -> "c");
+
+        assertEquals("a", cache.get("a", () -> "reloaded"));
+        assertEquals("reloaded", cache.get("b", () -> "reloaded"));
+    }
+
+    @Test
+    void keysIgnoreCaseAndWhitespace() {
+        assertEquals(SearchResultCache.key("catalog", "  Bumi   Manusia "), SearchResultCache.key("catalog", "bumi manusia"));
+        assertNotEquals(SearchResultCache.key("catalog", "bumi"), SearchResultCache.key("cursor", "bumi"));
+    }
+}
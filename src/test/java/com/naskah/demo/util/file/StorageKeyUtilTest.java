@@ -0,0 +1,65 @@
+package com.naskah.demo.util.file;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageKeyUtilTest {
+
+    private static final String EPUB_V1 = "https://res.cloudinary.com/naskah/raw/upload/v1700000001/book_files/bumi-manusia.epub";
+    private static final String EPUB_V2 = "https://res.cloudinary.com/naskah/raw/upload/v1700000999/book_files/bumi-manusia.epub";
+    private static final String COVER_V1 = "https://res.cloudinary.com/naskah/image/upload/v1700000001/book_covers/book_42_cover.jpg";
+    private static final String COVER_V2 = "https://res.cloudinary.com/naskah/image/upload/v1700000999/book_covers/book_42_cover.jpg";
+
+    @Test
+    void publicIdDropsVersionAndExtension() {
+        assertEquals("book_covers/book_42_cover", StorageKeyUtil.cloudinaryPublicId(COVER_V1));
+        assertEquals("book_covers/book_42_cover", StorageKeyUtil.cloudinaryPublicId(COVER_V2));
+        assertEquals("book_files/bumi-manusia", StorageKeyUtil.cloudinaryPublicId(EPUB_V1));
+        assertNull(StorageKeyUtil.cloudinaryPublicId("https://example.com/cover.jpg"));
+    }
+
+    @Test
+    void reUploadOverTheSamePublicIdIsNotStale() {
+        // overwrite=true keeps the public id but returns a URL with a new version
+        List<String> oldFiles = List.of(EPUB_V1, COVER_V1);
+        List<String> newFiles = List.of(EPUB_V2, COVER_V2);
+
+        assertNotEquals(EPUB_V1, EPUB_V2);
+        assertTrue(StorageKeyUtil.staleFiles(oldFiles, newFiles).isEmpty());
+    }
+
+    @Test
+    void fileUnderAnotherPublicIdIsStale() {
+        String renamedEpub = "https://res.cloudinary.com/naskah/raw/upload/v1700000999/book_files/bumi-manusia-edisi-2.epub";
+
+        assertEquals(List.of(EPUB_V1), StorageKeyUtil.staleFiles(List.of(EPUB_V1, COVER_V1), List.of(renamedEpub, COVER_V2)));
+    }
+
+    @Test
+    void sameNameUnderAnotherResourceTypeIsADifferentFile() {
+        String rawCover = "https://res.cloudinary.com/naskah/raw/upload/v1/book_covers/book_42_cover.jpg";
+
+        assertNotEquals(StorageKeyUtil.storageKey(COVER_V1), StorageKeyUtil.storageKey(rawCover));
+    }
+
+    @Test
+    void droppedThumbnailIsStaleAndMissingFilesAreIgnored() {
+        String thumbnail = "https://res.cloudinary.com/naskah/image/upload/v1/book_covers/book_42_list.webp";
+
+        List<String> oldFiles = Arrays.asList(EPUB_V1, COVER_V1, thumbnail, null, " ");
+        List<String> newFiles = Arrays.asList(EPUB_V2, COVER_V2, null, null);
+
+        assertEquals(List.of(thumbnail), StorageKeyUtil.staleFiles(oldFiles, newFiles));
+    }
+
+    @Test
+    void localPathsCompareAsPaths() {
+        assertTrue(StorageKeyUtil.staleFiles(List.of("/data/books/a.epub"), List.of("/data/books/a.epub")).isEmpty());
+        assertEquals(List.of("/data/books/a.epub"),
+                StorageKeyUtil.staleFiles(List.of("/data/books/a.epub"), List.of("/data/books/b.epub")));
+    }
+}
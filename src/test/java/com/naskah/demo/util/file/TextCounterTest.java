@@ -0,0 +1,68 @@
+package com.naskah.demo.util.file;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextCounterTest {
+
+    private static final List<String> CORPUS = List.of(
+            "",
+            "   ",
+            "Bumi Manusia",
+            "  Pramoedya   Ananta\tToer \n",
+            "Di Bawah Lindungan Ka'bah — sebuah roman karya Hamka.",
+            "Tahun 1945 , tanggal 17 Agustus ... Proklamasi!",
+            "\"Saya tidak tahu,\" katanya; lalu - pergi.",
+            "Café, naïve, Ærø, Œuvre, straße, señor, São Paulo",
+            "Soewardi Soerjaningrat (Ki Hadjar Dewantara) mendirikan Taman Siswa pada 3 Juli 1922.",
+            "kata-kata, anak-anak, ber-sama2, x² ½ Ⅻ",
+            "— ... !!! ??? --- ***",
+            "Bab I\r\n\r\nPendahuluan\f\u000BAkhir",
+            "Salam 🙂 dan 📚 buku",
+            "中文 한국어 العربية ไทย",
+            "Line one.\nLine two.\n\n\tIndented line three with  double  spaces."
+    );
+
+    @Test
+    void countWordsMatchesLegacyRegexImplementation() {
+        for (String text : CORPUS) {
+            assertEquals(legacyCountWords(text), TextCounter.countWords(text), () -> "Mismatch for: " + text);
+        }
+    }
+
+    @Test
+    void unicodeSpacesSeparateWords() {
+        assertEquals(2, TextCounter.countWords("Bab\u00A01"));
+        assertEquals(3, TextCounter.countWords("satu\u2009dua\u2028tiga"));
+    }
+
+    @Test
+    void nullIsZero() {
+        assertEquals(0, TextCounter.countWords(null));
+        assertEquals(0, TextCounter.countCharacters(null));
+    }
+
+    @Test
+    void countCharactersSkipsSeparatorsAndCountsCodePoints() {
+        assertEquals(11, TextCounter.countCharacters(" Bumi\tManusia "));
+        assertEquals(5, TextCounter.countCharacters("buku📚"));
+    }
+
+    /**
+     * The implementation FileUtil.countWords used before TextCounter.
+     */
+    private static int legacyCountWords(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return 0;
+        }
+
+        String cleanText = text.trim().replaceAll("\\s+", " ");
+        String[] words = cleanText.split("\\s+");
+
+        return (int) Arrays.stream(words).filter(word -> !word.isEmpty() && word.matches(".*[\\p{L}\\p{N}].*")).count();
+    }
+}
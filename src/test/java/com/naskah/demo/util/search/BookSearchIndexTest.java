@@ -0,0 +1,129 @@
+package com.naskah.demo.util.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookSearchIndexTest {
+
+    private static final String CHAPTER_ONE = "Minke berkata kepada Annelies. Bukunya tertinggal di rumah.";
+    private static final String CHAPTER_TWO = "Annelies membaca buku itu. Buku baru datang dari Surabaya.";
+    private static final String CHAPTER_THREE = "Rumah besar di Wonokromo, jauh dari kota.";
+
+    private static BookSearchIndex index() {
+        return BookSearchIndex.builder()
+                .addChapter(11L, 1, "Satu", "satu", 1, null, CHAPTER_ONE)
+                .addChapter(12L, 2, "Dua", "dua", 1, null, CHAPTER_TWO)
+                .addChapter(13L, 3, "Tiga", "tiga", 1, null, CHAPTER_THREE)
+                .build();
+    }
+
+    @Test
+    void everyPlainWordMustOccur() {
+        BookSearchIndex index = index();
+
+        assertEquals(List.of(2), numbers(index.search("annelies membaca", null, null)));
+        assertEquals(List.of(1, 3), sorted(numbers(index.search("rumah di", null, null))));
+        assertTrue(index.search("annelies wonokromo", null, null).isEmpty());
+        assertTrue(index.search("   ", null, null).isEmpty());
+    }
+
+    @Test
+    void phraseNeedsConsecutivePositions() {
+        BookSearchIndex index = index();
+
+        List<BookSearchIndex.Hit> hits = index.search("\"membaca buku\"", null, null);
+        assertEquals(List.of(2), numbers(hits));
+        // Annelies(0) membaca(1) buku(2)
+        assertEquals(List.of(new BookSearchIndex.Span(1, 2)), hits.getFirst().spans());
+
+        assertTrue(index.search("\"buku membaca\"", null, null).isEmpty());
+        assertTrue(index.search("\"berkata annelies\"", null, null).isEmpty());
+    }
+
+    @Test
+    void wordsMatchTheirInflectedFormsButNotLongerWords() {
+        BookSearchIndex index = index();
+
+        // "bukunya" is buku + -nya
+        assertEquals(List.of(1, 2), sorted(numbers(index.search("buku", null, null))));
+        // "buk" is neither a word of the book nor a base of "buku"
+        assertTrue(index.search("buk", null, null).isEmpty());
+        // "berkata" is not kata + suffix
+        assertTrue(index.search("kata", null, null).isEmpty());
+    }
+
+    @Test
+    void trailingStarMakesAPrefix() {
+        BookSearchIndex index = index();
+
+        assertEquals(List.of(1, 2), sorted(numbers(index.search("buk*", null, null))));
+        assertEquals(List.of(2), numbers(index.search("\"membaca bu*\"", null, null)));
+        assertEquals(List.of(3), numbers(index.search("wono*", null, null)));
+    }
+
+    @Test
+    void spansPointAtTheMatchedText() {
+        BookSearchIndex.Hit hit = index().search("surabaya", null, null).getFirst();
+        BookSearchIndex.IndexedChapter chapter = hit.chapter();
+        BookSearchIndex.Span span = hit.spans().getFirst();
+
+        assertEquals(1, hit.matchCount());
+        assertEquals("Surabaya", chapter.content().substring(
+                chapter.tokenStarts()[span.startToken()], chapter.tokenEnds()[span.endToken()]));
+    }
+
+    @Test
+    void chapterRangeFiltersHits() {
+        BookSearchIndex index = index();
+
+        assertEquals(List.of(3), numbers(index.search("rumah", 2, null)));
+        assertEquals(List.of(1), numbers(index.search("rumah", null, 2)));
+        assertTrue(index.search("rumah", 2, 2).isEmpty());
+    }
+
+    @Test
+    void cacheEvictsLeastRecentlyUsedBooksOverBudget() {
+        BookSearchIndex first = index();
+        BookSearchIndex second = index();
+        BookSearchIndex third = index();
+        BookSearchIndexCache cache = new BookSearchIndexCache(first.getEstimatedBytes() * 2);
+
+        assertEquals(List.of(), cache.put(1L, first));
+        assertEquals(List.of(), cache.put(2L, second));
+        assertSame(first, cache.get(1L));
+
+        // book 2 is now the least recently used
+        assertEquals(List.of(2L), cache.put(3L, third));
+        assertSame(first, cache.get(1L));
+        assertNull(cache.get(2L));
+        assertSame(third, cache.get(3L));
+        assertEquals(first.getEstimatedBytes() * 2, cache.getCachedBytes());
+    }
+
+    @Test
+    void cacheSkipsAnIndexLargerThanTheBudgetAndTracksRemovals() {
+        BookSearchIndex index = index();
+        BookSearchIndexCache cache = new BookSearchIndexCache(index.getEstimatedBytes());
+
+        assertNull(new BookSearchIndexCache(index.getEstimatedBytes() - 1).put(1L, index));
+
+        assertEquals(List.of(), cache.put(1L, index));
+        assertEquals(List.of(), cache.put(1L, index));
+        assertEquals(index.getEstimatedBytes(), cache.getCachedBytes());
+
+        assertSame(index, cache.remove(1L));
+        assertEquals(0, cache.getCachedBytes());
+        assertEquals(0, cache.size());
+    }
+
+    private static List<Integer> numbers(List<BookSearchIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.chapter().number()).toList();
+    }
+
+    private static List<Integer> sorted(List<Integer> numbers) {
+        return numbers.stream().sorted().toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.naskah.demo.util.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndonesianTextNormalizerTest {
+
+    @Test
+    void rewritesOldSpellings() {
+        assertEquals("sukarno", IndonesianTextNormalizer.toEyd("soekarno"));
+        assertEquals("jakarta", IndonesianTextNormalizer.toEyd("djakarta"));
+        assertEquals("cerita", IndonesianTextNormalizer.toEyd("tjerita"));
+        assertEquals("syahrir", IndonesianTextNormalizer.toEyd("sjahrir"));
+        assertEquals("nyonya", IndonesianTextNormalizer.toEyd("njonja"));
+        assertEquals("akhmad", IndonesianTextNormalizer.toEyd("achmad"));
+    }
+
+    @Test
+    void leavesModernNjWordsAlone() {
+        assertEquals("menjadi", IndonesianTextNormalizer.toEyd("menjadi"));
+        assertEquals("tanjung", IndonesianTextNormalizer.toEyd("tanjung"));
+        assertEquals("menjanjikan", IndonesianTextNormalizer.toEyd("menjanjikan"));
+        assertEquals("menyanyikan", IndonesianTextNormalizer.toEyd("menyanyikan"));
+        assertNotEquals(IndonesianTextNormalizer.toEyd("menjanjikan"), IndonesianTextNormalizer.toEyd("menyanyikan"));
+    }
+
+    @Test
+    void leavesLoanwordsAlone() {
+        assertEquals("cache", IndonesianTextNormalizer.toEyd("cache"));
+        assertEquals("chip", IndonesianTextNormalizer.toEyd("chip"));
+        assertEquals("teknologi", IndonesianTextNormalizer.toEyd("teknologi"));
+        assertEquals("komputer", IndonesianTextNormalizer.toEyd("komputer"));
+    }
+
+    @Test
+    void replacementsDoNotChain() {
+        // "tjoe" is tj + oe, each rewritten once
+        assertEquals("cu", IndonesianTextNormalizer.toEyd("tjoe"));
+        assertEquals("juanda", IndonesianTextNormalizer.toEyd("djoeanda"));
+    }
+
+    @Test
+    void canonicalizeFoldsCaseDiacriticsAndSpelling() {
+        assertEquals("bung karno dan hatta", IndonesianTextNormalizer.canonicalize("Boeng  Karno dan HATTA!"));
+        assertEquals("cafe kota", IndonesianTextNormalizer.canonicalize("Café Kota"));
+        assertEquals(IndonesianTextNormalizer.canonicalize("Njai Ontosoroh"), IndonesianTextNormalizer.canonicalize("Nyai Ontosoroh"));
+    }
+
+    @Test
+    void recognisesInflectedForms() {
+        assertTrue(IndonesianTextNormalizer.isInflectionOf("bukunya", "buku"));
+        assertTrue(IndonesianTextNormalizer.isInflectionOf("dialah", "dia"));
+        assertFalse(IndonesianTextNormalizer.isInflectionOf("bukuan", "buku"));
+        assertFalse(IndonesianTextNormalizer.isInflectionOf("iaku", "ia"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.naskah.demo.util.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestTrieTest {
+
+    @Test
+    void prefixEndingInsideAnEdgeMatches() {
+        SuggestTrie trie = new SuggestTrie(5);
+        trie.put(new SuggestTrie.Entry("book", 1, "Bumi Manusia", "bumi-manusia", 10));
+
+        assertEquals(List.of(1L), ids(trie.suggest("bu", 5, null)));
+        assertEquals(List.of(1L), ids(trie.suggest("bumi man", 5, null)));
+        assertEquals(List.of(1L), ids(trie.suggest("manu", 5, null)));
+        assertTrue(trie.suggest("bumx", 5, null).isEmpty());
+        assertTrue(trie.suggest("bumi manusia jilid", 5, null).isEmpty());
+    }
+
+    @Test
+    void splitEdgesKeepBothBranches() {
+        SuggestTrie trie = new SuggestTrie(5);
+        trie.put(new SuggestTrie.Entry("book", 1, "Bumi Manusia", "bumi-manusia", 10));
+        trie.put(new SuggestTrie.Entry("book", 2, "Bukan Pasar Malam", "bukan-pasar-malam", 20));
+
+        assertEquals(List.of(2L, 1L), ids(trie.suggest("bu", 5, null)));
+        assertEquals(List.of(1L), ids(trie.suggest("bum", 5, null)));
+        assertEquals(List.of(2L), ids(trie.suggest("buk", 5, null)));
+    }
+
+    @Test
+    void typeFilterIsNotCrowdedOutByPopularEntriesOfOtherTypes() {
+        SuggestTrie trie = new SuggestTrie(3);
+        for (int i = 1; i <= 10; i++) {
+            trie.put(new SuggestTrie.Entry("book", i, "Pramoedya Jilid " + i, "jilid-" + i, 100 + i));
+        }
+        trie.put(new SuggestTrie.Entry("author", 99, "Pramoedya Ananta Toer", "pramoedya-ananta-toer", 1));
+
+        assertEquals(List.of(99L), ids(trie.suggest("pram", 5, Set.of("author"))));
+        assertEquals(List.of(10L, 9L, 8L), ids(trie.suggest("pram", 5, Set.of("book"))));
+        assertEquals(List.of(10L, 9L, 8L, 99L), ids(trie.suggest("pram", 5, Set.of("book", "author"))));
+        assertEquals(List.of(10L, 9L), ids(trie.suggest("pram", 2, null)));
+        assertTrue(trie.suggest("pram", 5, Set.of("article")).isEmpty());
+    }
+
+    @Test
+    void bulkLoadMatchesIncrementalPuts() {
+        SuggestTrie incremental = new SuggestTrie(3);
+        SuggestTrie bulk = new SuggestTrie(3);
+        for (int i = 1; i <= 8; i++) {
+            SuggestTrie.Entry entry = new SuggestTrie.Entry(i % 2 == 0 ? "book" : "author", i, "Sastra " + i, "s-" + i, i);
+            incremental.put(entry);
+            bulk.putDeferred(entry);
+        }
+        bulk.rebuildTops();
+
+        assertEquals(ids(incremental.suggest("sas", 10, null)), ids(bulk.suggest("sas", 10, null)));
+        assertEquals(ids(incremental.suggest("sas", 10, Set.of("author"))), ids(bulk.suggest("sas", 10, Set.of("author"))));
+    }
+
+    @Test
+    void laterWordsAndOldSpellingsMatch() {
+        SuggestTrie trie = new SuggestTrie(5);
+        trie.put(new SuggestTrie.Entry("author", 1, "Soekarno", "soekarno", 10));
+        trie.put(new SuggestTrie.Entry("book", 2, "Di Bawah Bendera Revolusi", "dbbr", 10));
+
+        assertEquals(List.of(1L), ids(trie.suggest("sukar", 5, null)));
+        assertEquals(List.of(1L), ids(trie.suggest("Soek", 5, null)));
+        assertEquals(List.of(2L), ids(trie.suggest("bendera", 5, null)));
+    }
+
+    @Test
+    void removeAndReplaceUpdateSuggestions() {
+        SuggestTrie trie = new SuggestTrie(5);
+        trie.put(new SuggestTrie.Entry("book", 1, "Gadis Pantai", "gadis-pantai", 10));
+        trie.put(new SuggestTrie.Entry("book", 2, "Gadis Kretek", "gadis-kretek", 5));
+
+        trie.remove("book", 1);
+        assertEquals(List.of(2L), ids(trie.suggest("gadis", 5, null)));
+        assertTrue(trie.suggest("pantai", 5, null).isEmpty());
+
+        trie.put(new SuggestTrie.Entry("book", 2, "Ronggeng Dukuh Paruk", "ronggeng", 5));
+        assertTrue(trie.suggest("gadis", 5, null).isEmpty());
+        assertEquals(List.of(2L), ids(trie.suggest("rong", 5, null)));
+        assertEquals(1, trie.size());
+    }
+
+    private static List<Long> ids(List<SuggestTrie.Entry> entries) {
+        return entries.stream().map(SuggestTrie.Entry::id).toList();
+    }
+}